@@ -0,0 +1,173 @@
+package io.kafbat.ui.emitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.cel.extensions.CelExtensions;
+import dev.cel.runtime.CelEvaluationException;
+import dev.cel.runtime.CelRuntime;
+import dev.cel.runtime.CelRuntimeFactory;
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.service.masking.DataMasking;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares masking + smart filter evaluation throughput of eager arguments building (every field is set and
+ * key & value are parsed for each message, as it was done before) with compiled filter that only sets
+ * referenced fields. Run with `-prof gc` to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CelFilterBenchmark {
+
+  private static final String TOPIC = "benchmark-topic";
+  private static final int MESSAGES = 1_000;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({
+      "record.keyAsText.startsWith('order-1')",
+      "record.headers['type'] == 'payment' && record.partition < 8",
+      "record.value.status == 'FAILED' && record.value.amount > 500"
+  })
+  String script;
+
+  private List<TopicMessageDTO> messages;
+  private UnaryOperator<TopicMessageDTO> masker;
+  private Predicate<TopicMessageDTO> compiledFilter;
+  private CelRuntime.Program eagerProgram;
+
+  @Setup
+  public void setup() throws CelEvaluationException {
+    masker = createMasker();
+    compiledFilter = MessageFilters.celScriptFilter(script);
+    eagerProgram = CelRuntimeFactory.standardCelRuntimeBuilder()
+        .addLibraries(CelExtensions.strings(), CelExtensions.encoders())
+        .build()
+        .createProgram(MessageFilters.compile(script));
+
+    var random = ThreadLocalRandom.current();
+    messages = new ArrayList<>(MESSAGES);
+    for (int i = 0; i < MESSAGES; i++) {
+      messages.add(
+          new TopicMessageDTO()
+              .partition(i % 16)
+              .offset((long) i)
+              .timestamp(OffsetDateTime.now())
+              .key("order-" + i)
+              .value(jsonValue(i, random))
+              .headers(Map.of("type", random.nextBoolean() ? "payment" : "refund", "source", "benchmark"))
+      );
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public long eagerArgs() throws CelEvaluationException {
+    long matched = 0;
+    for (TopicMessageDTO msg : messages) {
+      var masked = masker.apply(copy(msg));
+      if (Boolean.TRUE.equals(eagerProgram.eval(eagerRecordToArgs(masked)))) {
+        matched++;
+      }
+    }
+    return matched;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public long compiledFilter() {
+    long matched = 0;
+    for (TopicMessageDTO msg : messages) {
+      var masked = masker.apply(copy(msg));
+      if (compiledFilter.test(masked)) {
+        matched++;
+      }
+    }
+    return matched;
+  }
+
+  // masker sets new key & value, so source messages should not be modified
+  private static TopicMessageDTO copy(TopicMessageDTO msg) {
+    return new TopicMessageDTO()
+        .partition(msg.getPartition())
+        .offset(msg.getOffset())
+        .timestamp(msg.getTimestamp())
+        .key(msg.getKey())
+        .value(msg.getValue())
+        .headers(msg.getHeaders());
+  }
+
+  private static Map<String, Map<String, Object>> eagerRecordToArgs(TopicMessageDTO topicMessage) {
+    Map<String, Object> args = new HashMap<>();
+    args.put("partition", topicMessage.getPartition());
+    args.put("offset", topicMessage.getOffset());
+    args.put("timestampMs", topicMessage.getTimestamp().toInstant().toEpochMilli());
+    args.put("key", parseToJsonOrReturnAsIs(topicMessage.getKey()));
+    args.put("keyAsText", topicMessage.getKey());
+    args.put("value", parseToJsonOrReturnAsIs(topicMessage.getValue()));
+    args.put("valueAsText", topicMessage.getValue());
+    args.put("headers", Objects.requireNonNullElse(topicMessage.getHeaders(), Map.of()));
+    return Map.of("record", args);
+  }
+
+  private static Object parseToJsonOrReturnAsIs(String str) {
+    try {
+      return OBJECT_MAPPER.readValue(str, new TypeReference<Map<String, Object>>() {});
+    } catch (JsonProcessingException e) {
+      return str;
+    }
+  }
+
+  private static String jsonValue(int idx, ThreadLocalRandom random) {
+    var sb = new StringBuilder()
+        .append("{\"id\":").append(idx)
+        .append(",\"status\":\"").append(random.nextInt(20) == 0 ? "FAILED" : "OK").append('"')
+        .append(",\"amount\":").append(random.nextInt(1000))
+        .append(",\"email\":\"user").append(idx).append("@example.com\"")
+        .append(",\"items\":[");
+    for (int i = 0; i < 10; i++) {
+      sb.append(i > 0 ? "," : "")
+          .append("{\"sku\":\"SKU-").append(random.nextInt(100_000)).append('"')
+          .append(",\"qty\":").append(random.nextInt(10))
+          .append(",\"price\":").append(random.nextDouble(100))
+          .append('}');
+    }
+    return sb.append("]}").toString();
+  }
+
+  private static UnaryOperator<TopicMessageDTO> createMasker() {
+    var maskingProperties = new ClustersProperties.Masking();
+    maskingProperties.setType(ClustersProperties.Masking.Type.MASK);
+    maskingProperties.setFields(List.of("email"));
+    maskingProperties.setTopicValuesPattern(".*");
+    return DataMasking.create(List.of(maskingProperties)).getMaskerForTopic(TOPIC);
+  }
+
+}
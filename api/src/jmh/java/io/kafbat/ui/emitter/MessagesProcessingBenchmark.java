@@ -0,0 +1,130 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.serde.api.Serde;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.serdes.PropertyResolverImpl;
+import io.kafbat.ui.serdes.builtin.StringSerde;
+import io.kafbat.ui.service.masking.DataMasking;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures records/sec throughput of deserialization + masking + smart filter stage for a single
+ * polled batch over a 64-partition topic, depending on deserialization parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessagesProcessingBenchmark {
+
+  private static final String TOPIC = "benchmark-topic";
+  private static final int PARTITIONS = 64;
+  private static final int BATCH_SIZE = 512;
+
+  @Param({"1", "2", "4", "8"})
+  int parallelism;
+
+  private List<ConsumerRecord<Bytes, Bytes>> batch;
+  private ConsumerRecordDeserializer deserializer;
+  private Predicate<TopicMessageDTO> filter;
+
+  @Setup
+  public void setup() {
+    deserializer = createDeserializer();
+    filter = MessageFilters.celScriptFilter("record.value.status == 'FAILED' && record.value.amount > 500");
+    batch = new ArrayList<>(BATCH_SIZE);
+    var random = ThreadLocalRandom.current();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      int partition = i % PARTITIONS;
+      batch.add(
+          new ConsumerRecord<>(
+              TOPIC, partition, i / PARTITIONS, System.currentTimeMillis() + random.nextInt(10_000),
+              TimestampType.CREATE_TIME, 0, 0,
+              Bytes.wrap(("key-" + i).getBytes(StandardCharsets.UTF_8)),
+              Bytes.wrap(jsonValue(i, random).getBytes(StandardCharsets.UTF_8)),
+              new RecordHeaders(),
+              Optional.empty()
+          )
+      );
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public Long processBatch() {
+    var processing = new MessagesProcessing(deserializer, filter, true, null, parallelism);
+    return Flux.<TopicMessageEventDTO>create(sink -> {
+          processing.send(sink, batch, null);
+          sink.complete();
+        })
+        .count()
+        .block();
+  }
+
+  private static String jsonValue(int idx, ThreadLocalRandom random) {
+    var sb = new StringBuilder()
+        .append("{\"id\":").append(idx)
+        .append(",\"status\":\"").append(random.nextInt(20) == 0 ? "FAILED" : "OK").append('"')
+        .append(",\"amount\":").append(random.nextInt(1000))
+        .append(",\"email\":\"user").append(idx).append("@example.com\"")
+        .append(",\"items\":[");
+    for (int i = 0; i < 10; i++) {
+      sb.append(i > 0 ? "," : "")
+          .append("{\"sku\":\"SKU-").append(random.nextInt(100_000)).append('"')
+          .append(",\"qty\":").append(random.nextInt(10))
+          .append(",\"price\":").append(random.nextDouble(100))
+          .append('}');
+    }
+    return sb.append("]}").toString();
+  }
+
+  private static ConsumerRecordDeserializer createDeserializer() {
+    Serde serde = new StringSerde();
+    serde.configure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+
+    var maskingProperties = new ClustersProperties.Masking();
+    maskingProperties.setType(ClustersProperties.Masking.Type.MASK);
+    maskingProperties.setFields(List.of("email"));
+    maskingProperties.setTopicValuesPattern(".*");
+
+    return new ConsumerRecordDeserializer(
+        StringSerde.name(),
+        serde.deserializer(TOPIC, Serde.Target.KEY),
+        StringSerde.name(),
+        serde.deserializer(TOPIC, Serde.Target.VALUE),
+        StringSerde.name(),
+        serde.deserializer(TOPIC, Serde.Target.KEY),
+        serde.deserializer(TOPIC, Serde.Target.VALUE),
+        DataMasking.create(List.of(maskingProperties)).getMaskerForTopic(TOPIC)
+    );
+  }
+
+}
@@ -0,0 +1,110 @@
+package io.kafbat.ui.emitter;
+
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares heap-based k-way merge of sortForSending with previous implementation (grouping records by partitions
+ * into TreeMap of re-sorted lists + Guava's mergeSorted) on a 500-records page, polled in consumer's order.
+ * Run with `-prof gc` to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortForSendingBenchmark {
+
+  private static final String TOPIC = "benchmark-topic";
+  private static final int PAGE_SIZE = 500;
+
+  @Param({"10", "100", "250"})
+  int partitions;
+
+  @Param({"true", "false"})
+  boolean asc;
+
+  private List<ConsumerRecord<Bytes, Bytes>> page;
+
+  @Setup
+  public void setup() {
+    var random = ThreadLocalRandom.current();
+    int perPartition = (int) Math.ceil((double) PAGE_SIZE / partitions);
+    page = new ArrayList<>(PAGE_SIZE);
+    for (int partition = 0; partition < partitions; partition++) {
+      long ts = System.currentTimeMillis() + random.nextInt(60_000);
+      for (int offset = 0; offset < perPartition && page.size() < PAGE_SIZE; offset++) {
+        ts += random.nextInt(100);
+        page.add(new ConsumerRecord<>(
+            TOPIC, partition, offset, ts, TimestampType.CREATE_TIME, 0, 0,
+            null, null, new RecordHeaders(), Optional.empty()));
+      }
+    }
+  }
+
+  @Benchmark
+  public void heapMerge(Blackhole blackhole) {
+    for (ConsumerRecord<Bytes, Bytes> rec : MessagesProcessing.sortForSending(page, asc)) {
+      blackhole.consume(rec);
+    }
+  }
+
+  @Benchmark
+  public void groupingAndGuavaMergeSorted(Blackhole blackhole) {
+    for (ConsumerRecord<Bytes, Bytes> rec : legacySortForSending(page, asc)) {
+      blackhole.consume(rec);
+    }
+  }
+
+  // previous MessagesProcessing.sortForSending implementation
+  private static Iterable<ConsumerRecord<Bytes, Bytes>> legacySortForSending(
+      Iterable<ConsumerRecord<Bytes, Bytes>> records,
+      boolean asc) {
+    Comparator<ConsumerRecord<Bytes, Bytes>> offsetComparator = asc
+        ? Comparator.comparingLong(ConsumerRecord::offset)
+        : Comparator.<ConsumerRecord<Bytes, Bytes>>comparingLong(ConsumerRecord::offset).reversed();
+
+    Map<Integer, List<ConsumerRecord<Bytes, Bytes>>> perPartition = Streams.stream(records)
+        .collect(
+            groupingBy(
+                ConsumerRecord::partition,
+                TreeMap::new,
+                collectingAndThen(toList(), lst -> lst.stream().sorted(offsetComparator).toList())));
+
+    Comparator<ConsumerRecord<Bytes, Bytes>> tsComparator = asc
+        ? Comparator.comparing(ConsumerRecord::timestamp)
+        : Comparator.<ConsumerRecord<Bytes, Bytes>>comparingLong(ConsumerRecord::timestamp).reversed();
+
+    return Iterables.mergeSorted(perPartition.values(), tsComparator);
+  }
+
+}
@@ -0,0 +1,103 @@
+package io.kafbat.ui.service.metrics;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares columnar storage of scraped metrics with previous list-of-RawMetric representation on a 60-broker
+ * scrape of 200k samples (broker-level series exposed by every broker + per-partition series of partitions'
+ * replicas hosted by a broker). Run with `-prof gc` to compare allocation rates of building and summarizing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsColumnsBenchmark {
+
+  private static final int BROKERS = 60;
+  private static final int SAMPLES = 200_000;
+  private static final int BROKER_LEVEL_SERIES = 300;
+  private static final int TOPICS = 2_000;
+  private static final String[] PARTITION_FAMILIES = {
+      "kafka_log_Log_Value", "kafka_cluster_Partition_Value", "kafka_server_FetcherLagMetrics_Value"
+  };
+
+  // scrape results, as returned by retrievers
+  private Map<Integer, List<RawMetric>> scraped;
+  private MetricsColumns columns;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    scraped = new HashMap<>();
+    int perBroker = SAMPLES / BROKERS;
+    for (int broker = 0; broker < BROKERS; broker++) {
+      List<RawMetric> metrics = new ArrayList<>(perBroker);
+      for (int i = 0; i < BROKER_LEVEL_SERIES; i++) {
+        metrics.add(RawMetric.create(
+            "kafka_server_BrokerTopicMetrics_" + (i % 10) + "_FifteenMinuteRate",
+            Map.of("name", "Metric" + i),
+            BigDecimal.valueOf(random.nextDouble() * 1000)));
+      }
+      while (metrics.size() < perBroker) {
+        // new strings for every broker, as parser creates them
+        metrics.add(RawMetric.create(
+            new String(PARTITION_FAMILIES[random.nextInt(PARTITION_FAMILIES.length)]),
+            Map.of(
+                new String("topic"), "topic-" + random.nextInt(TOPICS),
+                new String("partition"), String.valueOf(random.nextInt(64))),
+            BigDecimal.valueOf(random.nextInt(1_000_000))));
+      }
+      scraped.put(broker, metrics);
+    }
+    columns = buildColumns(scraped);
+  }
+
+  @Benchmark
+  public MetricsColumns build() {
+    return buildColumns(scraped);
+  }
+
+  @Benchmark
+  public void summarizeColumns(Blackhole blackhole) {
+    columns.summarized().forEach(blackhole::consume);
+  }
+
+  @Benchmark
+  public void summarizeRawMetrics(Blackhole blackhole) {
+    // previous Metrics.getSummarizedMetrics implementation
+    scraped.values().stream()
+        .flatMap(Collection::stream)
+        .collect(toMap(RawMetric::identityKey, m -> m, (m1, m2) -> m1.copyWithValue(m1.value().add(m2.value()))))
+        .values()
+        .forEach(blackhole::consume);
+  }
+
+  private static MetricsColumns buildColumns(Map<Integer, List<RawMetric>> scraped) {
+    var builder = MetricsColumns.builder();
+    scraped.forEach(builder::addAll);
+    return builder.build();
+  }
+
+}
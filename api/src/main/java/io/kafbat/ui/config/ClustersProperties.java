@@ -36,6 +36,8 @@ public class ClustersProperties {
 
   PollingProperties polling = new PollingProperties();
 
+  StatisticsProperties statistics = new StatisticsProperties();
+
   @Data
   public static class Cluster {
     @NotBlank(message = "field name for for cluster could not be blank")
@@ -66,6 +68,10 @@ public class ClustersProperties {
     boolean readOnly = false;
 
     Long pollingThrottleRate;
+    Integer pollingScanConsumers; // overrides polling.scanConsumers for this cluster
+    Integer pollingMaxConcurrentPolls; // overrides polling.maxConcurrentPolls for this cluster
+    Integer statisticsRefreshMs; // overrides update-metrics-rate-millis for this cluster
+    Integer statisticsTimeoutMs; // overrides statistics.refreshTimeoutMs for this cluster
 
     List<@Valid Masking> masking;
 
@@ -73,11 +79,38 @@ public class ClustersProperties {
   }
 
   @Data
+  @ToString(exclude = "cursorSigningKey")
   public static class PollingProperties {
     Integer pollTimeoutMs;
     Integer maxPageSize;
     Integer defaultPageSize;
     Integer responseTimeoutMs;
+    Integer deserializationParallelism;
+    Integer consumerPoolSize;
+    Integer consumerPoolIdleTimeoutMs;
+    String cursorSigningKey;
+    Long pollingRangeMaxBytes;
+    Integer tailingBatchIntervalMs;
+    Integer tailingBatchMaxMessages;
+    Integer scanConsumers;
+    Long recordsCacheMaxBytes;
+    Integer recordsCacheTtlMs;
+    Long streamBufferMaxBytes;
+    Map<String, Integer> userBandwidthWeights; // user -> weight in polling bandwidth sharing, 1 by default
+    Integer maxConcurrentPolls; // per cluster
+    Integer maxQueuedPolls; // per cluster
+    Integer maxQueueWaitMs;
+  }
+
+  @Data
+  public static class StatisticsProperties {
+    Integer topicDescriptionsSweepMs; // period in which all topics are re-described by statistics updates
+    Integer topicConfigsSweepMs; // period in which all topics' configs are reloaded by statistics updates
+    Integer fullRefreshMs; // period of full topics reload
+    String snapshotsDir; // directory to save statistics snapshots to, used to warm-start cache after restart
+    Integer snapshotsSaveIntervalMs; // min period between statistics snapshot saves
+    Integer historyMaxSeries; // max number of throughput history series of all clusters (~1.2KB each)
+    Integer refreshTimeoutMs; // max duration of single cluster's statistics update
   }
 
   @Data
@@ -90,6 +123,7 @@ public class ClustersProperties {
     String password;
     String keystoreLocation;
     String keystorePassword;
+    List<String> allowlist; // metric name prefixes to collect (prometheus only), all metrics collected if not set
   }
 
   @Data
@@ -4,9 +4,14 @@ import io.kafbat.ui.api.ClustersApi;
 import io.kafbat.ui.model.ClusterDTO;
 import io.kafbat.ui.model.ClusterMetricsDTO;
 import io.kafbat.ui.model.ClusterStatsDTO;
+import io.kafbat.ui.model.MetricsHistoryDTO;
+import io.kafbat.ui.model.MetricsHistoryResolutionDTO;
+import io.kafbat.ui.model.MetricsHistorySeriesDTO;
 import io.kafbat.ui.model.rbac.AccessContext;
+import io.kafbat.ui.model.rbac.permission.TopicAction;
 import io.kafbat.ui.service.ClusterService;
 import io.kafbat.ui.service.mcp.McpTool;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -46,6 +51,39 @@ public class ClustersController extends AbstractController implements ClustersAp
         .doOnEach(sig -> audit(context, sig));
   }
 
+  @Override
+  public Mono<ResponseEntity<MetricsHistoryDTO>> getClusterMetricsHistory(String clusterName,
+                                                                          MetricsHistorySeriesDTO series,
+                                                                          String id,
+                                                                          MetricsHistoryResolutionDTO resolution,
+                                                                          ServerWebExchange exchange) {
+    var contextBuilder = AccessContext.builder()
+        .cluster(clusterName)
+        .operationName("getClusterMetricsHistory");
+
+    if (isTopicSeries(series)) {
+      contextBuilder.topicActions(id, TopicAction.VIEW);
+    }
+
+    var context = contextBuilder.build();
+
+    return validateAccess(context)
+        .then(
+            clusterService.getClusterMetricsHistory(getCluster(clusterName), series, id,
+                    Optional.ofNullable(resolution).orElse(MetricsHistoryResolutionDTO.MINUTE))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+        )
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  private static boolean isTopicSeries(MetricsHistorySeriesDTO series) {
+    return switch (series) {
+      case TOPIC_BYTES_IN, TOPIC_BYTES_OUT, TOPIC_MESSAGES_IN -> true;
+      case BROKER_BYTES_IN, BROKER_BYTES_OUT -> false;
+    };
+  }
+
   @Override
   public Mono<ResponseEntity<ClusterStatsDTO>> getClusterStats(String clusterName,
                                                                ServerWebExchange exchange) {
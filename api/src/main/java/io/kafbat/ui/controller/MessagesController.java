@@ -18,6 +18,7 @@ import io.kafbat.ui.model.SeekTypeDTO;
 import io.kafbat.ui.model.SerdeUsageDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionResultDTO;
+import io.kafbat.ui.model.TailingSamplingStrategyDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.model.TopicSerdeSuggestionDTO;
 import io.kafbat.ui.model.rbac.AccessContext;
@@ -104,6 +105,7 @@ public class MessagesController extends AbstractController implements MessagesAp
                                                                              String keySerde,
                                                                              String valueSerde,
                                                                              String cursor,
+                                                                             TailingSamplingStrategyDTO tailingSampling,
                                                                              ServerWebExchange exchange) {
     var contextBuilder = AccessContext.builder()
         .cluster(clusterName)
@@ -129,7 +131,8 @@ public class MessagesController extends AbstractController implements MessagesAp
           smartFilterId,
           limit,
           keySerde,
-          valueSerde
+          valueSerde,
+          tailingSampling
       );
     }
     return accessControlService.validateAccess(accessContext)
@@ -3,6 +3,7 @@ package io.kafbat.ui.emitter;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import jakarta.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.utils.Bytes;
 import reactor.core.publisher.FluxSink;
 
@@ -16,6 +17,16 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
     this.pollingSettings = pollingSettings;
   }
 
+  // should be called before any event is sent to sink
+  protected void trackDemand(FluxSink<TopicMessageEventDTO> sink) {
+    messagesProcessing.trackDemand(sink, pollingSettings.getStreamBufferMaxBytes(), pollingSettings.getMetrics());
+  }
+
+  // pauses polling while subscriber can't keep up with sent messages
+  protected void awaitDemand() {
+    messagesProcessing.awaitDemand();
+  }
+
   protected PolledRecords poll(FluxSink<TopicMessageEventDTO> sink, EnhancedConsumer consumer) {
     var records = consumer.pollEnhanced(pollingSettings.getPollTimeout());
     sendConsuming(sink, records);
@@ -26,6 +37,14 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
     return messagesProcessing.limitReached();
   }
 
+  protected long sentMessages() {
+    return messagesProcessing.sentMessages();
+  }
+
+  protected int sentMessages(TopicPartition tp) {
+    return messagesProcessing.sentMessages(tp.partition());
+  }
+
   protected void send(FluxSink<TopicMessageEventDTO> sink,
                       Iterable<ConsumerRecord<Bytes, Bytes>> records,
                       @Nullable Cursor.Tracking cursor) {
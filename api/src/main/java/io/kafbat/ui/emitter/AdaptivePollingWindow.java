@@ -0,0 +1,106 @@
+package io.kafbat.ui.emitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Calculates number of records to read from each partition in next polling round.
+ * Window starts from page size evenly split between partitions and is adjusted after each round using
+ * partition's observed filter hit rate (so selective filters don't require thousands of small rounds).
+ * Window growth is limited per round, window shrinks if round took too long, and total size of
+ * round's data is bounded by bytes budget.
+ */
+class AdaptivePollingWindow {
+
+  private static final int MAX_GROWTH_FACTOR = 4;
+
+  private final int messagesPerPage;
+  private final long bytesBudget;
+  private final Duration roundLatencyTarget;
+
+  private final Map<TopicPartition, PartitionStats> partitionStats = new HashMap<>();
+
+  private static final class PartitionStats {
+    int window;
+    long polledRecords;
+    long polledBytes;
+  }
+
+  AdaptivePollingWindow(int messagesPerPage, long bytesBudget, Duration roundLatencyTarget) {
+    this.messagesPerPage = messagesPerPage;
+    this.bytesBudget = bytesBudget;
+    this.roundLatencyTarget = roundLatencyTarget;
+  }
+
+  int windowSize(TopicPartition tp, int partitionsInRange) {
+    int minWindow = minWindow(partitionsInRange);
+    var stats = partitionStats.get(tp);
+    return stats == null ? minWindow : Math.max(minWindow, stats.window);
+  }
+
+  /**
+   * Adjusts windows of polled partitions.
+   *
+   * @param rangePartitions   partitions that were polled in last round
+   * @param polled            records polled in last round
+   * @param sentPerPartition  total number of messages sent (matched filter) from partition
+   * @param remainingMessages number of messages that still need to be sent to fill the page
+   * @param roundDuration     time spent on last round
+   */
+  void update(Collection<TopicPartition> rangePartitions,
+              List<ConsumerRecord<Bytes, Bytes>> polled,
+              ToIntFunction<TopicPartition> sentPerPartition,
+              int remainingMessages,
+              Duration roundDuration) {
+    int partitions = rangePartitions.size();
+    if (partitions == 0 || remainingMessages <= 0) {
+      return;
+    }
+    Map<Integer, long[]> polledPerPartition = new HashMap<>(); // partition -> [records, bytes]
+    for (ConsumerRecord<Bytes, Bytes> rec : polled) {
+      long[] counts = polledPerPartition.computeIfAbsent(rec.partition(), p -> new long[2]);
+      counts[0]++;
+      counts[1] += PolledRecords.recordSize(rec);
+    }
+
+    int minWindow = minWindow(partitions);
+    long neededPerPartition = (long) Math.ceil((double) remainingMessages / partitions);
+    boolean tooSlow = roundDuration.compareTo(roundLatencyTarget) > 0;
+    for (TopicPartition tp : rangePartitions) {
+      int current = windowSize(tp, partitions);
+      var stats = partitionStats.computeIfAbsent(tp, t -> new PartitionStats());
+      long[] counts = polledPerPartition.getOrDefault(tp.partition(), new long[2]);
+      stats.polledRecords += counts[0];
+      stats.polledBytes += counts[1];
+
+      int hits = sentPerPartition.applyAsInt(tp);
+      long maxWindow = (long) current * MAX_GROWTH_FACTOR;
+      long desired = hits == 0 || stats.polledRecords == 0
+          ? maxWindow
+          // expecting same hit rate in next records
+          : (long) Math.ceil((double) neededPerPartition * stats.polledRecords / hits);
+      desired = Math.max(minWindow, Math.min(desired, maxWindow));
+      if (tooSlow) {
+        desired = Math.min(desired, Math.max(minWindow, current / 2));
+      }
+      if (stats.polledRecords > 0 && stats.polledBytes > 0) {
+        long avgRecordSize = Math.max(1, stats.polledBytes / stats.polledRecords);
+        long windowByBudget = bytesBudget / partitions / avgRecordSize;
+        desired = Math.min(desired, Math.max(minWindow, windowByBudget));
+      }
+      stats.window = (int) Math.min(desired, Integer.MAX_VALUE);
+    }
+  }
+
+  private int minWindow(int partitionsInRange) {
+    return (int) Math.ceil((double) messagesPerPage / partitionsInRange);
+  }
+
+}
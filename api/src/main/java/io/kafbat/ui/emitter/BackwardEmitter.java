@@ -3,16 +3,25 @@ package io.kafbat.ui.emitter;
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import java.time.Duration;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
 
 public class BackwardEmitter extends RangePollingEmitter {
 
+  // polling window is shrunk if a single round takes longer
+  private static final Duration ROUND_LATENCY_TARGET = Duration.ofSeconds(3);
+
+  private final AdaptivePollingWindow pollingWindow;
+
   public BackwardEmitter(Supplier<EnhancedConsumer> consumerSupplier,
                          ConsumerPosition consumerPosition,
                          int messagesPerPage,
@@ -24,10 +33,26 @@ public class BackwardEmitter extends RangePollingEmitter {
         consumerSupplier,
         consumerPosition,
         messagesPerPage,
-        new MessagesProcessing(deserializer, filter, false, messagesPerPage),
+        new MessagesProcessing(
+            deserializer, filter, false, messagesPerPage, pollingSettings.getDeserializationParallelism()),
         pollingSettings,
         cursor
     );
+    this.pollingWindow = new AdaptivePollingWindow(
+        messagesPerPage, pollingSettings.getPollingRangeMaxBytes(), ROUND_LATENCY_TARGET);
+  }
+
+  @Override
+  protected void onRangePolled(TreeMap<TopicPartition, FromToOffset> range,
+                               List<ConsumerRecord<Bytes, Bytes>> polled,
+                               Duration elapsed) {
+    pollingWindow.update(
+        range.keySet(),
+        polled,
+        this::sentMessages,
+        (int) (messagesPerPage - sentMessages()),
+        elapsed
+    );
   }
 
   @Override
@@ -44,12 +69,12 @@ public class BackwardEmitter extends RangePollingEmitter {
       );
     }
 
-    int msgsToPollPerPartition = (int) Math.ceil((double) messagesPerPage / readToOffsets.size());
     TreeMap<TopicPartition, FromToOffset> result = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
     readToOffsets.forEach((tp, toOffset) -> {
       long tpStartOffset = seekOperations.getBeginOffsets().get(tp);
       if (toOffset > tpStartOffset) {
-        result.put(tp, new FromToOffset(Math.max(tpStartOffset, toOffset - msgsToPollPerPartition), toOffset));
+        int msgsToPoll = pollingWindow.windowSize(tp, readToOffsets.size());
+        result.put(tp, new FromToOffset(Math.max(tpStartOffset, toOffset - msgsToPoll), toOffset));
       }
     });
     return result;
@@ -0,0 +1,38 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+/**
+ * Precompiled byte sequence matcher (Boyer-Moore-Horspool), used to search text in raw record data.
+ */
+final class BytesPattern {
+
+  private final byte[] pattern;
+  // byte value -> how far pattern can be shifted when this byte is under pattern's last position
+  private final int[] shifts = new int[256];
+
+  BytesPattern(byte[] pattern) {
+    Preconditions.checkArgument(pattern.length > 0, "Pattern should not be empty");
+    this.pattern = pattern.clone();
+    Arrays.fill(shifts, pattern.length);
+    for (int i = 0; i < pattern.length - 1; i++) {
+      shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+    }
+  }
+
+  boolean foundIn(byte[] data) {
+    int last = pattern.length - 1;
+    for (int pos = 0; pos + last < data.length; pos += shifts[data[pos + last] & 0xFF]) {
+      int i = last;
+      while (data[pos + i] == pattern[i]) {
+        if (i == 0) {
+          return true;
+        }
+        i--;
+      }
+    }
+    return false;
+  }
+
+}
@@ -4,7 +4,6 @@ import io.kafbat.ui.model.TopicMessageConsumingDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.model.TopicMessageNextPageCursorDTO;
 import javax.annotation.Nullable;
-import reactor.core.publisher.FluxSink;
 
 class ConsumingStats {
 
@@ -13,32 +12,28 @@ class ConsumingStats {
   private long elapsed = 0;
   private int filterApplyErrors = 0;
 
-  void sendConsumingEvt(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
+  TopicMessageEventDTO consumingEvt(PolledRecords polledRecords) {
     bytes += polledRecords.bytes();
     records += polledRecords.count();
     elapsed += polledRecords.elapsed().toMillis();
-    sink.next(
-        new TopicMessageEventDTO()
-            .type(TopicMessageEventDTO.TypeEnum.CONSUMING)
-            .consuming(createConsumingStats())
-    );
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.CONSUMING)
+        .consuming(createConsumingStats());
   }
 
   void incFilterApplyError() {
     filterApplyErrors++;
   }
 
-  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink, @Nullable Cursor.Tracking cursor) {
-    sink.next(
-        new TopicMessageEventDTO()
-            .type(TopicMessageEventDTO.TypeEnum.DONE)
-            .cursor(
-                cursor != null
-                    ? new TopicMessageNextPageCursorDTO().id(cursor.registerCursor())
-                    : null
-            )
-            .consuming(createConsumingStats())
-    );
+  TopicMessageEventDTO finishEvent(@Nullable Cursor.Tracking cursor) {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.DONE)
+        .cursor(
+            cursor != null
+                ? new TopicMessageNextPageCursorDTO().id(cursor.registerCursor())
+                : null
+        )
+        .consuming(createConsumingStats());
   }
 
   private TopicMessageConsumingDTO createConsumingStats() {
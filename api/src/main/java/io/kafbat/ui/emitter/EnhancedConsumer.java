@@ -9,6 +9,9 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.ObjectPool;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -16,13 +19,19 @@ import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.BytesDeserializer;
 import org.apache.kafka.common.utils.Bytes;
 
-
+@Slf4j
 public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
 
   private final PollingThrottler throttler;
   private final ApplicationMetrics metrics;
   private String pollingTopic;
 
+  // set while consumer is borrowed from pool, close() returns consumer to the pool instead of closing it
+  @Nullable
+  private ObjectPool<EnhancedConsumer> pool;
+  // set to false if polling failed, such consumers are not reused
+  private volatile boolean healthy = true;
+
   public EnhancedConsumer(Properties properties,
                           PollingThrottler throttler,
                           ApplicationMetrics metrics) {
@@ -34,7 +43,13 @@ public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
 
   public PolledRecords pollEnhanced(Duration dur) {
     var stopwatch = Stopwatch.createStarted();
-    ConsumerRecords<Bytes, Bytes> polled = poll(dur);
+    ConsumerRecords<Bytes, Bytes> polled;
+    try {
+      polled = poll(dur);
+    } catch (RuntimeException e) {
+      healthy = false;
+      throw e;
+    }
     PolledRecords polledEnhanced = PolledRecords.create(polled, stopwatch.elapsed());
     var throttled = throttler.throttleAfterPoll(polledEnhanced.bytes());
     metrics.meterPolledRecords(pollingTopic, polledEnhanced, throttled);
@@ -69,10 +84,55 @@ public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
     throw new UnsupportedOperationException();
   }
 
+  // polled bytes are charged to stream's share of cluster's polling bandwidth until consumer is reset
+  void setBandwidthShare(PollingBandwidthScheduler.Share share) {
+    throttler.setShare(share);
+  }
+
+  void setPool(@Nullable ObjectPool<EnhancedConsumer> pool) {
+    this.pool = pool;
+  }
+
+  boolean isHealthy() {
+    return healthy;
+  }
+
+  // returning consumer to the initial state, so it can be reused by other polling session
+  void reset() {
+    super.unsubscribe(); //also resumes all paused partitions
+    pollingTopic = null;
+    throttler.reset();
+  }
+
+  @Override
+  public void close() {
+    if (!returnedToPool()) {
+      metrics.activeConsumers().decrementAndGet();
+      super.close();
+    }
+  }
+
   @Override
   public void close(Duration timeout) {
-    metrics.activeConsumers().decrementAndGet();
-    super.close(timeout);
+    if (!returnedToPool()) {
+      metrics.activeConsumers().decrementAndGet();
+      super.close(timeout);
+    }
+  }
+
+  private boolean returnedToPool() {
+    var ownerPool = pool;
+    if (ownerPool == null) {
+      return false;
+    }
+    pool = null;
+    try {
+      ownerPool.returnObject(this);
+      return true;
+    } catch (Exception e) {
+      log.warn("Error returning consumer to the pool, closing it", e);
+      return false;
+    }
   }
 
 }
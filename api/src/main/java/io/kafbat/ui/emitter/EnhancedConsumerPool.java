@@ -0,0 +1,109 @@
+package io.kafbat.ui.emitter;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * Keeps idle consumers of a single cluster for reuse between polling sessions, so messages
+ * browsing doesn't pay for consumer creation, connection establishment and metadata fetching on each page.
+ * Consumer is returned to the pool on close() call, reset to initial state (no assignment, no paused partitions,
+ * clear throttling state) and closed if polling failed during its usage.
+ * Number of borrowed consumers is not limited, pool only limits number of kept idle consumers.
+ */
+@Slf4j
+public class EnhancedConsumerPool implements Closeable {
+
+  private static final Duration EVICTION_RUNS_INTERVAL = Duration.ofSeconds(30);
+
+  private final Supplier<EnhancedConsumer> consumerFactory;
+  private final GenericObjectPool<EnhancedConsumer> pool;
+
+  public EnhancedConsumerPool(Supplier<EnhancedConsumer> consumerFactory,
+                              int maxIdle,
+                              Duration idleTimeout) {
+    this.consumerFactory = consumerFactory;
+    this.pool = new GenericObjectPool<>(new ConsumerFactory(), poolConfig(maxIdle, idleTimeout));
+  }
+
+  private static GenericObjectPoolConfig<EnhancedConsumer> poolConfig(int maxIdle, Duration idleTimeout) {
+    var config = new GenericObjectPoolConfig<EnhancedConsumer>();
+    config.setMaxTotal(-1); // borrowing should never block
+    config.setMaxIdle(maxIdle);
+    config.setMinIdle(0);
+    config.setLifo(true); // most recently used consumers are more likely to have alive connections
+    config.setTestOnReturn(true);
+    config.setTestOnBorrow(true);
+    config.setMinEvictableIdleDuration(idleTimeout);
+    config.setTimeBetweenEvictionRuns(EVICTION_RUNS_INTERVAL);
+    config.setJmxEnabled(false);
+    return config;
+  }
+
+  /**
+   * Returns idle consumer or creates new one if there are no idle consumers.
+   * Consumer should be closed after usage to return it to the pool.
+   */
+  public EnhancedConsumer borrow() {
+    EnhancedConsumer consumer;
+    try {
+      consumer = pool.borrowObject();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException("Error getting consumer from pool", e);
+    }
+    consumer.setPool(pool);
+    return consumer;
+  }
+
+  public int getIdleCount() {
+    return pool.getNumIdle();
+  }
+
+  @Override
+  public void close() {
+    pool.close();
+  }
+
+  private class ConsumerFactory extends BasePooledObjectFactory<EnhancedConsumer> {
+
+    @Override
+    public EnhancedConsumer create() {
+      return consumerFactory.get();
+    }
+
+    @Override
+    public PooledObject<EnhancedConsumer> wrap(EnhancedConsumer consumer) {
+      return new DefaultPooledObject<>(consumer);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<EnhancedConsumer> p) {
+      return p.getObject().isHealthy();
+    }
+
+    @Override
+    public void passivateObject(PooledObject<EnhancedConsumer> p) {
+      p.getObject().reset();
+    }
+
+    @Override
+    public void destroyObject(PooledObject<EnhancedConsumer> p) {
+      var consumer = p.getObject();
+      consumer.setPool(null);
+      try {
+        consumer.close();
+      } catch (Exception e) {
+        log.warn("Error closing pooled consumer", e);
+      }
+    }
+  }
+
+}
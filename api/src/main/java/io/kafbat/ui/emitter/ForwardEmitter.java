@@ -24,7 +24,8 @@ public class ForwardEmitter extends RangePollingEmitter {
         consumerSupplier,
         consumerPosition,
         messagesPerPage,
-        new MessagesProcessing(deserializer, filter, true, messagesPerPage),
+        new MessagesProcessing(
+            deserializer, filter, true, messagesPerPage, pollingSettings.getDeserializationParallelism()),
         pollingSettings,
         cursor
     );
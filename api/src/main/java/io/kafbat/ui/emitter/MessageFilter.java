@@ -0,0 +1,54 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.model.TopicMessageDTO;
+import java.util.function.Predicate;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Messages filter that can optionally reject records by their raw (not deserialized) data.
+ * Raw check is applied before deserialization, so rejected records don't pay for key/value deserialization
+ * and masking.
+ */
+public interface MessageFilter extends Predicate<TopicMessageDTO> {
+
+  /**
+   * Checks record before deserialization. Should only return false if deserialized message would
+   * definitely be rejected by {@link #test(Object)}.
+   */
+  default boolean testRaw(ConsumerRecord<Bytes, Bytes> rec) {
+    return true;
+  }
+
+  @Override
+  default MessageFilter and(Predicate<? super TopicMessageDTO> other) {
+    MessageFilter self = this;
+    return new MessageFilter() {
+      @Override
+      public boolean test(TopicMessageDTO msg) {
+        return self.test(msg) && other.test(msg);
+      }
+
+      @Override
+      public boolean testRaw(ConsumerRecord<Bytes, Bytes> rec) {
+        return self.testRaw(rec) && (!(other instanceof MessageFilter otherFilter) || otherFilter.testRaw(rec));
+      }
+    };
+  }
+
+  static MessageFilter of(Predicate<TopicMessageDTO> messageFilter,
+                          Predicate<ConsumerRecord<Bytes, Bytes>> rawRecordFilter) {
+    return new MessageFilter() {
+      @Override
+      public boolean test(TopicMessageDTO msg) {
+        return messageFilter.test(msg);
+      }
+
+      @Override
+      public boolean testRaw(ConsumerRecord<Bytes, Bytes> rec) {
+        return rawRecordFilter.test(rec);
+      }
+    };
+  }
+
+}
@@ -2,9 +2,10 @@ package io.kafbat.ui.emitter;
 
 import static java.util.Collections.emptyMap;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.NullValue;
@@ -12,6 +13,7 @@ import dev.cel.common.CelAbstractSyntaxTree;
 import dev.cel.common.CelOptions;
 import dev.cel.common.CelValidationException;
 import dev.cel.common.CelValidationResult;
+import dev.cel.common.ast.CelExpr;
 import dev.cel.common.types.CelType;
 import dev.cel.common.types.CelTypeProvider;
 import dev.cel.common.types.MapType;
@@ -26,16 +28,26 @@ import dev.cel.runtime.CelRuntime;
 import dev.cel.runtime.CelRuntimeFactory;
 import io.kafbat.ui.exception.CelException;
 import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.util.ContentUtils;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.utils.Bytes;
 
 @Slf4j
 @UtilityClass
@@ -43,22 +55,103 @@ public class MessageFilters {
 
   private static final String CEL_RECORD_VAR_NAME = "record";
   private static final String CEL_RECORD_TYPE_NAME = TopicMessageDTO.class.getSimpleName();
+  private static final Map<String, CelType> CEL_RECORD_FIELDS = Map.of(
+      "partition", SimpleType.INT,
+      "offset", SimpleType.INT,
+      "timestampMs", SimpleType.INT,
+      "keyAsText", SimpleType.STRING,
+      "valueAsText", SimpleType.STRING,
+      "headers", MapType.create(SimpleType.STRING, SimpleType.STRING),
+      "key", SimpleType.DYN,
+      "value", SimpleType.DYN
+  );
 
   private static final CelCompiler CEL_COMPILER = createCompiler();
   private static final CelRuntime CEL_RUNTIME = createRuntime();
   private static final Object CELL_NULL_VALUE = NullValue.NULL_VALUE;
 
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String CEL_LOGICAL_AND_FUNCTION = "_&&_";
+  // record fields that can be evaluated without key & value deserialization
+  private static final Set<String> CEL_RECORD_METADATA_FIELDS = Set.of("partition", "offset", "timestampMs", "headers");
 
-  public static Predicate<TopicMessageDTO> noop() {
+  private static final char UNICODE_REPLACEMENT_CHAR = '\uFFFD'; // used by decoders for malformed input
+
+  private static final ObjectReader JSON_MAP_READER = new ObjectMapper()
+      .readerFor(new TypeReference<Map<String, Object>>() {});
+
+  // evaluation arguments are reused by all evaluations on the same thread, since programs don't keep them
+  private static final ThreadLocal<RecordArgs> RECORD_ARGS = ThreadLocal.withInitial(RecordArgs::new);
+
+  private static final class RecordArgs {
+    private final Map<String, Object> fields = new HashMap<>();
+    private final Map<String, Map<String, Object>> args = Map.of(CEL_RECORD_VAR_NAME, fields);
+
+    Map<String, Object> clearedFields() {
+      fields.clear();
+      return fields;
+    }
+  }
+
+  public static MessageFilter noop() {
     return e -> true;
   }
 
-  public static Predicate<TopicMessageDTO> containsStringFilter(String string) {
+  public static MessageFilter containsStringFilter(String string) {
     return msg -> StringUtils.contains(msg.getKey(), string)
         || StringUtils.contains(msg.getValue(), string) || headersContains(msg, string);
   }
 
+  /*
+   * Same as containsStringFilter(string), but also checks records before deserialization. rawKeyEncoding and
+   * rawValueEncoding are charsets in which deserialized key/value can be found in raw bytes as is (null if
+   * it is not guaranteed by serde). Search string is encoded once and looked up in raw key & value bytes,
+   * records where it can't be found are skipped without deserialization.
+   */
+  public static MessageFilter containsStringFilter(String string,
+                                                   @Nullable Charset rawKeyEncoding,
+                                                   @Nullable Charset rawValueEncoding) {
+    MessageFilter messageFilter = containsStringFilter(string);
+    BytesPattern keyPattern = rawTextPattern(string, rawKeyEncoding);
+    BytesPattern valuePattern = rawTextPattern(string, rawValueEncoding);
+    if (keyPattern == null && valuePattern == null) {
+      return messageFilter;
+    }
+    return MessageFilter.of(
+        messageFilter,
+        rec -> rawMayContain(rec.key(), keyPattern)
+            || rawMayContain(rec.value(), valuePattern)
+            || rawHeadersContain(rec, string)
+    );
+  }
+
+  @Nullable
+  private static BytesPattern rawTextPattern(String string, @Nullable Charset encoding) {
+    // replacement char can appear in decoded text without being encoded in source bytes
+    if (encoding == null || string.isEmpty() || string.indexOf(UNICODE_REPLACEMENT_CHAR) >= 0) {
+      return null;
+    }
+    return new BytesPattern(string.getBytes(encoding));
+  }
+
+  // null pattern means that text can't be checked on raw bytes
+  private static boolean rawMayContain(@Nullable Bytes data, @Nullable BytesPattern pattern) {
+    if (data == null) {
+      return false;
+    }
+    return pattern == null || pattern.foundIn(data.get());
+  }
+
+  // headers are converted to strings same way as it is done during deserialization
+  private static boolean rawHeadersContain(ConsumerRecord<Bytes, Bytes> rec, String searchString) {
+    for (Header header : rec.headers()) {
+      if (StringUtils.contains(header.key(), searchString)
+          || StringUtils.contains(ContentUtils.convertToString(header.value()), searchString)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static boolean headersContains(TopicMessageDTO msg, String searchString) {
     final var headers = msg.getHeaders();
 
@@ -75,27 +168,174 @@ public class MessageFilters {
     return false;
   }
 
-  public static Predicate<TopicMessageDTO> celScriptFilter(String script) {
+  public static MessageFilter celScriptFilter(String script) {
+    CelAbstractSyntaxTree ast = compile(script);
+    try {
+      CelRuntime.Program program = CEL_RUNTIME.createProgram(ast);
+      Set<String> referencedFields = referencedRecordFields(ast.getExpr());
+
+      return MessageFilter.of(createPredicate(script, program, referencedFields), createRawRecordPredicate(ast));
+    } catch (CelEvaluationException e) {
+      throw new CelException(script, e);
+    }
+  }
+
+  @VisibleForTesting
+  static CelAbstractSyntaxTree compile(String script) {
     CelValidationResult celValidationResult = CEL_COMPILER.compile(script);
     if (celValidationResult.hasError()) {
       throw new CelException(script, celValidationResult.getErrorString());
     }
+    try {
+      return celValidationResult.getAst();
+    } catch (CelValidationException e) {
+      throw new CelException(script, e);
+    }
+  }
 
+  /*
+   * Creates predicate from top-level script conjuncts (`cond1 && cond2 && ...`) that only reference record's
+   * metadata fields. Such conjuncts can be evaluated on raw record and if any of them is false - whole
+   * script will be false for deserialized message, so there is no need to deserialize it.
+   */
+  private static Predicate<ConsumerRecord<Bytes, Bytes>> createRawRecordPredicate(CelAbstractSyntaxTree ast)
+      throws CelEvaluationException {
+    List<CelRuntime.Program> metadataPrograms = new ArrayList<>();
+    Set<String> metadataFields = new HashSet<>();
+    for (CelExpr conjunct : topLevelConjuncts(ast.getExpr())) {
+      Set<String> conjunctFields = referencedRecordFields(conjunct);
+      if (CEL_RECORD_METADATA_FIELDS.containsAll(conjunctFields)) {
+        metadataFields.addAll(conjunctFields);
+        var conjunctAst = CelAbstractSyntaxTree.newCheckedAst(
+            conjunct, ast.getSource(), ast.getReferenceMap(), ast.getTypeMap());
+        metadataPrograms.add(CEL_RUNTIME.createProgram(conjunctAst));
+      }
+    }
+    if (metadataPrograms.isEmpty()) {
+      return rec -> true;
+    }
+    return rec -> {
+      var args = rawRecordToArgs(rec, metadataFields);
+      for (CelRuntime.Program program : metadataPrograms) {
+        if (evaluatesToFalse(program, args)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  private static boolean evaluatesToFalse(CelRuntime.Program program, Map<String, ?> args) {
     try {
-      CelAbstractSyntaxTree ast = celValidationResult.getAst();
-      CelRuntime.Program program = CEL_RUNTIME.createProgram(ast);
+      return Boolean.FALSE.equals(program.eval(args));
+    } catch (CelEvaluationException e) {
+      // can't decide on metadata only, whole script will be evaluated on deserialized message
+      return false;
+    }
+  }
 
-      return createPredicate(script, program);
-    } catch (CelValidationException | CelEvaluationException e) {
-      throw new CelException(script, e);
+  private static List<CelExpr> topLevelConjuncts(CelExpr expr) {
+    if (expr.exprKind().getKind() == CelExpr.ExprKind.Kind.CALL
+        && expr.call().function().equals(CEL_LOGICAL_AND_FUNCTION)) {
+      List<CelExpr> result = new ArrayList<>();
+      expr.call().args().forEach(arg -> result.addAll(topLevelConjuncts(arg)));
+      return result;
+    }
+    return List.of(expr);
+  }
+
+  /*
+   * Returns record fields used by expression. All fields are returned if record is used as a whole (or if record
+   * variable is shadowed), so it is enough to only pass returned fields to program evaluation.
+   */
+  private static Set<String> referencedRecordFields(CelExpr expr) {
+    Set<String> fields = new HashSet<>();
+    collectRecordFields(expr, fields);
+    return fields;
+  }
+
+  private static void collectRecordFields(CelExpr expr, Set<String> fields) {
+    switch (expr.exprKind().getKind()) {
+      case CONSTANT -> {
+        // no fields referenced
+      }
+      case IDENT -> {
+        // using whole record (not its fields)
+        if (expr.ident().name().equals(CEL_RECORD_VAR_NAME)) {
+          fields.addAll(CEL_RECORD_FIELDS.keySet());
+        }
+      }
+      case SELECT -> {
+        if (isRecordIdent(expr.select().operand())) {
+          fields.add(expr.select().field());
+        } else {
+          collectRecordFields(expr.select().operand(), fields);
+        }
+      }
+      case CALL -> {
+        expr.call().target().ifPresent(target -> collectRecordFields(target, fields));
+        expr.call().args().forEach(arg -> collectRecordFields(arg, fields));
+      }
+      case CREATE_LIST -> expr.createList().elements().forEach(e -> collectRecordFields(e, fields));
+      case CREATE_MAP -> expr.createMap().entries().forEach(e -> {
+        collectRecordFields(e.key(), fields);
+        collectRecordFields(e.value(), fields);
+      });
+      case CREATE_STRUCT -> expr.createStruct().entries().forEach(e -> collectRecordFields(e.value(), fields));
+      case COMPREHENSION -> {
+        var comprehension = expr.comprehension();
+        // comprehension variable shadows record variable
+        if (comprehension.iterVar().equals(CEL_RECORD_VAR_NAME)
+            || comprehension.accuVar().equals(CEL_RECORD_VAR_NAME)) {
+          fields.addAll(CEL_RECORD_FIELDS.keySet());
+          return;
+        }
+        collectRecordFields(comprehension.iterRange(), fields);
+        collectRecordFields(comprehension.accuInit(), fields);
+        collectRecordFields(comprehension.loopCondition(), fields);
+        collectRecordFields(comprehension.loopStep(), fields);
+        collectRecordFields(comprehension.result(), fields);
+      }
+      default -> fields.addAll(CEL_RECORD_FIELDS.keySet());
+    }
+  }
+
+  private static boolean isRecordIdent(CelExpr expr) {
+    return expr.exprKind().getKind() == CelExpr.ExprKind.Kind.IDENT
+        && expr.ident().name().equals(CEL_RECORD_VAR_NAME);
+  }
+
+  // should produce same metadata fields values as recordToArgs() does for deserialized message
+  private static Map<String, Map<String, Object>> rawRecordToArgs(ConsumerRecord<Bytes, Bytes> rec,
+                                                                   Set<String> fields) {
+    var recordArgs = RECORD_ARGS.get();
+    Map<String, Object> args = recordArgs.clearedFields();
+    if (fields.contains("partition")) {
+      args.put("partition", rec.partition());
+    }
+    if (fields.contains("offset")) {
+      args.put("offset", rec.offset());
+    }
+    if (fields.contains("timestampMs")) {
+      args.put("timestampMs", rec.timestamp());
+    }
+    if (fields.contains("headers")) {
+      Map<String, String> headers = new HashMap<>();
+      for (Header header : rec.headers()) {
+        headers.put(header.key(), ContentUtils.convertToString(header.value()));
+      }
+      args.put("headers", headers);
     }
+    return recordArgs.args;
   }
 
-  private static Predicate<TopicMessageDTO> createPredicate(String originalScript, CelRuntime.Program program) {
+  private static Predicate<TopicMessageDTO> createPredicate(String originalScript,
+                                                            CelRuntime.Program program,
+                                                            Set<String> referencedFields) {
     return topicMessage -> {
       Object programResult;
       try {
-        programResult = program.eval(recordToArgs(topicMessage));
+        programResult = program.eval(recordToArgs(topicMessage, referencedFields));
       } catch (CelEvaluationException e) {
         throw new CelException(originalScript, e);
       }
@@ -111,52 +351,57 @@ public class MessageFilters {
     };
   }
 
-  private static Map<String, Map<String, Object>> recordToArgs(TopicMessageDTO topicMessage) {
-    Map<String, Object> args = new HashMap<>();
+  // only fields that are referenced by script are set, key & value are only parsed if script uses them
+  private static Map<String, Map<String, Object>> recordToArgs(TopicMessageDTO topicMessage, Set<String> fields) {
+    var recordArgs = RECORD_ARGS.get();
+    Map<String, Object> args = recordArgs.clearedFields();
 
-    args.put("partition", topicMessage.getPartition());
-    args.put("offset", topicMessage.getOffset());
+    if (fields.contains("partition")) {
+      args.put("partition", topicMessage.getPartition());
+    }
+    if (fields.contains("offset")) {
+      args.put("offset", topicMessage.getOffset());
+    }
 
-    if (topicMessage.getTimestamp() != null) {
+    if (topicMessage.getTimestamp() != null && fields.contains("timestampMs")) {
       args.put("timestampMs", topicMessage.getTimestamp().toInstant().toEpochMilli());
     }
 
     if (topicMessage.getKey() != null) {
-      args.put("key", parseToJsonOrReturnAsIs(topicMessage.getKey()));
-      args.put("keyAsText", topicMessage.getKey());
+      if (fields.contains("key")) {
+        args.put("key", parseToJsonOrReturnAsIs(topicMessage.getKey()));
+      }
+      if (fields.contains("keyAsText")) {
+        args.put("keyAsText", topicMessage.getKey());
+      }
     }
 
     if (topicMessage.getValue() != null) {
-      args.put("value", parseToJsonOrReturnAsIs(topicMessage.getValue()));
-      args.put("valueAsText", topicMessage.getValue());
+      if (fields.contains("value")) {
+        args.put("value", parseToJsonOrReturnAsIs(topicMessage.getValue()));
+      }
+      if (fields.contains("valueAsText")) {
+        args.put("valueAsText", topicMessage.getValue());
+      }
     }
 
-    args.put("headers", Objects.requireNonNullElse(topicMessage.getHeaders(), emptyMap()));
+    if (fields.contains("headers")) {
+      args.put("headers", Objects.requireNonNullElse(topicMessage.getHeaders(), emptyMap()));
+    }
 
-    return Map.of("record", args);
+    return recordArgs.args;
   }
 
   private static CelCompiler createCompiler() {
-    Map<String, CelType> fields = Map.of(
-        "partition", SimpleType.INT,
-        "offset", SimpleType.INT,
-        "timestampMs", SimpleType.INT,
-        "keyAsText", SimpleType.STRING,
-        "valueAsText", SimpleType.STRING,
-        "headers", MapType.create(SimpleType.STRING, SimpleType.STRING),
-        "key", SimpleType.DYN,
-        "value", SimpleType.DYN
-    );
-
     ImmutableSet<String> names = ImmutableSet
         .<String>builder()
-        .addAll(fields.keySet())
+        .addAll(CEL_RECORD_FIELDS.keySet())
         .build();
 
     StructType recordType = StructType.create(
         CEL_RECORD_TYPE_NAME,
         names,
-        fieldName -> Optional.ofNullable(fields.get(fieldName))
+        fieldName -> Optional.ofNullable(CEL_RECORD_FIELDS.get(fieldName))
     );
 
     return CelCompilerFactory.standardCelCompilerBuilder()
@@ -192,11 +437,9 @@ public class MessageFilters {
     }
 
     try {
-      //@formatter:off
-      var map = OBJECT_MAPPER.readValue(str, new TypeReference<Map<String, Object>>() {});
-      //@formatter:on
+      Map<String, Object> map = JSON_MAP_READER.readValue(str);
       return replaceCelNulls(map);
-    } catch (JsonProcessingException e) {
+    } catch (IOException e) {
       return str;
     }
   }
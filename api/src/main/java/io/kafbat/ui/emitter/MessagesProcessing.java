@@ -1,86 +1,261 @@
 package io.kafbat.ui.emitter;
 
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
-
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Streams;
+import com.google.common.collect.Lists;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.model.TopicMessagePhaseDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
-import java.util.Comparator;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.utils.Bytes;
+import reactor.core.Exceptions;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @RequiredArgsConstructor
 class MessagesProcessing {
 
+  // shared by all polling streams, per-stream concurrency is limited by deserializationParallelism setting
+  private static final Scheduler PROCESSING_SCHEDULER = Schedulers.newBoundedElastic(
+      Runtime.getRuntime().availableProcessors(),
+      Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+      "messages-processing",
+      60, //ttl for idle threads (in sec)
+      true //daemon
+  );
+
+  // for smaller batches scheduling overhead is bigger than deserialization gain
+  private static final int MIN_RECORDS_FOR_PARALLEL_PROCESSING = 32;
+
+  // batch is split into more units than workers, so processing can stop early when limit is reached
+  private static final int UNITS_PER_WORKER = 4;
+
   private final ConsumingStats consumingStats = new ConsumingStats();
   private long sentMessages = 0;
+  private final Map<Integer, Integer> sentPerPartition = new HashMap<>();
+  private SinkDemand demand = SinkDemand.untracked();
 
-  private final ConsumerRecordDeserializer deserializer;
+  private final Function<ConsumerRecord<Bytes, Bytes>, TopicMessageDTO> deserializer;
   private final Predicate<TopicMessageDTO> filter;
   private final boolean ascendingSortBeforeSend;
   private final @Nullable Integer limit;
+  private final int parallelism;
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit,
+                     int parallelism) {
+    this(deserializer::deserialize, filter, ascendingSortBeforeSend, limit, parallelism);
+  }
+
+  private record ProcessedRecord(@Nullable TopicMessageDTO message, boolean matched, boolean filterError) {
+    // record was rejected by filter before deserialization
+    static final ProcessedRecord SKIPPED = new ProcessedRecord(null, false, false);
+  }
+
+  // should be called before any event is sent
+  void trackDemand(FluxSink<TopicMessageEventDTO> sink, long maxBufferedBytes, ApplicationMetrics metrics) {
+    demand = SinkDemand.track(sink, maxBufferedBytes, metrics);
+  }
+
+  // blocks while subscriber is behind and sent, but not yet requested messages exceed stream's memory budget
+  void awaitDemand() {
+    demand.awaitDemand();
+  }
 
   boolean limitReached() {
     return limit != null && sentMessages >= limit;
   }
 
+  long sentMessages() {
+    return sentMessages;
+  }
+
+  int sentMessages(int partition) {
+    return sentPerPartition.getOrDefault(partition, 0);
+  }
+
   void send(FluxSink<TopicMessageEventDTO> sink,
             Iterable<ConsumerRecord<Bytes, Bytes>> polled,
             @Nullable Cursor.Tracking cursor) {
-    sortForSending(polled, ascendingSortBeforeSend)
-        .forEach(rec -> {
-          if (!limitReached() && !sink.isCancelled()) {
-            TopicMessageDTO topicMessage = deserializer.deserialize(rec);
-            try {
-              if (filter.test(topicMessage)) {
-                sink.next(
-                    new TopicMessageEventDTO()
-                        .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
-                        .message(topicMessage)
-                );
-                sentMessages++;
-              }
-              if (cursor != null) {
-                cursor.trackOffset(rec.topic(), rec.partition(), rec.offset());
-              }
-            } catch (Exception e) {
-              consumingStats.incFilterApplyError();
-              log.trace("Error applying filter for message {}", topicMessage);
-            }
+    var sorted = sortForSending(polled, ascendingSortBeforeSend);
+    if (isParallelProcessingApplicable(sorted)) {
+      sendProcessedInParallel(sink, sorted, cursor);
+      return;
+    }
+    for (ConsumerRecord<Bytes, Bytes> rec : sorted) {
+      if (limitReached() || sink.isCancelled()) {
+        break;
+      }
+      sendProcessed(sink, rec, process(rec), cursor);
+    }
+  }
+
+  private void sendProcessed(FluxSink<TopicMessageEventDTO> sink,
+                             ConsumerRecord<Bytes, Bytes> rec,
+                             ProcessedRecord processed,
+                             @Nullable Cursor.Tracking cursor) {
+    if (processed.filterError()) {
+      consumingStats.incFilterApplyError();
+      log.trace("Error applying filter for message {}", processed.message());
+      return;
+    }
+    if (processed.matched()) {
+      awaitDemand();
+      next(
+          sink,
+          new TopicMessageEventDTO()
+              .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+              .message(processed.message())
+      );
+      sentMessages++;
+      sentPerPartition.merge(rec.partition(), 1, Integer::sum);
+    }
+    if (cursor != null) {
+      cursor.trackOffset(rec.topic(), rec.partition(), rec.offset());
+    }
+  }
+
+  private ProcessedRecord process(ConsumerRecord<Bytes, Bytes> rec) {
+    if (filter instanceof MessageFilter messageFilter && !messageFilter.testRaw(rec)) {
+      return ProcessedRecord.SKIPPED;
+    }
+    TopicMessageDTO topicMessage = deserializer.apply(rec);
+    try {
+      return new ProcessedRecord(topicMessage, filter.test(topicMessage), false);
+    } catch (Exception e) {
+      return new ProcessedRecord(topicMessage, false, true);
+    }
+  }
+
+  private boolean isParallelProcessingApplicable(List<ConsumerRecord<Bytes, Bytes>> records) {
+    return parallelism > 1 && records.size() >= MIN_RECORDS_FOR_PARALLEL_PROCESSING;
+  }
+
+  private record WorkUnit(List<ConsumerRecord<Bytes, Bytes>> records,
+                          CompletableFuture<List<ProcessedRecord>> processed) {
+
+    // number of records that will be sent from this unit, if it is already processed
+    int matchedIfDone() {
+      if (!processed.isDone() || processed.isCompletedExceptionally()) {
+        return 0;
+      }
+      return (int) processed.join().stream().filter(ProcessedRecord::matched).count();
+    }
+  }
+
+  /*
+   * Deserializes, masks and filters records concurrently. Records are split into work units in sending order,
+   * up to `parallelism` units are processed at the same time, results are sent in sorting order. New units are
+   * not scheduled once limit is reached or already processed (but not yet sent) units cover remaining limit,
+   * so polls with small limit do not process whole polled batch.
+   */
+  private void sendProcessedInParallel(FluxSink<TopicMessageEventDTO> sink,
+                                       List<ConsumerRecord<Bytes, Bytes>> sorted,
+                                       @Nullable Cursor.Tracking cursor) {
+    int unitSize = (int) Math.ceil((double) sorted.size() / (parallelism * UNITS_PER_WORKER));
+    if (limit != null) {
+      // units are not bigger than needed to reach limit if all records match
+      unitSize = (int) Math.min(unitSize, limit - sentMessages);
+    }
+    unitSize = Math.max(MIN_RECORDS_FOR_PARALLEL_PROCESSING / 2, unitSize);
+    Iterator<List<ConsumerRecord<Bytes, Bytes>>> units = Lists.partition(sorted, unitSize).iterator();
+    Deque<WorkUnit> inProgress = new ArrayDeque<>(parallelism);
+    try {
+      while (true) {
+        while (inProgress.size() < parallelism && units.hasNext() && !remainingLimitCovered(inProgress)
+            && !sink.isCancelled()) {
+          var unit = units.next();
+          var processed = Mono.fromCallable(() -> processUnit(sink, unit))
+              .subscribeOn(PROCESSING_SCHEDULER)
+              .toFuture();
+          inProgress.add(new WorkUnit(unit, processed));
+        }
+        WorkUnit unit = inProgress.poll();
+        if (unit == null) {
+          return;
+        }
+        List<ProcessedRecord> processed = await(unit.processed());
+        for (int i = 0; i < processed.size(); i++) {
+          if (limitReached() || sink.isCancelled()) {
+            return;
           }
-        });
+          sendProcessed(sink, unit.records().get(i), processed.get(i), cursor);
+        }
+      }
+    } finally {
+      inProgress.forEach(u -> u.processed().cancel(true));
+    }
   }
 
-  void sentConsumingInfo(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
+  private boolean remainingLimitCovered(Deque<WorkUnit> inProgress) {
+    if (limit == null) {
+      return false;
+    }
+    long covered = sentMessages;
+    for (WorkUnit unit : inProgress) {
+      covered += unit.matchedIfDone();
+    }
+    return covered >= limit;
+  }
+
+  private static List<ProcessedRecord> await(CompletableFuture<List<ProcessedRecord>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw Exceptions.propagate(e.getCause());
+    }
+  }
+
+  // records are not processed (and won't be present in result) if sink was cancelled
+  private List<ProcessedRecord> processUnit(FluxSink<TopicMessageEventDTO> sink,
+                                            List<ConsumerRecord<Bytes, Bytes>> unit) {
+    List<ProcessedRecord> result = new ArrayList<>(unit.size());
+    for (ConsumerRecord<Bytes, Bytes> rec : unit) {
+      if (sink.isCancelled()) {
+        break;
+      }
+      result.add(process(rec));
+    }
+    return result;
+  }
+
+  // synchronized, since it is called concurrently by parallel scan consumers
+  synchronized void sentConsumingInfo(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
     if (!sink.isCancelled()) {
-      consumingStats.sendConsumingEvt(sink, polledRecords);
+      next(sink, consumingStats.consumingEvt(polledRecords));
     }
   }
 
   void sendFinishEvents(FluxSink<TopicMessageEventDTO> sink, @Nullable Cursor.Tracking cursor) {
     if (!sink.isCancelled()) {
-      consumingStats.sendFinishEvent(sink, cursor);
+      next(sink, consumingStats.finishEvent(cursor));
     }
   }
 
   void sendPhase(FluxSink<TopicMessageEventDTO> sink, String name) {
     if (!sink.isCancelled()) {
-      sink.next(
+      next(
+          sink,
           new TopicMessageEventDTO()
               .type(TopicMessageEventDTO.TypeEnum.PHASE)
               .phase(new TopicMessagePhaseDTO().name(name))
@@ -88,30 +263,18 @@ class MessagesProcessing {
     }
   }
 
+  private void next(FluxSink<TopicMessageEventDTO> sink, TopicMessageEventDTO event) {
+    demand.emitted(event);
+    sink.next(event);
+  }
+
   /*
    * Sorting by timestamps, BUT requesting that records within same partitions should be ordered by offsets.
    */
   @VisibleForTesting
-  static Iterable<ConsumerRecord<Bytes, Bytes>> sortForSending(Iterable<ConsumerRecord<Bytes, Bytes>> records,
-                                                               boolean asc) {
-    Comparator<ConsumerRecord<Bytes, Bytes>> offsetComparator = asc
-        ? Comparator.comparingLong(ConsumerRecord::offset)
-        : Comparator.<ConsumerRecord<Bytes, Bytes>>comparingLong(ConsumerRecord::offset).reversed();
-
-    // partition -> sorted by offsets records
-    Map<Integer, List<ConsumerRecord<Bytes, Bytes>>> perPartition = Streams.stream(records)
-        .collect(
-            groupingBy(
-                ConsumerRecord::partition,
-                TreeMap::new,
-                collectingAndThen(toList(), lst -> lst.stream().sorted(offsetComparator).toList())));
-
-    Comparator<ConsumerRecord<Bytes, Bytes>> tsComparator = asc
-        ? Comparator.comparing(ConsumerRecord::timestamp)
-        : Comparator.<ConsumerRecord<Bytes, Bytes>>comparingLong(ConsumerRecord::timestamp).reversed();
-
-    // merge-sorting records from partitions one by one using timestamp comparator
-    return Iterables.mergeSorted(perPartition.values(), tsComparator);
+  static List<ConsumerRecord<Bytes, Bytes>> sortForSending(Iterable<ConsumerRecord<Bytes, Bytes>> records,
+                                                           boolean asc) {
+    return RecordsMerge.sortForSending(records, asc);
   }
 
 }
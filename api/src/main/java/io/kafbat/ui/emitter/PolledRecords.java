@@ -40,14 +40,20 @@ public record PolledRecords(int count,
   private static int calculatePolledRecSize(Iterable<ConsumerRecord<Bytes, Bytes>> recs) {
     int polledBytes = 0;
     for (ConsumerRecord<Bytes, Bytes> rec : recs) {
-      for (Header header : rec.headers()) {
-        polledBytes +=
-            (header.key() != null ? header.key().getBytes().length : 0)
-                + (header.value() != null ? header.value().length : 0);
-      }
-      polledBytes += rec.key() == null ? 0 : rec.serializedKeySize();
-      polledBytes += rec.value() == null ? 0 : rec.serializedValueSize();
+      polledBytes += recordSize(rec);
     }
     return polledBytes;
   }
+
+  static int recordSize(ConsumerRecord<Bytes, Bytes> rec) {
+    int size = 0;
+    for (Header header : rec.headers()) {
+      size +=
+          (header.key() != null ? header.key().getBytes().length : 0)
+              + (header.value() != null ? header.value().length : 0);
+    }
+    size += rec.key() == null ? 0 : rec.serializedKeySize();
+    size += rec.value() == null ? 0 : rec.serializedValueSize();
+    return size;
+  }
 }
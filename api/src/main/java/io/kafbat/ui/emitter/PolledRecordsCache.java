@@ -0,0 +1,148 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Per-cluster cache of raw records polled by range polling emitters, so repeated reads of the same offsets
+ * (page reloads, paging back, serde changes, many users browsing same topic) are served without broker
+ * fetches. Records are stored in batches of fully polled partition offset ranges, range can be served from
+ * several adjacent batches. Cache size is limited by records size, least recently used batches are evicted first.
+ * Entries also expire after ttl, since cache can't detect topic recreation or compaction done outside the UI.
+ */
+@Slf4j
+public class PolledRecordsCache {
+
+  // approximate ConsumerRecord instance overhead, added to key, value and headers size
+  private static final int RECORD_OVERHEAD_BYTES = 128;
+
+  private record BatchKey(TopicPartition tp, long from) {
+  }
+
+  private record Batch(/*inclusive*/ long from,
+                       /*exclusive*/ long to,
+                       List<ConsumerRecord<Bytes, Bytes>> records,
+                       int bytes) {
+  }
+
+  @Nullable // null when caching is disabled
+  private final Cache<BatchKey, Batch> batches;
+
+  // partition -> (batch start offset -> batch key), used to find batches that cover requested offset
+  private final Map<TopicPartition, ConcurrentNavigableMap<Long, BatchKey>> index = new ConcurrentHashMap<>();
+
+  public static PolledRecordsCache create(long maxBytes, Duration ttl) {
+    return new PolledRecordsCache(maxBytes, ttl);
+  }
+
+  public static PolledRecordsCache disabled() {
+    return new PolledRecordsCache(0, Duration.ZERO);
+  }
+
+  private PolledRecordsCache(long maxBytes, Duration ttl) {
+    if (maxBytes <= 0) {
+      this.batches = null;
+      return;
+    }
+    this.batches = CacheBuilder.newBuilder()
+        .maximumWeight(maxBytes)
+        .<BatchKey, Batch>weigher((key, batch) -> batch.bytes())
+        .expireAfterWrite(ttl)
+        .removalListener(this::onRemoval)
+        .build();
+  }
+
+  /**
+   * Returns records of partition with offsets in [from, to) range, or null if range is not fully cached.
+   */
+  @Nullable
+  List<ConsumerRecord<Bytes, Bytes>> get(TopicPartition tp, long from, long to) {
+    var partitionIndex = index.get(tp);
+    if (batches == null || partitionIndex == null) {
+      return null;
+    }
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
+    long position = from;
+    while (position < to) {
+      var floor = partitionIndex.floorEntry(position);
+      Batch batch = floor != null ? batches.getIfPresent(floor.getValue()) : null;
+      if (batch == null || batch.to() <= position) {
+        return null;
+      }
+      for (ConsumerRecord<Bytes, Bytes> rec : batch.records()) {
+        if (rec.offset() >= position && rec.offset() < to) {
+          result.add(rec);
+        }
+      }
+      position = batch.to();
+    }
+    return result;
+  }
+
+  /**
+   * Stores all partition's records with offsets in [from, to) range.
+   */
+  void put(TopicPartition tp, long from, long to, List<ConsumerRecord<Bytes, Bytes>> records) {
+    if (batches == null || from >= to) {
+      return;
+    }
+    long bytes = RECORD_OVERHEAD_BYTES;
+    for (ConsumerRecord<Bytes, Bytes> rec : records) {
+      bytes += PolledRecords.recordSize(rec) + RECORD_OVERHEAD_BYTES;
+    }
+    if (bytes > Integer.MAX_VALUE) {
+      return;
+    }
+    var key = new BatchKey(tp, from);
+    // partition's index is updated under map's lock, so it can't be dropped by concurrent eviction meanwhile
+    index.compute(tp, (t, partitionIndex) -> {
+      var updated = partitionIndex != null ? partitionIndex : new ConcurrentSkipListMap<Long, BatchKey>();
+      updated.put(from, key);
+      return updated;
+    });
+    batches.put(key, new Batch(from, to, List.copyOf(records), (int) bytes));
+  }
+
+  public void invalidate(String topic) {
+    if (batches == null) {
+      return;
+    }
+    log.debug("Invalidating cached records of topic {}", topic);
+    index.keySet().removeIf(tp -> tp.topic().equals(topic));
+    batches.asMap().keySet().removeIf(key -> key.tp().topic().equals(topic));
+  }
+
+  private void onRemoval(RemovalNotification<BatchKey, Batch> notification) {
+    // batch can be replaced by a new one with same key, index should be kept in that case
+    if (notification.getCause() == RemovalCause.REPLACED) {
+      return;
+    }
+    var key = notification.getKey();
+    // partition's index is dropped with its last batch
+    index.computeIfPresent(key.tp(), (tp, partitionIndex) -> {
+      partitionIndex.remove(key.from(), key);
+      return partitionIndex.isEmpty() ? null : partitionIndex;
+    });
+  }
+
+  @VisibleForTesting
+  int indexedPartitions() {
+    return index.size();
+  }
+
+}
@@ -0,0 +1,206 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.base.Stopwatch;
+import io.kafbat.ui.exception.PollingRejectedException;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Limits number of concurrently running polls (page loads, full-topic scans, topic analyses) per cluster.
+ * Polls above the limit wait in a bounded queue, ordered by priority and then by arrival. When the queue is full,
+ * a new poll displaces the latest waiting poll of lower priority, or is rejected itself. Polls are also rejected
+ * if they waited for too long, so an overloaded cluster gets a clear error instead of a growing backlog of consumers.
+ */
+public class PollingAdmission {
+
+  // declaration order is admission order
+  public enum Priority {
+    INTERACTIVE, // page loads without filters
+    SCAN, // filtered searches, that can read whole topic
+    ANALYSIS
+  }
+
+  private static final String PRIORITY_CONTEXT_KEY = PollingAdmission.class.getName() + ".priority";
+
+  // cancellation is checked periodically, since nothing notifies waiting polls about it
+  private static final long CANCELLATION_CHECK_INTERVAL_MS = 100;
+
+  /**
+   * Running poll's slot, should be closed when polling is finished. Closing is idempotent.
+   */
+  public interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private static final class Waiting {
+    private final Priority priority;
+    private final long seq;
+    private boolean displaced = false;
+
+    private Waiting(Priority priority, long seq) {
+      this.priority = priority;
+      this.seq = seq;
+    }
+  }
+
+  private static final Comparator<Waiting> ADMISSION_ORDER =
+      Comparator.<Waiting, Priority>comparing(w -> w.priority).thenComparingLong(w -> w.seq);
+
+  private final int maxConcurrentPolls;
+  private final int maxQueuedPolls;
+  private final Duration maxQueueWait;
+  private final ApplicationMetrics metrics;
+
+  private final PriorityQueue<Waiting> waiting = new PriorityQueue<>(ADMISSION_ORDER);
+  private int running = 0;
+  private long seq = 0;
+
+  PollingAdmission(int maxConcurrentPolls, int maxQueuedPolls, Duration maxQueueWait, ApplicationMetrics metrics) {
+    this.maxConcurrentPolls = maxConcurrentPolls;
+    this.maxQueuedPolls = maxQueuedPolls;
+    this.maxQueueWait = maxQueueWait;
+    this.metrics = metrics;
+  }
+
+  static PollingAdmission unlimited() {
+    return new PollingAdmission(Integer.MAX_VALUE, 0, Duration.ZERO, ApplicationMetrics.noop());
+  }
+
+  public static Context withPriority(Priority priority) {
+    return Context.of(PRIORITY_CONTEXT_KEY, priority);
+  }
+
+  // priority of polling stream, that was started within withPriority(..) context
+  static Priority priority(ContextView context) {
+    return context.getOrDefault(PRIORITY_CONTEXT_KEY, Priority.INTERACTIVE);
+  }
+
+  /**
+   * Blocks until poll can be started. While poll is waiting in queue, its 1-based queue position is passed to
+   * queuePositionListener (initially and on each change). Returns null if poll was cancelled or thread was
+   * interrupted while waiting.
+   *
+   * @throws PollingRejectedException if queue is full, poll was displaced by higher priority polls or waited too long
+   */
+  @Nullable
+  public Permit acquire(Priority priority,
+                        IntConsumer queuePositionListener,
+                        BooleanSupplier cancelled) throws PollingRejectedException {
+    var stopwatch = Stopwatch.createStarted();
+    Waiting request;
+    synchronized (this) {
+      if (waiting.isEmpty() && running < maxConcurrentPolls) {
+        return admitted(priority, stopwatch);
+      }
+      if (waiting.size() >= maxQueuedPolls && !displaceLowerPriorityPoll(priority)) {
+        throw rejected(priority, "too many polls are waiting for this cluster, please retry later");
+      }
+      request = new Waiting(priority, seq++);
+      waiting.add(request);
+      // waiting polls' positions may change
+      notifyAll();
+    }
+    int reportedPosition = 0;
+    while (true) {
+      int position;
+      synchronized (this) {
+        if (request.displaced) {
+          throw rejected(priority, "it was displaced from queue by higher priority polls, please retry later");
+        }
+        if (waiting.peek() == request && running < maxConcurrentPolls) {
+          waiting.poll();
+          // next poll in queue may also be admitted
+          notifyAll();
+          return admitted(priority, stopwatch);
+        }
+        if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+          leaveQueue(request);
+          return null;
+        }
+        if (stopwatch.elapsed().compareTo(maxQueueWait) >= 0) {
+          leaveQueue(request);
+          throw rejected(priority, "it waited in queue for more than %d sec".formatted(maxQueueWait.toSeconds()));
+        }
+        position = queuePosition(request);
+        if (position == reportedPosition) {
+          try {
+            wait(CANCELLATION_CHECK_INTERVAL_MS);
+          } catch (InterruptedException e) {
+            leaveQueue(request);
+            Thread.currentThread().interrupt();
+            return null;
+          }
+          continue;
+        }
+      }
+      // listener is called without holding the lock, since it emits events to subscriber
+      reportedPosition = position;
+      queuePositionListener.accept(position);
+    }
+  }
+
+  synchronized int runningPolls() {
+    return running;
+  }
+
+  synchronized int queuedPolls() {
+    return waiting.size();
+  }
+
+  // should be called under lock
+  private Permit admitted(Priority priority, Stopwatch stopwatch) {
+    running++;
+    metrics.meterPollAdmission(priority.name(), stopwatch.elapsed());
+    var released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        release();
+      }
+    };
+  }
+
+  private synchronized void release() {
+    running--;
+    notifyAll();
+  }
+
+  // should be called under lock
+  private void leaveQueue(Waiting request) {
+    waiting.remove(request);
+    notifyAll();
+  }
+
+  // should be called under lock, returns true if latest waiting poll with lower priority was removed from queue
+  private boolean displaceLowerPriorityPoll(Priority priority) {
+    Waiting last = waiting.stream().max(ADMISSION_ORDER).orElse(null);
+    if (last == null || last.priority.compareTo(priority) <= 0) {
+      return false;
+    }
+    last.displaced = true;
+    leaveQueue(last);
+    return true;
+  }
+
+  // should be called under lock
+  private int queuePosition(Waiting request) {
+    return 1 + (int) waiting.stream().filter(w -> ADMISSION_ORDER.compare(w, request) < 0).count();
+  }
+
+  // should be called under lock
+  private PollingRejectedException rejected(Priority priority, String reason) {
+    metrics.meterPollRejection(priority.name());
+    return new PollingRejectedException(
+        "Polling was rejected, because %s (%d polls are running, %d are waiting)"
+            .formatted(reason, running, waiting.size()));
+  }
+
+}
@@ -0,0 +1,199 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.RateLimiter;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Shares cluster's polling bandwidth (bytes/sec) between users and their polling streams: cluster -> user -> stream.
+ * When several polls wait for bandwidth, polled bytes are charged in start-time fair queuing order, so each user
+ * gets bandwidth share proportional to its weight, and user's share is split equally between user's recently
+ * active streams. This way a single full-topic search can't starve other users' page loads. Idle users and
+ * streams don't accumulate credit. Bandwidth itself is paced by RateLimiter.
+ */
+public class PollingBandwidthScheduler {
+
+  public static final String ANONYMOUS_USER = "anonymous";
+  // consumers that are not bound to user's polling stream (like shared tailing consumers)
+  static final String INTERNAL_USER = "internal";
+
+  private static final String USER_CONTEXT_KEY = PollingBandwidthScheduler.class.getName() + ".user";
+  private static final String METRICS_USER_CONTEXT_KEY = PollingBandwidthScheduler.class.getName() + ".metricsUser";
+  private static final int DEFAULT_USER_WEIGHT = 1;
+  // stream is considered idle if it didn't poll during this period
+  private static final long STREAM_ACTIVITY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  /**
+   * Polling stream's share of cluster bandwidth. State is guarded by scheduler.
+   */
+  public static final class Share {
+    private final String user;
+    // user tag of metrics, bounded by number of authenticated users
+    private final String metricsUser;
+    private double lastFinishTag = 0;
+    private long lastActiveNanos;
+
+    private Share(String user, String metricsUser) {
+      this.user = user;
+      this.metricsUser = metricsUser;
+    }
+  }
+
+  /**
+   * Paces polled bytes to cluster's bandwidth, blocking the caller.
+   */
+  interface Pacer {
+    void acquire(int bytes);
+
+    double getRate();
+
+    static Pacer of(RateLimiter rateLimiter) {
+      return new Pacer() {
+        @Override
+        public void acquire(int bytes) {
+          rateLimiter.acquire(bytes);
+        }
+
+        @Override
+        public double getRate() {
+          return rateLimiter.getRate();
+        }
+      };
+    }
+  }
+
+  private record Waiting(double startTag, long seq) {
+  }
+
+  private final Pacer pacer;
+  private final Map<String, Integer> userWeights;
+  private final ApplicationMetrics metrics;
+  private final Ticker ticker;
+
+  private final PriorityQueue<Waiting> waiting = new PriorityQueue<>(
+      Comparator.comparingDouble(Waiting::startTag).thenComparingLong(Waiting::seq));
+  // user -> user's recently active streams
+  private final Map<String, Set<Share>> activeShares = new HashMap<>();
+  private double virtualTime = 0;
+  private long seq = 0;
+  private long lastSweepNanos;
+  private boolean pacerBusy = false;
+
+  PollingBandwidthScheduler(RateLimiter rateLimiter, Map<String, Integer> userWeights, ApplicationMetrics metrics) {
+    this(Pacer.of(rateLimiter), userWeights, metrics, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  PollingBandwidthScheduler(Pacer pacer, Map<String, Integer> userWeights, ApplicationMetrics metrics, Ticker ticker) {
+    this.pacer = pacer;
+    this.userWeights = Map.copyOf(userWeights);
+    this.metrics = metrics;
+    this.ticker = ticker;
+    this.lastSweepNanos = ticker.read();
+  }
+
+  public static Share share(String user) {
+    return new Share(user, user);
+  }
+
+  // share for polling stream, that was started within withUser(..) or withClientAddress(..) context
+  static Share share(ContextView context) {
+    String user = context.getOrDefault(USER_CONTEXT_KEY, ANONYMOUS_USER);
+    return new Share(user, context.getOrDefault(METRICS_USER_CONTEXT_KEY, user));
+  }
+
+  public static Context withUser(String user) {
+    return Context.of(USER_CONTEXT_KEY, user);
+  }
+
+  // unauthenticated client: bandwidth is shared per client address, metrics are reported as anonymous
+  public static Context withClientAddress(String address) {
+    return Context.of(USER_CONTEXT_KEY, address, METRICS_USER_CONTEXT_KEY, ANONYMOUS_USER);
+  }
+
+  double getRate() {
+    return pacer.getRate();
+  }
+
+  /**
+   * Blocks until polled bytes are paid from share's bandwidth, returns time spent in waiting (in seconds).
+   */
+  double acquire(Share share, int bytes) {
+    var stopwatch = Stopwatch.createStarted(ticker);
+    synchronized (this) {
+      double startTag = Math.max(virtualTime, share.lastFinishTag);
+      share.lastFinishTag = startTag + bytes / effectiveWeight(share);
+      var request = new Waiting(startTag, seq++);
+      waiting.add(request);
+      try {
+        while (pacerBusy || waiting.peek() != request) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        waiting.remove(request);
+        notifyAll();
+        Thread.currentThread().interrupt();
+        return 0.0;
+      }
+      waiting.poll();
+      pacerBusy = true;
+      virtualTime = startTag;
+    }
+    try {
+      pacer.acquire(bytes);
+    } finally {
+      synchronized (this) {
+        pacerBusy = false;
+        notifyAll();
+      }
+    }
+    var waited = stopwatch.elapsed();
+    metrics.meterUserPolling(share.metricsUser, bytes, waited);
+    return waited.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  // user's weight, split between user's active streams
+  private double effectiveWeight(Share share) {
+    long now = ticker.read();
+    share.lastActiveNanos = now;
+    var userShares = activeShares.computeIfAbsent(share.user, u -> new HashSet<>());
+    userShares.add(share);
+    userShares.removeIf(s -> isIdle(s, now));
+    if (now - lastSweepNanos > STREAM_ACTIVITY_WINDOW_NANOS) {
+      // dropping users that have no active streams left
+      activeShares.values().removeIf(shares -> {
+        shares.removeIf(s -> isIdle(s, now));
+        return shares.isEmpty();
+      });
+      lastSweepNanos = now;
+    }
+    int userWeight = Math.max(1, userWeights.getOrDefault(share.user, DEFAULT_USER_WEIGHT));
+    return (double) userWeight / userShares.size();
+  }
+
+  private static boolean isIdle(Share share, long now) {
+    return now - share.lastActiveNanos > STREAM_ACTIVITY_WINDOW_NANOS;
+  }
+
+  @VisibleForTesting
+  synchronized int waitingPolls() {
+    return waiting.size();
+  }
+
+  @VisibleForTesting
+  synchronized int activeUsers() {
+    return activeShares.size();
+  }
+
+}
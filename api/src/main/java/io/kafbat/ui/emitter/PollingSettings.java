@@ -1,15 +1,38 @@
 package io.kafbat.ui.emitter;
 
 import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.util.ApplicationMetrics;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
 public class PollingSettings {
 
   private static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofMillis(1_000);
+  private static final int DEFAULT_DESERIALIZATION_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  private static final int DEFAULT_CONSUMER_POOL_SIZE = 5;
+  // should be less than broker's connections.max.idle.ms (9 min by default)
+  private static final Duration DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT = Duration.ofMinutes(5);
+  private static final long DEFAULT_POLLING_RANGE_MAX_BYTES = 32 * 1024 * 1024;
+  private static final int DEFAULT_SCAN_CONSUMERS = 1;
+  private static final long DEFAULT_RECORDS_CACHE_MAX_BYTES = 32 * 1024 * 1024;
+  private static final Duration DEFAULT_RECORDS_CACHE_TTL = Duration.ofMinutes(5);
+  private static final long DEFAULT_STREAM_BUFFER_MAX_BYTES = 16 * 1024 * 1024;
+  private static final int DEFAULT_MAX_CONCURRENT_POLLS = 32;
+  private static final int DEFAULT_MAX_QUEUED_POLLS = 64;
+  private static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofMinutes(1);
 
   private final Duration pollTimeout;
+  private final int deserializationParallelism;
+  private final int consumerPoolSize;
+  private final Duration consumerPoolIdleTimeout;
+  private final long pollingRangeMaxBytes;
+  private final int scanConsumers;
+  private final PolledRecordsCache recordsCache;
+  private final long streamBufferMaxBytes;
+  private final PollingAdmission admission;
+  private final ApplicationMetrics metrics;
   private final Supplier<PollingThrottler> throttlerSupplier;
 
   public static PollingSettings create(ClustersProperties.Cluster cluster,
@@ -21,22 +44,109 @@ public class PollingSettings {
         ? Duration.ofMillis(pollingProps.getPollTimeoutMs())
         : DEFAULT_POLL_TIMEOUT;
 
+    var deserializationParallelism = pollingProps.getDeserializationParallelism() != null
+        ? Math.max(1, pollingProps.getDeserializationParallelism())
+        : DEFAULT_DESERIALIZATION_PARALLELISM;
+
+    var consumerPoolSize = pollingProps.getConsumerPoolSize() != null
+        ? Math.max(0, pollingProps.getConsumerPoolSize())
+        : DEFAULT_CONSUMER_POOL_SIZE;
+
+    var consumerPoolIdleTimeout = pollingProps.getConsumerPoolIdleTimeoutMs() != null
+        ? Duration.ofMillis(pollingProps.getConsumerPoolIdleTimeoutMs())
+        : DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT;
+
+    var pollingRangeMaxBytes = pollingProps.getPollingRangeMaxBytes() != null
+        ? Math.max(1, pollingProps.getPollingRangeMaxBytes())
+        : DEFAULT_POLLING_RANGE_MAX_BYTES;
+
+    var scanConsumers = Optional.ofNullable(cluster.getPollingScanConsumers())
+        .or(() -> Optional.ofNullable(pollingProps.getScanConsumers()))
+        .map(n -> Math.max(1, n))
+        .orElse(DEFAULT_SCAN_CONSUMERS);
+
+    var recordsCacheMaxBytes = pollingProps.getRecordsCacheMaxBytes() != null
+        ? pollingProps.getRecordsCacheMaxBytes()
+        : DEFAULT_RECORDS_CACHE_MAX_BYTES;
+
+    var recordsCacheTtl = pollingProps.getRecordsCacheTtlMs() != null
+        ? Duration.ofMillis(pollingProps.getRecordsCacheTtlMs())
+        : DEFAULT_RECORDS_CACHE_TTL;
+
+    var streamBufferMaxBytes = pollingProps.getStreamBufferMaxBytes() != null
+        ? Math.max(1, pollingProps.getStreamBufferMaxBytes())
+        : DEFAULT_STREAM_BUFFER_MAX_BYTES;
+
+    var metrics = ApplicationMetrics.forCluster(cluster.getName());
+
+    var maxConcurrentPolls = Optional.ofNullable(cluster.getPollingMaxConcurrentPolls())
+        .or(() -> Optional.ofNullable(pollingProps.getMaxConcurrentPolls()))
+        .map(n -> Math.max(1, n))
+        .orElse(DEFAULT_MAX_CONCURRENT_POLLS);
+
+    var maxQueuedPolls = pollingProps.getMaxQueuedPolls() != null
+        ? Math.max(0, pollingProps.getMaxQueuedPolls())
+        : DEFAULT_MAX_QUEUED_POLLS;
+
+    var maxQueueWait = pollingProps.getMaxQueueWaitMs() != null
+        ? Duration.ofMillis(pollingProps.getMaxQueueWaitMs())
+        : DEFAULT_MAX_QUEUE_WAIT;
+
+    var userBandwidthWeights = Optional.ofNullable(pollingProps.getUserBandwidthWeights())
+        .orElse(Map.of());
+
     return new PollingSettings(
         pollTimeout,
-        PollingThrottler.throttlerSupplier(cluster)
+        deserializationParallelism,
+        consumerPoolSize,
+        consumerPoolIdleTimeout,
+        pollingRangeMaxBytes,
+        scanConsumers,
+        PolledRecordsCache.create(recordsCacheMaxBytes, recordsCacheTtl),
+        streamBufferMaxBytes,
+        new PollingAdmission(maxConcurrentPolls, maxQueuedPolls, maxQueueWait, metrics),
+        metrics,
+        PollingThrottler.throttlerSupplier(cluster, userBandwidthWeights, metrics)
     );
   }
 
   public static PollingSettings createDefault() {
     return new PollingSettings(
         DEFAULT_POLL_TIMEOUT,
+        DEFAULT_DESERIALIZATION_PARALLELISM,
+        DEFAULT_CONSUMER_POOL_SIZE,
+        DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT,
+        DEFAULT_POLLING_RANGE_MAX_BYTES,
+        DEFAULT_SCAN_CONSUMERS,
+        PolledRecordsCache.disabled(),
+        DEFAULT_STREAM_BUFFER_MAX_BYTES,
+        PollingAdmission.unlimited(),
+        ApplicationMetrics.noop(),
         PollingThrottler::noop
     );
   }
 
   private PollingSettings(Duration pollTimeout,
+                          int deserializationParallelism,
+                          int consumerPoolSize,
+                          Duration consumerPoolIdleTimeout,
+                          long pollingRangeMaxBytes,
+                          int scanConsumers,
+                          PolledRecordsCache recordsCache,
+                          long streamBufferMaxBytes,
+                          PollingAdmission admission,
+                          ApplicationMetrics metrics,
                           Supplier<PollingThrottler> throttlerSupplier) {
     this.pollTimeout = pollTimeout;
+    this.deserializationParallelism = deserializationParallelism;
+    this.consumerPoolSize = consumerPoolSize;
+    this.consumerPoolIdleTimeout = consumerPoolIdleTimeout;
+    this.pollingRangeMaxBytes = pollingRangeMaxBytes;
+    this.scanConsumers = scanConsumers;
+    this.recordsCache = recordsCache;
+    this.streamBufferMaxBytes = streamBufferMaxBytes;
+    this.admission = admission;
+    this.metrics = metrics;
     this.throttlerSupplier = throttlerSupplier;
   }
 
@@ -44,6 +154,50 @@ public class PollingSettings {
     return pollTimeout;
   }
 
+  // max number of concurrent deserialization tasks per polling stream, 1 means processing on polling thread
+  public int getDeserializationParallelism() {
+    return deserializationParallelism;
+  }
+
+  // max number of idle consumers kept for reuse, 0 means that pooling is disabled
+  public int getConsumerPoolSize() {
+    return consumerPoolSize;
+  }
+
+  // idle consumers are closed by pool after this timeout
+  public Duration getConsumerPoolIdleTimeout() {
+    return consumerPoolIdleTimeout;
+  }
+
+  // approximate max size of data read from all partitions in a single polling round
+  public long getPollingRangeMaxBytes() {
+    return pollingRangeMaxBytes;
+  }
+
+  // max number of consumers that fetch partitions of a single polling range in parallel
+  public int getScanConsumers() {
+    return scanConsumers;
+  }
+
+  // shared by all polling streams of the cluster
+  public PolledRecordsCache getRecordsCache() {
+    return recordsCache;
+  }
+
+  // approximate max size of emitted messages that wait for subscriber's demand, polling is paused when exceeded
+  public long getStreamBufferMaxBytes() {
+    return streamBufferMaxBytes;
+  }
+
+  // limits concurrent polls of the cluster, shared by all polling streams and topic analyses
+  public PollingAdmission getAdmission() {
+    return admission;
+  }
+
+  public ApplicationMetrics getMetrics() {
+    return metrics;
+  }
+
   public PollingThrottler getPollingThrottler() {
     return throttlerSupplier.get();
   }
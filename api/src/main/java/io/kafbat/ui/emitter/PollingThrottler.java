@@ -3,47 +3,71 @@ package io.kafbat.ui.emitter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.RateLimiter;
 import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.Map;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class PollingThrottler {
 
-  public static Supplier<PollingThrottler> throttlerSupplier(ClustersProperties.Cluster cluster) {
+  public static Supplier<PollingThrottler> throttlerSupplier(ClustersProperties.Cluster cluster,
+                                                            Map<String, Integer> userWeights,
+                                                            ApplicationMetrics metrics) {
     Long rate = cluster.getPollingThrottleRate();
     if (rate == null || rate <= 0) {
       return PollingThrottler::noop;
     }
-    // RateLimiter instance should be shared across all created throttlers
-    var rateLimiter = RateLimiter.create(rate);
-    return () -> new PollingThrottler(cluster.getName(), rateLimiter);
+    // scheduler instance should be shared across all created throttlers
+    var scheduler = new PollingBandwidthScheduler(RateLimiter.create(rate), userWeights, metrics);
+    return () -> new PollingThrottler(cluster.getName(), scheduler);
   }
 
   private final String clusterName;
-  private final RateLimiter rateLimiter;
+  @Nullable // null for noop throttler
+  private final PollingBandwidthScheduler scheduler;
+  private final PollingBandwidthScheduler.Share internalShare;
+  @Nullable // polling stream's share, internal share is used if not set
+  private PollingBandwidthScheduler.Share share;
   private boolean throttled;
 
   @VisibleForTesting
   public PollingThrottler(String clusterName, RateLimiter rateLimiter) {
+    this(clusterName, new PollingBandwidthScheduler(rateLimiter, Map.of(), ApplicationMetrics.noop()));
+  }
+
+  private PollingThrottler(String clusterName, @Nullable PollingBandwidthScheduler scheduler) {
     this.clusterName = clusterName;
-    this.rateLimiter = rateLimiter;
+    this.scheduler = scheduler;
+    this.internalShare = PollingBandwidthScheduler.share(PollingBandwidthScheduler.INTERNAL_USER);
   }
 
   public static PollingThrottler noop() {
-    return new PollingThrottler("noop", RateLimiter.create(Long.MAX_VALUE));
+    return new PollingThrottler("noop", (PollingBandwidthScheduler) null);
+  }
+
+  void setShare(@Nullable PollingBandwidthScheduler.Share share) {
+    this.share = share;
   }
 
   //returns true if polling was throttled
   public boolean throttleAfterPoll(int polledBytes) {
-    if (polledBytes > 0) {
-      double sleptSeconds = rateLimiter.acquire(polledBytes);
-      if (!throttled && sleptSeconds > 0.0) {
+    if (scheduler != null && polledBytes > 0) {
+      double waitedSeconds = scheduler.acquire(share != null ? share : internalShare, polledBytes);
+      if (!throttled && waitedSeconds > 0.0) {
         throttled = true;
-        log.debug("Polling throttling enabled for cluster {} at rate {} bytes/sec", clusterName, rateLimiter.getRate());
+        log.debug("Polling throttling enabled for cluster {} at rate {} bytes/sec", clusterName, scheduler.getRate());
         return true;
       }
     }
     return false;
   }
 
+  // resetting throttling state, so throttling (re)activation will be reported for the next polling session
+  void reset() {
+    throttled = false;
+    share = null;
+  }
+
 }
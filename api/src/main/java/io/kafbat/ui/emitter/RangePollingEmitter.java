@@ -1,25 +1,55 @@
 package io.kafbat.ui.emitter;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import io.kafbat.ui.exception.PollingRejectedException;
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.TopicMessageEventDTO;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.utils.Bytes;
+import reactor.core.Exceptions;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 abstract class RangePollingEmitter extends AbstractEmitter {
 
+  // shared by all polling streams, per-stream concurrency is limited by scanConsumers setting
+  private static final Scheduler SCAN_SCHEDULER = Schedulers.newBoundedElastic(
+      Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+      Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+      "parallel-scan",
+      60, //ttl for idle threads (in sec)
+      true //daemon
+  );
+
   private final Supplier<EnhancedConsumer> consumerSupplier;
+  private final int scanConsumers;
+  private final PolledRecordsCache recordsCache;
+  private final PollingAdmission admission;
   private final Cursor.Tracking cursor;
+  // set on polling start, from subscriber's context
+  private PollingBandwidthScheduler.Share bandwidthShare =
+      PollingBandwidthScheduler.share(PollingBandwidthScheduler.ANONYMOUS_USER);
   protected final ConsumerPosition consumerPosition;
   protected final int messagesPerPage;
 
@@ -33,6 +63,9 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     this.consumerPosition = consumerPosition;
     this.messagesPerPage = messagesPerPage;
     this.consumerSupplier = consumerSupplier;
+    this.scanConsumers = pollingSettings.getScanConsumers();
+    this.recordsCache = pollingSettings.getRecordsCache();
+    this.admission = pollingSettings.getAdmission();
     this.cursor = cursor;
   }
 
@@ -45,10 +78,37 @@ abstract class RangePollingEmitter extends AbstractEmitter {
       SeekOperations seekOperations
   );
 
+  // called after range's records were polled and sent, before next range calculation
+  protected void onRangePolled(TreeMap<TopicPartition, FromToOffset> range,
+                               List<ConsumerRecord<Bytes, Bytes>> polled,
+                               Duration elapsed) {
+  }
+
   @Override
   public void accept(FluxSink<TopicMessageEventDTO> sink) {
     log.debug("Starting polling for {}", consumerPosition);
-    try (EnhancedConsumer consumer = consumerSupplier.get()) {
+    trackDemand(sink);
+    bandwidthShare = PollingBandwidthScheduler.share(sink.contextView());
+    try (var permit = admission.acquire(
+        PollingAdmission.priority(sink.contextView()),
+        position -> sendPhase(sink, "Waiting for other polls to finish, position in queue: " + position),
+        sink::isCancelled)) {
+      if (permit != null) {
+        pollRanges(sink);
+      } else {
+        log.debug("Polling cancelled while waiting in admission queue");
+      }
+    } catch (PollingRejectedException e) {
+      log.debug("Polling rejected: {}", e.getMessage());
+      sink.error(e);
+    }
+  }
+
+  private void pollRanges(FluxSink<TopicMessageEventDTO> sink) {
+    // first one is used for seek operations, additional consumers are created on demand for parallel scan
+    List<EnhancedConsumer> scanners = new ArrayList<>();
+    try (EnhancedConsumer consumer = createScanner()) {
+      scanners.add(consumer);
       sendPhase(sink, "Consumer created");
       var seekOperations = SeekOperations.create(consumer, consumerPosition);
       cursor.initOffsets(seekOperations.getOffsetsForSeek());
@@ -57,8 +117,11 @@ abstract class RangePollingEmitter extends AbstractEmitter {
       log.debug("Starting from offsets {}", pollRange);
 
       while (!sink.isCancelled() && !pollRange.isEmpty() && !isSendLimitReached()) {
-        var polled = poll(consumer, sink, pollRange);
+        awaitDemand();
+        var stopwatch = Stopwatch.createStarted();
+        var polled = poll(scanners, sink, pollRange);
         send(sink, polled, cursor);
+        onRangePolled(pollRange, polled, stopwatch.elapsed());
         pollRange = nextPollingRange(pollRange, seekOperations);
       }
       if (sink.isCancelled()) {
@@ -72,27 +135,55 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     } catch (Exception e) {
       log.error("Error occurred while consuming records", e);
       sink.error(e);
+    } finally {
+      // first consumer is closed by try-with-resources
+      scanners.stream().skip(1).forEach(EnhancedConsumer::close);
     }
   }
 
-  private List<ConsumerRecord<Bytes, Bytes>> poll(EnhancedConsumer consumer,
+  /*
+   * Takes partitions records from cache if possible, other partitions are split between up to scanConsumers
+   * consumers, that fetch them in parallel. Polled records order is not important here, since they are sorted
+   * before sending.
+   */
+  private List<ConsumerRecord<Bytes, Bytes>> poll(List<EnhancedConsumer> scanners,
                                                   FluxSink<TopicMessageEventDTO> sink,
                                                   TreeMap<TopicPartition, FromToOffset> range) {
     log.trace("Polling range {}", range);
     sendPhase(sink,
         "Polling partitions: %s".formatted(range.keySet().stream().map(TopicPartition::partition).sorted().toList()));
 
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
+    TreeMap<TopicPartition, FromToOffset> toFetch = new TreeMap<>(range.comparator());
+    range.forEach((tp, fromTo) -> {
+      var cached = recordsCache.get(tp, fromTo.from(), fromTo.to());
+      if (cached != null) {
+        result.addAll(cached);
+      } else {
+        toFetch.put(tp, fromTo);
+      }
+    });
+    if (!toFetch.isEmpty()) {
+      result.addAll(fetch(scanners, sink, toFetch));
+    }
+    return result;
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> poll(EnhancedConsumer consumer,
+                                                  FluxSink<TopicMessageEventDTO> sink,
+                                                  BooleanSupplier stopped,
+                                                  TreeMap<TopicPartition, FromToOffset> range) {
     consumer.assign(range.keySet());
     range.forEach((tp, fromTo) -> consumer.seek(tp, fromTo.from));
 
-    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
+    Map<TopicPartition, List<ConsumerRecord<Bytes, Bytes>>> result = new HashMap<>();
     Set<TopicPartition> paused = new HashSet<>();
-    while (!sink.isCancelled() && paused.size() < range.size()) {
+    while (!stopped.getAsBoolean() && paused.size() < range.size()) {
       var polledRecords = poll(sink, consumer);
       range.forEach((tp, fromTo) -> {
         polledRecords.records(tp).stream()
             .filter(r -> r.offset() < fromTo.to)
-            .forEach(result::add);
+            .forEach(r -> result.computeIfAbsent(tp, t -> new ArrayList<>()).add(r));
 
         //next position is out of target range -> pausing partition
         if (!paused.contains(tp) && consumer.position(tp) >= fromTo.to) {
@@ -102,6 +193,72 @@ abstract class RangePollingEmitter extends AbstractEmitter {
       });
     }
     consumer.resume(paused);
-    return result;
+    // caching only fully polled partitions
+    paused.forEach(tp ->
+        recordsCache.put(tp, range.get(tp).from, range.get(tp).to, result.getOrDefault(tp, List.of())));
+    return result.values().stream().flatMap(List::stream).toList();
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> fetch(List<EnhancedConsumer> scanners,
+                                                   FluxSink<TopicMessageEventDTO> sink,
+                                                   TreeMap<TopicPartition, FromToOffset> range) {
+    List<TreeMap<TopicPartition, FromToOffset>> parts = splitRange(range, Math.min(scanConsumers, range.size()));
+    if (parts.size() == 1) {
+      return poll(scanners.get(0), sink, sink::isCancelled, range);
+    }
+    while (scanners.size() < parts.size()) {
+      scanners.add(createScanner());
+    }
+    List<Function<BooleanSupplier, List<ConsumerRecord<Bytes, Bytes>>>> tasks = new ArrayList<>(parts.size());
+    for (int i = 0; i < parts.size(); i++) {
+      var scanner = scanners.get(i);
+      var part = parts.get(i);
+      tasks.add(stopped -> poll(scanner, sink, stopped, part));
+    }
+    return pollInParallel(tasks, sink::isCancelled);
+  }
+
+  /*
+   * Runs scan tasks on SCAN_SCHEDULER and waits for all of them to finish, even if some failed: scanners are
+   * closed (returned to pool) by the caller, so none of them may still be polling. Cancelling a task would not
+   * interrupt blocking poll, so failure of one task is signalled to the others through their stop condition.
+   */
+  @VisibleForTesting
+  static <T> List<T> pollInParallel(List<Function<BooleanSupplier, List<T>>> tasks, BooleanSupplier cancelled) {
+    var failed = new AtomicBoolean();
+    BooleanSupplier stopped = () -> failed.get() || cancelled.getAsBoolean();
+    List<CompletableFuture<List<T>>> running = tasks.stream()
+        .map(task -> Mono.fromCallable(() -> task.apply(stopped))
+            .subscribeOn(SCAN_SCHEDULER)
+            .doOnError(e -> failed.set(true))
+            .toFuture())
+        .toList();
+    try {
+      // completes only after all tasks completed
+      CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      throw Exceptions.propagate(e.getCause());
+    }
+    return running.stream().flatMap(f -> f.join().stream()).toList();
+  }
+
+  // all stream's consumers poll within the same share of cluster's polling bandwidth
+  private EnhancedConsumer createScanner() {
+    var consumer = consumerSupplier.get();
+    consumer.setBandwidthShare(bandwidthShare);
+    return consumer;
+  }
+
+  private static List<TreeMap<TopicPartition, FromToOffset>> splitRange(TreeMap<TopicPartition, FromToOffset> range,
+                                                                        int partsCount) {
+    List<TreeMap<TopicPartition, FromToOffset>> parts = new ArrayList<>(partsCount);
+    for (int i = 0; i < partsCount; i++) {
+      parts.add(new TreeMap<>(range.comparator()));
+    }
+    int idx = 0;
+    for (var entry : range.entrySet()) {
+      parts.get(idx++ % partsCount).put(entry.getKey(), entry.getValue());
+    }
+    return parts;
   }
 }
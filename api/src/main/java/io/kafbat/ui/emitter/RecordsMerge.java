@@ -0,0 +1,139 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * K-way merge of polled records by timestamps, that keeps records of the same partition ordered by offsets.
+ * Consumers (and records cache) return each partition's records as a contiguous run of ascending offsets, so
+ * runs are detected in a single pass and merged using a heap of run indices over primitive arrays - without
+ * per-partition collections and boxed comparators. Runs are read from the end for descending order. Input where
+ * some partition's records are split into several runs (not produced by consumers) is sorted by partition and
+ * offset first. Records with equal timestamps are ordered by partition.
+ */
+final class RecordsMerge {
+
+  private final List<ConsumerRecord<Bytes, Bytes>> records;
+  private final boolean asc;
+  // run i is records[runStarts[i], runStarts[i + 1])
+  private final int[] runStarts;
+  // next record index for each run
+  private final int[] heads;
+  // min-heap of not yet exhausted run indices, ordered by runs' head records
+  private final int[] heap;
+  private int heapSize;
+
+  private RecordsMerge(List<ConsumerRecord<Bytes, Bytes>> records, int[] runStarts, boolean asc) {
+    this.records = records;
+    this.asc = asc;
+    this.runStarts = runStarts;
+    int runs = runStarts.length - 1;
+    this.heads = new int[runs];
+    this.heap = new int[runs];
+    for (int run = 0; run < runs; run++) {
+      heads[run] = asc ? runStarts[run] : runStarts[run + 1] - 1;
+      heap[heapSize++] = run;
+    }
+    for (int i = heapSize / 2 - 1; i >= 0; i--) {
+      siftDown(i);
+    }
+  }
+
+  static List<ConsumerRecord<Bytes, Bytes>> sortForSending(Iterable<ConsumerRecord<Bytes, Bytes>> records,
+                                                          boolean asc) {
+    List<ConsumerRecord<Bytes, Bytes>> list = records instanceof List<ConsumerRecord<Bytes, Bytes>> l
+        && l instanceof RandomAccess
+        ? l
+        : Lists.newArrayList(records);
+    if (list.isEmpty()) {
+      return List.of();
+    }
+    int[] runStarts = findRuns(list);
+    if (!runsHaveDistinctPartitions(list, runStarts)) {
+      list = new ArrayList<>(list);
+      list.sort(Comparator.<ConsumerRecord<Bytes, Bytes>>comparingInt(ConsumerRecord::partition)
+          .thenComparingLong(ConsumerRecord::offset));
+      runStarts = findRuns(list);
+    }
+    return new RecordsMerge(list, runStarts, asc).merge();
+  }
+
+  // returns runs start indices, followed by records count
+  private static int[] findRuns(List<ConsumerRecord<Bytes, Bytes>> records) {
+    int[] starts = new int[records.size() + 1];
+    int runs = 0;
+    ConsumerRecord<Bytes, Bytes> prev = null;
+    for (int i = 0; i < records.size(); i++) {
+      var rec = records.get(i);
+      if (prev == null || prev.partition() != rec.partition() || prev.offset() >= rec.offset()) {
+        starts[runs++] = i;
+      }
+      prev = rec;
+    }
+    starts[runs] = records.size();
+    return Arrays.copyOf(starts, runs + 1);
+  }
+
+  private static boolean runsHaveDistinctPartitions(List<ConsumerRecord<Bytes, Bytes>> records, int[] runStarts) {
+    int[] partitions = new int[runStarts.length - 1];
+    for (int run = 0; run < partitions.length; run++) {
+      partitions[run] = records.get(runStarts[run]).partition();
+    }
+    Arrays.sort(partitions);
+    for (int i = 1; i < partitions.length; i++) {
+      if (partitions[i] == partitions[i - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> merge() {
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>(records.size());
+    while (heapSize > 0) {
+      int run = heap[0];
+      result.add(records.get(heads[run]));
+      boolean exhausted = asc ? ++heads[run] == runStarts[run + 1] : --heads[run] < runStarts[run];
+      if (exhausted) {
+        heap[0] = heap[--heapSize];
+      }
+      siftDown(0);
+    }
+    return result;
+  }
+
+  private void siftDown(int idx) {
+    int i = idx;
+    while (true) {
+      int left = 2 * i + 1;
+      if (left >= heapSize) {
+        return;
+      }
+      int smallest = left + 1 < heapSize && precedes(heap[left + 1], heap[left]) ? left + 1 : left;
+      if (!precedes(heap[smallest], heap[i])) {
+        return;
+      }
+      int tmp = heap[i];
+      heap[i] = heap[smallest];
+      heap[smallest] = tmp;
+      i = smallest;
+    }
+  }
+
+  // true if run1's head record should be sent before run2's head record
+  private boolean precedes(int run1, int run2) {
+    var rec1 = records.get(heads[run1]);
+    var rec2 = records.get(heads[run2]);
+    if (rec1.timestamp() != rec2.timestamp()) {
+      return asc ? rec1.timestamp() < rec2.timestamp() : rec1.timestamp() > rec2.timestamp();
+    }
+    return rec1.partition() < rec2.partition();
+  }
+
+}
@@ -0,0 +1,131 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+
+/**
+ * Tracks events that were emitted to FluxSink ahead of subscriber's demand. Such events are buffered by
+ * Flux.create's sink without limits, so polling threads call {@link #awaitDemand()} to pause until subscriber
+ * catches up when estimated size of buffered events exceeds stream's memory budget.
+ */
+@Slf4j
+class SinkDemand {
+
+  // approximate event instance overhead, added to message's key, value and headers size
+  private static final int EVENT_OVERHEAD_BYTES = 256;
+
+  // sink's cancellation is checked periodically, since cancelled sink doesn't request anything
+  private static final long CANCELLATION_CHECK_INTERVAL_MS = 100;
+
+  private static final SinkDemand UNTRACKED = new SinkDemand(null, Long.MAX_VALUE, ApplicationMetrics.noop());
+
+  @Nullable // null if demand is not tracked
+  private final FluxSink<TopicMessageEventDTO> sink;
+  private final long maxBufferedBytes;
+  private final ApplicationMetrics metrics;
+
+  // requested, but not yet emitted events count
+  private long demand = 0;
+  // sizes of events emitted ahead of demand, in emission order
+  private final Deque<Integer> bufferedSizes = new ArrayDeque<>();
+  private long bufferedBytes = 0;
+
+  private SinkDemand(@Nullable FluxSink<TopicMessageEventDTO> sink, long maxBufferedBytes, ApplicationMetrics metrics) {
+    this.sink = sink;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.metrics = metrics;
+  }
+
+  // should be called before any event is emitted to sink, since it registers sink's request consumer
+  static SinkDemand track(FluxSink<TopicMessageEventDTO> sink, long maxBufferedBytes, ApplicationMetrics metrics) {
+    var demand = new SinkDemand(sink, maxBufferedBytes, metrics);
+    sink.onRequest(demand::onRequest);
+    return demand;
+  }
+
+  static SinkDemand untracked() {
+    return UNTRACKED;
+  }
+
+  synchronized void emitted(TopicMessageEventDTO event) {
+    if (sink == null || demand == Long.MAX_VALUE) {
+      return;
+    }
+    if (demand > 0) {
+      demand--;
+      return;
+    }
+    int size = estimateSize(event);
+    bufferedSizes.add(size);
+    bufferedBytes += size;
+  }
+
+  private synchronized void onRequest(long requested) {
+    long remaining = requested;
+    while (remaining > 0 && !bufferedSizes.isEmpty()) {
+      bufferedBytes -= bufferedSizes.poll();
+      remaining--;
+    }
+    demand = Operators.addCap(demand, remaining);
+    notifyAll();
+  }
+
+  /**
+   * Blocks calling thread while estimated size of buffered events exceeds memory budget and sink is not cancelled.
+   */
+  void awaitDemand() {
+    if (sink == null) {
+      return;
+    }
+    Stopwatch stopwatch;
+    synchronized (this) {
+      if (bufferedBytes <= maxBufferedBytes) {
+        return;
+      }
+      log.trace("Pausing polling, {} bytes are waiting for subscriber's demand", bufferedBytes);
+      stopwatch = Stopwatch.createStarted();
+      try {
+        while (bufferedBytes > maxBufferedBytes && !sink.isCancelled()) {
+          wait(CANCELLATION_CHECK_INTERVAL_MS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    metrics.meterBackpressureStall(stopwatch.elapsed());
+  }
+
+  @VisibleForTesting
+  synchronized long bufferedBytes() {
+    return bufferedBytes;
+  }
+
+  private static int estimateSize(TopicMessageEventDTO event) {
+    int size = EVENT_OVERHEAD_BYTES;
+    TopicMessageDTO msg = event.getMessage();
+    if (msg != null) {
+      size += stringSize(msg.getKey()) + stringSize(msg.getValue());
+      if (msg.getHeaders() != null) {
+        for (Map.Entry<String, String> header : msg.getHeaders().entrySet()) {
+          size += stringSize(header.getKey()) + stringSize(header.getValue());
+        }
+      }
+    }
+    return size;
+  }
+
+  private static int stringSize(@Nullable String str) {
+    return str == null ? 0 : str.length() * 2;
+  }
+
+}
@@ -0,0 +1,127 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.model.TailingSamplingStrategyDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessagesBatchDTO;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Converts tailing events stream into periodic frames: for each interval only the latest PHASE and CONSUMING
+ * events are sent, and matched messages are sent in a single MESSAGES_BATCH event containing at most
+ * maxMessages messages sampled with requested strategy. Unlike per-message rate limiting, this never
+ * makes stream fall behind the topic, since messages that don't fit into batch are counted as skipped.
+ */
+public final class TailingBatching {
+
+  private TailingBatching() {
+  }
+
+  public static Function<Flux<TopicMessageEventDTO>, Flux<TopicMessageEventDTO>> batching(
+      TailingSamplingStrategyDTO strategy,
+      Duration interval,
+      int maxMessages) {
+    return events -> events
+        .window(interval)
+        .concatMap(window -> window
+            .reduce(new Frame(strategy, maxMessages), Frame::add)
+            .flatMapIterable(Frame::toEvents));
+  }
+
+  private static final class Frame {
+
+    private record IndexedMessage(long idx, TopicMessageDTO msg) {
+    }
+
+    private final TailingSamplingStrategyDTO strategy;
+    private final int maxMessages;
+    // sorted by index before sending
+    private final List<IndexedMessage> sampled = new ArrayList<>();
+    private long matched = 0;
+
+    @Nullable
+    private TopicMessageEventDTO lastPhase;
+    @Nullable
+    private TopicMessageEventDTO lastConsuming;
+    @Nullable
+    private TopicMessageEventDTO done;
+
+    Frame(TailingSamplingStrategyDTO strategy, int maxMessages) {
+      this.strategy = strategy;
+      this.maxMessages = maxMessages;
+    }
+
+    Frame add(TopicMessageEventDTO event) {
+      switch (event.getType()) {
+        case MESSAGE -> sample(event.getMessage());
+        case PHASE -> lastPhase = event;
+        case CONSUMING -> lastConsuming = event;
+        case DONE -> done = event;
+        default -> {
+          // other event types are not expected in tailing stream
+        }
+      }
+      return this;
+    }
+
+    private void sample(TopicMessageDTO msg) {
+      long idx = matched++;
+      if (sampled.size() < maxMessages) {
+        sampled.add(new IndexedMessage(idx, msg));
+        return;
+      }
+      switch (strategy) {
+        case FIRST -> {
+          // keeping first messages of interval
+        }
+        // using sample as ring buffer, so the oldest message is replaced
+        case LAST -> sampled.set((int) (idx % maxMessages), new IndexedMessage(idx, msg));
+        case UNIFORM -> {
+          // reservoir sampling: each matched message has equal probability to be in the batch
+          long replaceIdx = ThreadLocalRandom.current().nextLong(idx + 1);
+          if (replaceIdx < maxMessages) {
+            sampled.set((int) replaceIdx, new IndexedMessage(idx, msg));
+          }
+        }
+        default -> throw new IllegalStateException("Unsupported sampling strategy " + strategy);
+      }
+    }
+
+    List<TopicMessageEventDTO> toEvents() {
+      List<TopicMessageEventDTO> result = new ArrayList<>(4);
+      if (lastPhase != null) {
+        result.add(lastPhase);
+      }
+      if (lastConsuming != null) {
+        result.add(lastConsuming);
+      }
+      if (matched > 0) {
+        result.add(
+            new TopicMessageEventDTO()
+                .type(TopicMessageEventDTO.TypeEnum.MESSAGES_BATCH)
+                .messagesBatch(
+                    new TopicMessagesBatchDTO()
+                        .messages(sampled.stream()
+                            .sorted(Comparator.comparingLong(IndexedMessage::idx))
+                            .map(IndexedMessage::msg)
+                            .toList())
+                        .skippedMessages(matched - sampled.size())
+                        .sampling(strategy)
+                )
+        );
+      }
+      if (done != null) {
+        result.add(done);
+      }
+      return result;
+    }
+  }
+
+}
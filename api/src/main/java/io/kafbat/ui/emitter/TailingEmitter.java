@@ -1,58 +1,81 @@
 package io.kafbat.ui.emitter;
 
+import static java.util.stream.Collectors.toMap;
+
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
-import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
-import java.util.HashMap;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 public class TailingEmitter extends AbstractEmitter {
 
-  private final Supplier<EnhancedConsumer> consumerSupplier;
+  // if subscriber can't keep up with polling rate, oldest not-processed polls are dropped
+  private static final int MAX_BUFFERED_POLLS = 16;
+
+  private final TailingHub hub;
   private final ConsumerPosition consumerPosition;
+  private final Set<TopicPartition> targetPartitions; // all partitions if empty
 
-  public TailingEmitter(Supplier<EnhancedConsumer> consumerSupplier,
+  public TailingEmitter(TailingHub hub,
                         ConsumerPosition consumerPosition,
-                        ConsumerRecordDeserializer deserializer,
                         Predicate<TopicMessageDTO> filter,
                         PollingSettings pollingSettings) {
-    super(new MessagesProcessing(deserializer, filter, false, null), pollingSettings);
-    this.consumerSupplier = consumerSupplier;
+    super(
+        new MessagesProcessing(hub::deserialize, filter, false, null, pollingSettings.getDeserializationParallelism()),
+        pollingSettings
+    );
+    this.hub = hub;
     this.consumerPosition = consumerPosition;
+    this.targetPartitions = Set.copyOf(consumerPosition.partitions());
   }
 
   @Override
   public void accept(FluxSink<TopicMessageEventDTO> sink) {
     log.debug("Starting tailing polling for {}", consumerPosition);
-    try (EnhancedConsumer consumer = consumerSupplier.get()) {
-      assignAndSeek(consumer);
-      while (!sink.isCancelled()) {
-        sendPhase(sink, "Polling");
-        var polled = poll(sink, consumer);
-        send(sink, polled, null);
-      }
-      sink.complete();
-      log.debug("Tailing finished");
-    } catch (InterruptException kafkaInterruptException) {
-      log.debug("Tailing finished due to thread interruption");
-      sink.complete();
-    } catch (Exception e) {
-      log.error("Error consuming {}", consumerPosition, e);
-      sink.error(e);
-    }
+    trackDemand(sink);
+    sendPhase(sink, "Polling");
+    var subscription = hub.polled()
+        .onBackpressureBuffer(
+            MAX_BUFFERED_POLLS,
+            dropped -> log.debug("Dropping {} polled records for slow tailing subscriber", dropped.count()),
+            BufferOverflowStrategy.DROP_OLDEST
+        )
+        // processing on separate thread, so slow subscribers don't block shared polling. Processing thread is
+        // paused when subscriber doesn't request sent messages, prefetching single poll lets buffer drop older ones
+        .publishOn(Schedulers.boundedElastic(), 1)
+        .subscribe(
+            polled -> {
+              var targetPolled = filterTargetPartitions(polled);
+              sendConsuming(sink, targetPolled);
+              send(sink, targetPolled, null);
+              sendPhase(sink, "Polling");
+            },
+            e -> {
+              log.error("Error consuming {}", consumerPosition, e);
+              sink.error(e);
+            },
+            () -> {
+              log.debug("Tailing finished");
+              sink.complete();
+            }
+        );
+    sink.onDispose(subscription);
   }
 
-  private void assignAndSeek(EnhancedConsumer consumer) {
-    var seekOperations = SeekOperations.create(consumer, consumerPosition);
-    var seekOffsets = new HashMap<>(seekOperations.getEndOffsets()); // defaulting offsets to topic end
-    seekOffsets.putAll(seekOperations.getOffsetsForSeek()); // this will only set non-empty partitions
-    consumer.assign(seekOffsets.keySet());
-    seekOffsets.forEach(consumer::seek);
+  private PolledRecords filterTargetPartitions(PolledRecords polled) {
+    if (targetPartitions.isEmpty()) {
+      return polled;
+    }
+    var records = new ConsumerRecords<>(targetPartitions.stream().collect(toMap(Function.identity(), polled::records)));
+    return PolledRecords.create(records, polled.elapsed());
   }
 }
@@ -0,0 +1,115 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.PollingModeDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.utils.Bytes;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tails topic with a single consumer and shares polled records between all live-mode subscribers of the
+ * same (cluster, topic, key serde, value serde). Each record is deserialized (and masked) at most once,
+ * filtering is done by subscribers ({@link TailingEmitter}).
+ * Polling is started with first subscriber and stopped by {@link #shutdown()} - hubs' lifecycle is managed by
+ * {@link TailingHubs}. Stopped hub never restarts polling, so it can't create a duplicate consumer.
+ *
+ * <p>The same {@link TopicMessageDTO} instance is passed to every subscriber, so subscribers (filters included)
+ * must treat it as immutable.
+ */
+@Slf4j
+public class TailingHub {
+
+  public record Key(String cluster, String topic, String keySerde, String valueSerde) {
+  }
+
+  private final Supplier<EnhancedConsumer> consumerSupplier;
+  private final String topic;
+  private final PollingSettings pollingSettings;
+  private final Flux<PolledRecords> polledFlux;
+  private volatile Disposable connection;
+  private volatile boolean terminated;
+
+  // weak keys use identity comparison: entry is evicted once its record instance is garbage-collected,
+  // i.e. when no subscriber references polled batch anymore
+  private final LoadingCache<ConsumerRecord<Bytes, Bytes>, TopicMessageDTO> deserialized;
+
+  public TailingHub(Supplier<EnhancedConsumer> consumerSupplier,
+                    String topic,
+                    ConsumerRecordDeserializer deserializer,
+                    PollingSettings pollingSettings) {
+    this.consumerSupplier = consumerSupplier;
+    this.topic = topic;
+    this.pollingSettings = pollingSettings;
+    this.deserialized = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build(CacheLoader.from(deserializer::deserialize));
+    this.polledFlux = Flux.<PolledRecords>create(this::pollTopic)
+        .subscribeOn(Schedulers.boundedElastic())
+        .doFinally(s -> terminated = true)
+        .publish()
+        .autoConnect(1, c -> connection = c);
+  }
+
+  Flux<PolledRecords> polled() {
+    return Flux.defer(() -> terminated
+        ? Flux.error(new IllegalStateException("Tailing of topic " + topic + " was stopped"))
+        : polledFlux);
+  }
+
+  boolean isTerminated() {
+    return terminated;
+  }
+
+  void shutdown() {
+    terminated = true;
+    Disposable c = connection;
+    if (c != null) {
+      c.dispose();
+    }
+  }
+
+  TopicMessageDTO deserialize(ConsumerRecord<Bytes, Bytes> rec) {
+    return deserialized.getUnchecked(rec);
+  }
+
+  private void pollTopic(FluxSink<PolledRecords> sink) {
+    log.debug("Starting shared tailing for topic {}", topic);
+    try (EnhancedConsumer consumer = consumerSupplier.get()) {
+      assignAndSeekToEnd(consumer);
+      while (!sink.isCancelled()) {
+        sink.next(consumer.pollEnhanced(pollingSettings.getPollTimeout()));
+      }
+      sink.complete();
+      log.debug("Shared tailing for topic {} finished", topic);
+    } catch (InterruptException kafkaInterruptException) {
+      log.debug("Shared tailing for topic {} finished due to thread interruption", topic);
+      sink.complete();
+    } catch (Exception e) {
+      log.error("Error tailing topic {}", topic, e);
+      sink.error(e);
+    }
+  }
+
+  private void assignAndSeekToEnd(EnhancedConsumer consumer) {
+    var position = new ConsumerPosition(PollingModeDTO.TAILING, topic, List.of(), null, null);
+    var seekOperations = SeekOperations.create(consumer, position);
+    var seekOffsets = new HashMap<>(seekOperations.getEndOffsets()); // defaulting offsets to topic end
+    seekOffsets.putAll(seekOperations.getOffsetsForSeek()); // this will only set non-empty partitions
+    consumer.assign(seekOffsets.keySet());
+    seekOffsets.forEach(consumer::seek);
+  }
+
+}
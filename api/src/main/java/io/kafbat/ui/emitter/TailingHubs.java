@@ -0,0 +1,98 @@
+package io.kafbat.ui.emitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Registry of shared {@link TailingHub}s. Hub is leased for the whole lifetime of a live-mode subscription.
+ * When hub has no leases for the grace period it is shut down and removed from registry in a single step under
+ * the map's lock, so new subscriber either gets a fresh hub or cancels pending shutdown - it never gets a hub
+ * that is being shut down.
+ */
+public class TailingHubs {
+
+  // consumer is kept for a while after last subscriber left, so page reloads don't recreate it
+  private static final Duration SHUTDOWN_GRACE_PERIOD = Duration.ofSeconds(10);
+
+  // leases and pendingShutdown are only accessed under the map's lock (inside compute* calls)
+  private static final class Entry {
+    private final TailingHub hub;
+    private int leases;
+    private Disposable pendingShutdown;
+
+    private Entry(TailingHub hub) {
+      this.hub = hub;
+    }
+  }
+
+  private final Map<TailingHub.Key, Entry> hubs = new ConcurrentHashMap<>();
+  private final Duration gracePeriod;
+  private final Scheduler scheduler;
+
+  public TailingHubs() {
+    this(SHUTDOWN_GRACE_PERIOD, Schedulers.parallel());
+  }
+
+  TailingHubs(Duration gracePeriod, Scheduler scheduler) {
+    this.gracePeriod = gracePeriod;
+    this.scheduler = scheduler;
+  }
+
+  public <T> Flux<T> withHub(TailingHub.Key key,
+                             Supplier<TailingHub> hubFactory,
+                             Function<TailingHub, Flux<T>> usage) {
+    return Flux.using(
+        () -> acquire(key, hubFactory),
+        entry -> usage.apply(entry.hub),
+        entry -> release(key, entry)
+    );
+  }
+
+  private Entry acquire(TailingHub.Key key, Supplier<TailingHub> hubFactory) {
+    return hubs.compute(key, (k, entry) -> {
+      // hub that failed can't be reused, it is replaced (its remaining leases are released as no-ops)
+      if (entry == null || entry.hub.isTerminated()) {
+        entry = new Entry(hubFactory.get());
+      }
+      if (entry.pendingShutdown != null) {
+        entry.pendingShutdown.dispose();
+        entry.pendingShutdown = null;
+      }
+      entry.leases++;
+      return entry;
+    });
+  }
+
+  private void release(TailingHub.Key key, Entry released) {
+    hubs.computeIfPresent(key, (k, entry) -> {
+      if (entry == released && --entry.leases == 0) {
+        entry.pendingShutdown = scheduler.schedule(
+            () -> shutdownIfUnused(key, entry), gracePeriod.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      return entry;
+    });
+  }
+
+  private void shutdownIfUnused(TailingHub.Key key, Entry unused) {
+    hubs.computeIfPresent(key, (k, entry) -> {
+      if (entry == unused && entry.leases == 0) {
+        entry.hub.shutdown();
+        return null;
+      }
+      return entry;
+    });
+  }
+
+  int size() {
+    return hubs.size();
+  }
+
+}
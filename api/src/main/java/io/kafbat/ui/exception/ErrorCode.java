@@ -27,6 +27,7 @@ public enum ErrorCode {
   FILE_UPLOAD_EXCEPTION(4019, HttpStatus.INTERNAL_SERVER_ERROR),
   CEL_ERROR(4020, HttpStatus.BAD_REQUEST),
   CONNECTOR_OFFSETS_RESET_ERROR(4021, HttpStatus.BAD_REQUEST),
+  POLLING_REJECTED(4022, HttpStatus.TOO_MANY_REQUESTS),
   ;
 
   static {
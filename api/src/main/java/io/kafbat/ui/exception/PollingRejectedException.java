@@ -0,0 +1,13 @@
+package io.kafbat.ui.exception;
+
+public class PollingRejectedException extends CustomBaseException {
+
+  public PollingRejectedException(String message) {
+    super(message);
+  }
+
+  @Override
+  public ErrorCode getErrorCode() {
+    return ErrorCode.POLLING_REJECTED;
+  }
+}
@@ -12,6 +12,7 @@ import org.apache.kafka.common.Node;
 public class InternalClusterState {
   private String name;
   private ServerStatusDTO status;
+  private Boolean stale;
   private MetricsCollectionErrorDTO lastError;
   private Integer topicCount;
   private Integer brokerCount;
@@ -31,6 +32,7 @@ public class InternalClusterState {
   public InternalClusterState(KafkaCluster cluster, Statistics statistics) {
     name = cluster.getName();
     status = statistics.getStatus();
+    stale = statistics.isStale();
     lastError = Optional.ofNullable(statistics.getLastKafkaException())
         .map(e -> new MetricsCollectionErrorDTO()
             .message(e.getMessage())
@@ -7,6 +7,7 @@ import static java.util.stream.Collectors.summarizingLong;
 import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 import org.apache.kafka.clients.admin.LogDirDescription;
 import org.apache.kafka.common.TopicPartition;
@@ -16,9 +17,11 @@ import reactor.util.function.Tuple3;
 import reactor.util.function.Tuples;
 
 @Value
+@AllArgsConstructor
 public class InternalLogDirStats {
 
   @Value
+  @AllArgsConstructor
   public static class SegmentStats {
     long segmentSize;
     int segmentsCount;
@@ -1,5 +1,6 @@
 package io.kafbat.ui.model;
 
+import java.math.BigDecimal;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,7 @@ public class InternalPartition {
 
   private final Long offsetMin;
   private final Long offsetMax;
+  private final BigDecimal messagesInPerSec;
 
   // from log dir
   private final Long segmentSize;
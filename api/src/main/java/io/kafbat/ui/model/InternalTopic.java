@@ -32,6 +32,7 @@ public class InternalTopic {
   // rates from metrics
   private final BigDecimal bytesInPerSec;
   private final BigDecimal bytesOutPerSec;
+  private final BigDecimal messagesInPerSec;
 
   // from log dir data
   private final long segmentSize;
@@ -78,6 +79,9 @@ public class InternalTopic {
                 partitionDto.offsetMax(offsets.getLatest());
               });
 
+          partitionDto.messagesInPerSec(metrics.getPartitionMessagesInPerSec().get(
+              new TopicPartition(topicDescription.name(), partition.partition())));
+
           var segmentStats =
               logDirInfo.getPartitionsStats().get(
                   new TopicPartition(topicDescription.name(), partition.partition()));
@@ -113,6 +117,7 @@ public class InternalTopic {
 
     topic.bytesInPerSec(metrics.getTopicBytesInPerSec().get(topicDescription.name()));
     topic.bytesOutPerSec(metrics.getTopicBytesOutPerSec().get(topicDescription.name()));
+    topic.messagesInPerSec(metrics.getTopicMessagesInPerSec().get(topicDescription.name()));
 
     topic.topicConfigs(
         configs.stream().map(InternalTopicConfig::from).collect(Collectors.toList()));
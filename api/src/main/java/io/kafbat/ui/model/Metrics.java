@@ -1,15 +1,13 @@
 package io.kafbat.ui.model;
 
-import static java.util.stream.Collectors.toMap;
-
+import io.kafbat.ui.service.metrics.MetricsColumns;
 import io.kafbat.ui.service.metrics.RawMetric;
 import java.math.BigDecimal;
-import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 import lombok.Builder;
 import lombok.Value;
+import org.apache.kafka.common.TopicPartition;
 
 @Builder
 @Value
@@ -19,7 +17,12 @@ public class Metrics {
   Map<Integer, BigDecimal> brokerBytesOutPerSec;
   Map<String, BigDecimal> topicBytesInPerSec;
   Map<String, BigDecimal> topicBytesOutPerSec;
-  Map<Integer, List<RawMetric>> perBrokerMetrics;
+  // estimated from latest offsets growth, when metrics endpoint is not configured
+  @Builder.Default
+  Map<String, BigDecimal> topicMessagesInPerSec = Map.of();
+  @Builder.Default
+  Map<TopicPartition, BigDecimal> partitionMessagesInPerSec = Map.of();
+  MetricsColumns perBrokerMetrics;
 
   public static Metrics empty() {
     return Metrics.builder()
@@ -27,16 +30,12 @@ public class Metrics {
         .brokerBytesOutPerSec(Map.of())
         .topicBytesInPerSec(Map.of())
         .topicBytesOutPerSec(Map.of())
-        .perBrokerMetrics(Map.of())
+        .perBrokerMetrics(MetricsColumns.empty())
         .build();
   }
 
   public Stream<RawMetric> getSummarizedMetrics() {
-    return perBrokerMetrics.values().stream()
-        .flatMap(Collection::stream)
-        .collect(toMap(RawMetric::identityKey, m -> m, (m1, m2) -> m1.copyWithValue(m1.value().add(m2.value()))))
-        .values()
-        .stream();
+    return perBrokerMetrics.summarized();
   }
 
 }
@@ -1,5 +1,6 @@
 package io.kafbat.ui.model;
 
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,4 +20,5 @@ public class MetricsConfig {
   private final String password;
   private final String keystoreLocation;
   private final String keystorePassword;
+  private final List<String> allowlist; // metric name prefixes to collect, all metrics collected if null
 }
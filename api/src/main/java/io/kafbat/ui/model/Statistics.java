@@ -13,6 +13,7 @@ import org.apache.kafka.clients.admin.TopicDescription;
 @Builder(toBuilder = true)
 public class Statistics {
   ServerStatusDTO status;
+  boolean stale; // loaded from snapshot, not refreshed yet
   Throwable lastKafkaException;
   String version;
   List<ClusterFeature> features;
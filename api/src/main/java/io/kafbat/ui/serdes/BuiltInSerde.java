@@ -2,6 +2,8 @@ package io.kafbat.ui.serdes;
 
 import io.kafbat.ui.serde.api.PropertyResolver;
 import io.kafbat.ui.serde.api.Serde;
+import java.nio.charset.Charset;
+import java.util.Optional;
 
 public interface BuiltInSerde extends Serde {
 
@@ -19,6 +21,12 @@ public interface BuiltInSerde extends Serde {
                              PropertyResolver globalProperties) {
   }
 
+  // returns charset in which deserialized string can be found in raw data as is (so text search can be done
+  // before deserialization), empty if serde doesn't guarantee that
+  default Optional<Charset> verbatimTextEncoding(String topic, Target type) {
+    return Optional.empty();
+  }
+
   @Override
   default void configure(PropertyResolver serdeProperties,
                          PropertyResolver kafkaClusterProperties,
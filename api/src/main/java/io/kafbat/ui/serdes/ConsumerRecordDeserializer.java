@@ -11,6 +11,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.UnaryOperator;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -25,9 +26,11 @@ public class ConsumerRecordDeserializer {
 
   private static final ZoneId UTC_ZONE_ID = ZoneId.of("UTC");
 
+  @Getter
   private final String keySerdeName;
   private final Serde.Deserializer keyDeserializer;
 
+  @Getter
   private final String valueSerdeName;
   private final Serde.Deserializer valueDeserializer;
 
@@ -3,6 +3,7 @@ package io.kafbat.ui.serdes;
 import io.kafbat.ui.serde.api.SchemaDescription;
 import io.kafbat.ui.serde.api.Serde;
 import java.io.Closeable;
+import java.nio.charset.Charset;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -77,6 +78,13 @@ public class SerdeInstance implements Closeable {
     }
   }
 
+  public Optional<Charset> verbatimTextEncoding(String topic, Serde.Target type) {
+    if (serde instanceof BuiltInSerde builtInSerde) {
+      return builtInSerde.verbatimTextEncoding(topic, type);
+    }
+    return Optional.empty();
+  }
+
   public Serde.Serializer serializer(String topic, Serde.Target type) {
     return wrapWithClassloader(() -> {
       var serializer = serde.serializer(topic, type);
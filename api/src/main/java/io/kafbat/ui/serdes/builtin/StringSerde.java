@@ -46,6 +46,14 @@ public class StringSerde implements BuiltInSerde {
     return true;
   }
 
+  @Override
+  public Optional<Charset> verbatimTextEncoding(String topic, Target type) {
+    // for single-byte charsets and utf-8 encoded substring of decoded text is always a part of source bytes
+    boolean verbatim = encoding.equals(StandardCharsets.UTF_8)
+        || (encoding.canEncode() && encoding.newEncoder().maxBytesPerChar() == 1);
+    return verbatim ? Optional.of(encoding) : Optional.empty();
+  }
+
   @Override
   public Serializer serializer(String topic, Target type) {
     return input -> input.getBytes(encoding);
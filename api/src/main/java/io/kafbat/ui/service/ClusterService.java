@@ -6,6 +6,12 @@ import io.kafbat.ui.model.ClusterMetricsDTO;
 import io.kafbat.ui.model.ClusterStatsDTO;
 import io.kafbat.ui.model.InternalClusterState;
 import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.MetricsHistoryDTO;
+import io.kafbat.ui.model.MetricsHistoryResolutionDTO;
+import io.kafbat.ui.model.MetricsHistorySeriesDTO;
+import io.kafbat.ui.service.metrics.MetricsHistory;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +28,7 @@ public class ClusterService {
   private final ClustersStorage clustersStorage;
   private final ClusterMapper clusterMapper;
   private final StatisticsService statisticsService;
+  private final MetricsHistory metricsHistory;
 
   public List<ClusterDTO> getClusters() {
     return clustersStorage.getKafkaClusters()
@@ -44,6 +51,21 @@ public class ClusterService {
             statisticsCache.get(cluster).getMetrics()));
   }
 
+  public Mono<MetricsHistoryDTO> getClusterMetricsHistory(KafkaCluster cluster,
+                                                          MetricsHistorySeriesDTO series,
+                                                          String id,
+                                                          MetricsHistoryResolutionDTO resolution) {
+    var key = new MetricsHistory.SeriesKey(MetricsHistory.SeriesType.valueOf(series.name()), id);
+    return Mono.justOrEmpty(
+        metricsHistory.query(cluster.getName(), key, MetricsHistory.Resolution.valueOf(resolution.name()))
+            .map(ts -> new MetricsHistoryDTO()
+                .startTime(ts.startMs())
+                .stepMs(ts.stepMs())
+                .values(Arrays.stream(ts.values())
+                    .mapToObj(v -> Double.isNaN(v) ? null : BigDecimal.valueOf(v))
+                    .toList())));
+  }
+
   public Mono<ClusterDTO> updateCluster(KafkaCluster cluster) {
     return statisticsService.updateCache(cluster)
         .map(metrics -> clusterMapper.toCluster(new InternalClusterState(cluster, metrics)));
@@ -1,32 +1,152 @@
 package io.kafbat.ui.service;
 
-import lombok.RequiredArgsConstructor;
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.util.ApplicationMetrics;
+import jakarta.annotation.PostConstruct;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+/**
+ * Updates statistics of each cluster independently, so slow or unreachable cluster does not delay updates
+ * of other clusters. Clusters' first updates are spread over refresh interval (random delay) to avoid load spikes
+ * when many clusters are configured. Update that takes longer than timeout is cancelled (previous statistics are
+ * kept in cache). Scheduled update is skipped if previous update of the same cluster is still running.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class ClustersStatisticsScheduler {
+public class ClustersStatisticsScheduler implements Closeable {
 
-  private final ClustersStorage clustersStorage;
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
 
+  private final ClustersStorage clustersStorage;
   private final StatisticsService statisticsService;
+  private final ClustersProperties clustersProperties;
+  private final Duration defaultInterval;
+  private final Scheduler scheduler;
+  private final LongUnaryOperator jitter;
+  private final Disposable.Composite tasks = Disposables.composite();
+
+  @Autowired
+  public ClustersStatisticsScheduler(ClustersStorage clustersStorage,
+                                     StatisticsService statisticsService,
+                                     ClustersProperties clustersProperties,
+                                     @Value("${kafka.update-metrics-rate-millis:30000}") long defaultIntervalMs) {
+    this(clustersStorage, statisticsService, clustersProperties, Duration.ofMillis(defaultIntervalMs),
+        Schedulers.parallel(), bound -> ThreadLocalRandom.current().nextLong(bound));
+  }
+
+  @VisibleForTesting
+  ClustersStatisticsScheduler(ClustersStorage clustersStorage,
+                              StatisticsService statisticsService,
+                              ClustersProperties clustersProperties,
+                              Duration defaultInterval,
+                              Scheduler scheduler,
+                              LongUnaryOperator jitter) {
+    this.clustersStorage = clustersStorage;
+    this.statisticsService = statisticsService;
+    this.clustersProperties = clustersProperties;
+    this.defaultInterval = defaultInterval;
+    this.scheduler = scheduler;
+    this.jitter = jitter;
+  }
+
+  @PostConstruct
+  public void start() {
+    clustersStorage.getKafkaClusters().forEach(c -> tasks.add(new ClusterUpdates(c).schedule()));
+  }
+
+  private class ClusterUpdates {
+    private final KafkaCluster cluster;
+    private final Duration interval;
+    private final Duration timeout;
+    private final ApplicationMetrics metrics;
+    private final AtomicLong lastDurationMs;
+    private final AtomicLong lastSuccessMs;
+
+    ClusterUpdates(KafkaCluster cluster) {
+      var properties = Optional.ofNullable(cluster.getOriginalProperties());
+      this.cluster = cluster;
+      this.interval = properties.map(ClustersProperties.Cluster::getStatisticsRefreshMs)
+          .map(Duration::ofMillis)
+          .orElse(defaultInterval);
+      this.timeout = properties.map(ClustersProperties.Cluster::getStatisticsTimeoutMs)
+          .or(() -> Optional.ofNullable(clustersProperties.getStatistics())
+              .map(ClustersProperties.StatisticsProperties::getRefreshTimeoutMs))
+          .map(Duration::ofMillis)
+          .orElse(DEFAULT_TIMEOUT);
+      this.metrics = ApplicationMetrics.forCluster(cluster);
+      this.lastDurationMs = metrics.statisticsLastUpdateDuration();
+      this.lastSuccessMs = metrics.statisticsLastSuccess();
+    }
+
+    Disposable schedule() {
+      Duration firstDelay = Duration.ofMillis(jitter.applyAsLong(Math.max(interval.toMillis(), 1)));
+      log.debug("Statistics of cluster {} will be updated every {}, first update in {}",
+          cluster.getName(), interval, firstDelay);
+      return Flux.interval(firstDelay, interval, scheduler)
+          .onBackpressureDrop(tick -> {
+            log.debug("Skipping statistics update for cluster {}, previous update is still running", cluster.getName());
+            metrics.meterStatisticsUpdateSkip();
+          })
+          // no prefetch: next tick is requested only after current update is finished,
+          // ticks emitted meanwhile are dropped
+          .concatMap(tick -> update(), 0)
+          .subscribe();
+    }
+
+    private Mono<Void> update() {
+      return Mono.defer(() -> {
+        log.debug("Start getting metrics for kafkaCluster: {}", cluster.getName());
+        long startedAt = scheduler.now(TimeUnit.MILLISECONDS);
+        return statisticsService.updateCache(cluster)
+            .timeout(timeout, scheduler)
+            .doOnSuccess(stats -> {
+              boolean online = stats != null && stats.getStatus() == ServerStatusDTO.ONLINE;
+              long finishedAt = recordDuration(startedAt, online ? "success" : "failure");
+              if (online) {
+                lastSuccessMs.set(finishedAt);
+              }
+              log.debug("Metrics updated for cluster: {}", cluster.getName());
+            })
+            .doOnError(e -> {
+              recordDuration(startedAt, e instanceof TimeoutException ? "timeout" : "failure");
+              log.warn("Statistics update for cluster {} failed", cluster.getName(), e);
+            })
+            .onErrorResume(e -> Mono.empty())
+            .then();
+      });
+    }
+
+    private long recordDuration(long startedAt, String result) {
+      long finishedAt = scheduler.now(TimeUnit.MILLISECONDS);
+      Duration elapsed = Duration.ofMillis(finishedAt - startedAt);
+      lastDurationMs.set(elapsed.toMillis());
+      metrics.meterStatisticsUpdate(elapsed, result);
+      return finishedAt;
+    }
+  }
 
-  @Scheduled(fixedRateString = "${kafka.update-metrics-rate-millis:30000}")
-  public void updateStatistics() {
-    Flux.fromIterable(clustersStorage.getKafkaClusters())
-        .parallel()
-        .runOn(Schedulers.parallel())
-        .flatMap(cluster -> {
-          log.debug("Start getting metrics for kafkaCluster: {}", cluster.getName());
-          return statisticsService.updateCache(cluster)
-              .doOnSuccess(m -> log.debug("Metrics updated for cluster: {}", cluster.getName()));
-        })
-        .then()
-        .block();
+  @Override
+  public void close() {
+    tasks.dispose();
   }
 }
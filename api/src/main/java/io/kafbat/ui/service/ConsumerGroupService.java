@@ -3,6 +3,7 @@ package io.kafbat.ui.service;
 import com.google.common.collect.Streams;
 import com.google.common.collect.Table;
 import io.kafbat.ui.emitter.EnhancedConsumer;
+import io.kafbat.ui.emitter.EnhancedConsumerPool;
 import io.kafbat.ui.model.ConsumerGroupOrderingDTO;
 import io.kafbat.ui.model.InternalConsumerGroup;
 import io.kafbat.ui.model.InternalTopicConsumerGroup;
@@ -11,6 +12,7 @@ import io.kafbat.ui.model.SortOrderDTO;
 import io.kafbat.ui.service.rbac.AccessControlService;
 import io.kafbat.ui.util.ApplicationMetrics;
 import io.kafbat.ui.util.KafkaClientSslPropertiesUtil;
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -18,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -35,11 +38,13 @@ import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
-public class ConsumerGroupService {
+public class ConsumerGroupService implements Closeable {
 
   private final AdminClientService adminClientService;
   private final AccessControlService accessControlService;
 
+  private final Map<String, EnhancedConsumerPool> consumerPools = new ConcurrentHashMap<>();
+
   private Mono<List<InternalConsumerGroup>> getConsumerGroups(
       ReactiveAdminClient ac,
       List<ConsumerGroupDescription> descriptions) {
@@ -281,4 +286,28 @@ public class ConsumerGroupService {
     );
   }
 
+  /**
+   * Returns consumer from cluster's consumers pool (or newly created consumer if pooling is disabled).
+   * Consumer is returned to the pool on close.
+   */
+  public EnhancedConsumer borrowConsumer(KafkaCluster cluster) {
+    var pollingSettings = cluster.getPollingSettings();
+    if (pollingSettings.getConsumerPoolSize() == 0) {
+      return createConsumer(cluster);
+    }
+    return consumerPools.computeIfAbsent(
+        cluster.getName(),
+        c -> new EnhancedConsumerPool(
+            () -> createConsumer(cluster),
+            pollingSettings.getConsumerPoolSize(),
+            pollingSettings.getConsumerPoolIdleTimeout()
+        )
+    ).borrow();
+  }
+
+  @Override
+  public void close() {
+    consumerPools.values().forEach(EnhancedConsumerPool::close);
+  }
+
 }
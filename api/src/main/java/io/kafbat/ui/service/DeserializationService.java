@@ -11,9 +11,11 @@ import io.kafbat.ui.serdes.ProducerRecordCreator;
 import io.kafbat.ui.serdes.SerdeInstance;
 import io.kafbat.ui.serdes.SerdesInitializer;
 import java.io.Closeable;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import javax.validation.ValidationException;
@@ -111,6 +113,19 @@ public class DeserializationService implements Closeable {
     );
   }
 
+  // returns charset in which deserialized (and masked) key/value can be found in raw record bytes as is,
+  // empty if serde doesn't guarantee that or masking is applied
+  public Optional<Charset> verbatimTextEncoding(KafkaCluster cluster,
+                                                String topic,
+                                                Serde.Target type,
+                                                String serdeName) {
+    if (cluster.getMasking().hasMasksFor(topic, type)) {
+      return Optional.empty();
+    }
+    return getSerdesFor(cluster).serdeForName(serdeName)
+        .flatMap(serde -> serde.verbatimTextEncoding(topic, type));
+  }
+
   public List<SerdeDescriptionDTO> getSerdesForSerialize(KafkaCluster cluster,
                                                          String topic,
                                                          Serde.Target serdeType) {
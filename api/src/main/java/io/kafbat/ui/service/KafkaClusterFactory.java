@@ -224,6 +224,7 @@ public class KafkaClusterFactory {
     builder.password(metricsConfigData.getPassword());
     builder.keystoreLocation(metricsConfigData.getKeystoreLocation());
     builder.keystorePassword(metricsConfigData.getKeystorePassword());
+    builder.allowlist(metricsConfigData.getAllowlist());
     return builder.build();
   }
 
@@ -9,8 +9,14 @@ import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.emitter.BackwardEmitter;
 import io.kafbat.ui.emitter.Cursor;
 import io.kafbat.ui.emitter.ForwardEmitter;
+import io.kafbat.ui.emitter.MessageFilter;
 import io.kafbat.ui.emitter.MessageFilters;
+import io.kafbat.ui.emitter.PollingAdmission;
+import io.kafbat.ui.emitter.PollingBandwidthScheduler;
+import io.kafbat.ui.emitter.TailingBatching;
 import io.kafbat.ui.emitter.TailingEmitter;
+import io.kafbat.ui.emitter.TailingHub;
+import io.kafbat.ui.emitter.TailingHubs;
 import io.kafbat.ui.exception.TopicNotFoundException;
 import io.kafbat.ui.exception.ValidationException;
 import io.kafbat.ui.model.ConsumerPosition;
@@ -19,11 +25,15 @@ import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.PollingModeDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionResultDTO;
+import io.kafbat.ui.model.TailingSamplingStrategyDTO;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
 import io.kafbat.ui.serdes.ProducerRecordCreator;
+import io.kafbat.ui.service.rbac.AccessControlService;
 import io.kafbat.ui.util.KafkaClientSslPropertiesUtil;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -33,6 +43,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
@@ -47,9 +58,11 @@ import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 @Service
 @Slf4j
@@ -63,17 +76,29 @@ public class MessagesService {
   // limiting UI messages rate to 20/sec in tailing mode
   private static final int TAILING_UI_MESSAGE_THROTTLE_RATE = 20;
 
+  private static final int MAX_REGISTERED_FILTERS = 10_000;
+
+  private static final int DEFAULT_TAILING_BATCH_INTERVAL_MS = 1_000;
+  private static final int DEFAULT_TAILING_BATCH_MAX_MESSAGES = 100;
+
   private final AdminClientService adminClientService;
   private final DeserializationService deserializationService;
   private final ConsumerGroupService consumerGroupService;
   private final int maxPageSize;
   private final int defaultPageSize;
+  private final Duration tailingBatchInterval;
+  private final int tailingBatchMaxMessages;
 
-  private final Cache<String, Predicate<TopicMessageDTO>> registeredFilters = CacheBuilder.newBuilder()
-      .maximumSize(PollingCursorsStorage.MAX_SIZE)
+  private final Cache<String, RegisteredFilter> registeredFilters = CacheBuilder.newBuilder()
+      .maximumSize(MAX_REGISTERED_FILTERS)
       .build();
 
-  private final PollingCursorsStorage cursorsStorage = new PollingCursorsStorage();
+  private final PollingCursorsCodec cursorsCodec;
+
+  private final TailingHubs tailingHubs = new TailingHubs();
+
+  private record RegisteredFilter(String code, MessageFilter filter) {
+  }
 
   public MessagesService(AdminClientService adminClientService,
                          DeserializationService deserializationService,
@@ -89,6 +114,11 @@ public class MessagesService {
         .orElse(DEFAULT_MAX_PAGE_SIZE);
     this.defaultPageSize = Optional.ofNullable(pollingProps.getDefaultPageSize())
         .orElse(DEFAULT_PAGE_SIZE);
+    this.tailingBatchInterval = Duration.ofMillis(
+        Optional.ofNullable(pollingProps.getTailingBatchIntervalMs()).orElse(DEFAULT_TAILING_BATCH_INTERVAL_MS));
+    this.tailingBatchMaxMessages = Optional.ofNullable(pollingProps.getTailingBatchMaxMessages())
+        .orElse(DEFAULT_TAILING_BATCH_MAX_MESSAGES);
+    this.cursorsCodec = new PollingCursorsCodec(pollingProps.getCursorSigningKey());
   }
 
   private Mono<TopicDescription> withExistingTopic(KafkaCluster cluster, String topicName) {
@@ -134,7 +164,8 @@ public class MessagesService {
         .flatMap(td ->
             offsetsForDeletion(cluster, topicName, partitionsToInclude)
                 .flatMap(offsets ->
-                    adminClientService.get(cluster).flatMap(ac -> ac.deleteRecords(offsets))));
+                    adminClientService.get(cluster).flatMap(ac -> ac.deleteRecords(offsets))))
+        .doOnSuccess(v -> cluster.getPollingSettings().getRecordsCache().invalidate(topicName));
   }
 
   private Mono<Map<TopicPartition, Long>> offsetsForDeletion(KafkaCluster cluster, String topicName,
@@ -218,92 +249,162 @@ public class MessagesService {
                                                  @Nullable String keySerde,
                                                  @Nullable String valueSerde) {
     return loadMessages(
-        cluster,
-        topic,
-        deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde),
-        consumerPosition,
-        getMsgFilter(containsStringFilter, filterId),
-        fixPageSize(limit)
+        cluster, topic, consumerPosition, containsStringFilter, filterId, limit, keySerde, valueSerde, null);
+  }
+
+  public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster,
+                                                 String topic,
+                                                 ConsumerPosition consumerPosition,
+                                                 @Nullable String containsStringFilter,
+                                                 @Nullable String filterId,
+                                                 @Nullable Integer limit,
+                                                 @Nullable String keySerde,
+                                                 @Nullable String valueSerde,
+                                                 @Nullable TailingSamplingStrategyDTO tailingSampling) {
+    var deserializer = deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde);
+    var filter = getMsgFilter(cluster, topic, deserializer, containsStringFilter, filterId);
+    int pageSize = fixPageSize(limit);
+    // filtered polling can read whole topic to fill the page, so it is admitted after plain page loads
+    var priority = containsStringFilter == null && filterId == null
+        ? PollingAdmission.Priority.INTERACTIVE
+        : PollingAdmission.Priority.SCAN;
+    @Nullable String smartFilterCode = filterId != null ? getRegisteredFilter(filterId).code() : null;
+    // cursor contains everything that is needed to load next page on any app instance
+    Function<Cursor, String> cursorEncoder = cursor -> cursorsCodec.encode(
+        cluster.getName(),
+        new PollingCursorsCodec.CursorState(
+            cursor.consumerPosition(),
+            deserializer.getKeySerdeName(),
+            deserializer.getValueSerdeName(),
+            containsStringFilter,
+            smartFilterCode,
+            cursor.limit()
+        )
     );
+    return withExistingTopic(cluster, topic)
+        .flux()
+        .publishOn(Schedulers.boundedElastic())
+        .flatMap(td -> loadMessagesImpl(cluster, deserializer, consumerPosition, filter, pageSize, cursorEncoder)
+            .contextWrite(PollingAdmission.withPriority(priority)))
+        .transform(uiPublishing(consumerPosition.pollingMode(), tailingSampling));
   }
 
   public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster, String topic, String cursorId) {
-    Cursor cursor = cursorsStorage.getCursor(cursorId)
-        .orElseThrow(() -> new ValidationException("Next page cursor not found. Maybe it was evicted from cache."));
+    var cursorState = cursorsCodec.decode(cluster.getName(), cursorId);
+    if (!cursorState.consumerPosition().topic().equals(topic)) {
+      throw new ValidationException("Next page cursor was created for other topic");
+    }
     return loadMessages(
         cluster,
         topic,
-        cursor.deserializer(),
-        cursor.consumerPosition(),
-        cursor.filter(),
-        cursor.limit()
+        cursorState.consumerPosition(),
+        cursorState.containsStringFilter(),
+        cursorState.smartFilterCode() != null ? registerMessageFilter(cursorState.smartFilterCode()) : null,
+        cursorState.limit(),
+        cursorState.keySerde(),
+        cursorState.valueSerde()
     );
   }
 
-  private Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster,
-                                                  String topic,
-                                                  ConsumerRecordDeserializer deserializer,
-                                                  ConsumerPosition consumerPosition,
-                                                  Predicate<TopicMessageDTO> filter,
-                                                  int limit) {
-    return withExistingTopic(cluster, topic)
-        .flux()
-        .publishOn(Schedulers.boundedElastic())
-        .flatMap(td -> loadMessagesImpl(cluster, deserializer, consumerPosition, filter, limit));
-  }
-
   private Flux<TopicMessageEventDTO> loadMessagesImpl(KafkaCluster cluster,
                                                       ConsumerRecordDeserializer deserializer,
                                                       ConsumerPosition consumerPosition,
                                                       Predicate<TopicMessageDTO> filter,
-                                                      int limit) {
-    var emitter = switch (consumerPosition.pollingMode()) {
-      case TO_OFFSET, TO_TIMESTAMP, LATEST -> new BackwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
+                                                      int limit,
+                                                      Function<Cursor, String> cursorEncoder) {
+    Flux<TopicMessageEventDTO> messages = switch (consumerPosition.pollingMode()) {
+      case TO_OFFSET, TO_TIMESTAMP, LATEST -> Flux.create(new BackwardEmitter(
+          () -> consumerGroupService.borrowConsumer(cluster),
           consumerPosition,
           limit,
           deserializer,
           filter,
           cluster.getPollingSettings(),
-          cursorsStorage.createNewCursor(deserializer, consumerPosition, filter, limit)
-      );
-      case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> new ForwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
+          new Cursor.Tracking(deserializer, consumerPosition, filter, limit, cursorEncoder)
+      ));
+      case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> Flux.create(new ForwardEmitter(
+          () -> consumerGroupService.borrowConsumer(cluster),
           consumerPosition,
           limit,
           deserializer,
           filter,
           cluster.getPollingSettings(),
-          cursorsStorage.createNewCursor(deserializer, consumerPosition, filter, limit)
-      );
-      case TAILING -> new TailingEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
-          consumerPosition,
-          deserializer,
-          filter,
-          cluster.getPollingSettings()
+          new Cursor.Tracking(deserializer, consumerPosition, filter, limit, cursorEncoder)
+      ));
+      // hub is leased on subscription and released when tailing is cancelled
+      case TAILING -> tailingHubs.withHub(
+          tailingHubKey(cluster, consumerPosition.topic(), deserializer),
+          () -> new TailingHub(
+              () -> consumerGroupService.borrowConsumer(cluster),
+              consumerPosition.topic(),
+              deserializer,
+              cluster.getPollingSettings()
+          ),
+          hub -> Flux.create(new TailingEmitter(hub, consumerPosition, filter, cluster.getPollingSettings()))
       );
     };
-    return Flux.create(emitter)
-        .map(throttleUiPublish(consumerPosition.pollingMode()));
+    return pollingUser().flatMapMany(user -> messages.contextWrite(user));
+  }
+
+  // cluster's polling bandwidth is shared between users, client address is used if authentication is disabled
+  private static Mono<Context> pollingUser() {
+    return AccessControlService.getUser()
+        .map(user -> PollingBandwidthScheduler.withUser(user.principal()))
+        .switchIfEmpty(
+            Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.<ServerWebExchange>getOrEmpty(ServerWebExchange.class)))
+                .mapNotNull(exchange -> exchange.getRequest().getRemoteAddress())
+                .map(address -> PollingBandwidthScheduler.withClientAddress(address.getHostString()))
+        )
+        .defaultIfEmpty(PollingBandwidthScheduler.withUser(PollingBandwidthScheduler.ANONYMOUS_USER));
+  }
+
+  private static TailingHub.Key tailingHubKey(KafkaCluster cluster,
+                                              String topic,
+                                              ConsumerRecordDeserializer deserializer) {
+    return new TailingHub.Key(
+        cluster.getName(), topic, deserializer.getKeySerdeName(), deserializer.getValueSerdeName());
   }
 
-  private Predicate<TopicMessageDTO> getMsgFilter(@Nullable String containsStrFilter,
-                                                  @Nullable String smartFilterId) {
-    Predicate<TopicMessageDTO> messageFilter = MessageFilters.noop();
+  private MessageFilter getMsgFilter(KafkaCluster cluster,
+                                     String topic,
+                                     ConsumerRecordDeserializer deserializer,
+                                     @Nullable String containsStrFilter,
+                                     @Nullable String smartFilterId) {
+    MessageFilter messageFilter = MessageFilters.noop();
     if (containsStrFilter != null) {
-      messageFilter = messageFilter.and(MessageFilters.containsStringFilter(containsStrFilter));
+      messageFilter = messageFilter.and(
+          MessageFilters.containsStringFilter(
+              containsStrFilter,
+              deserializationService.verbatimTextEncoding(
+                  cluster, topic, Serde.Target.KEY, deserializer.getKeySerdeName()).orElse(null),
+              deserializationService.verbatimTextEncoding(
+                  cluster, topic, Serde.Target.VALUE, deserializer.getValueSerdeName()).orElse(null)
+          )
+      );
     }
     if (smartFilterId != null) {
-      var registered = registeredFilters.getIfPresent(smartFilterId);
-      if (registered == null) {
-        throw new ValidationException("No filter was registered with id " + smartFilterId);
-      }
-      messageFilter = messageFilter.and(registered);
+      messageFilter = messageFilter.and(getRegisteredFilter(smartFilterId).filter());
     }
     return messageFilter;
   }
 
+  private RegisteredFilter getRegisteredFilter(String smartFilterId) {
+    var registered = registeredFilters.getIfPresent(smartFilterId);
+    if (registered == null) {
+      throw new ValidationException("No filter was registered with id " + smartFilterId);
+    }
+    return registered;
+  }
+
+  private Function<Flux<TopicMessageEventDTO>, Flux<TopicMessageEventDTO>> uiPublishing(
+      PollingModeDTO pollingMode,
+      @Nullable TailingSamplingStrategyDTO tailingSampling) {
+    if (pollingMode == PollingModeDTO.TAILING && tailingSampling != null) {
+      return TailingBatching.batching(tailingSampling, tailingBatchInterval, tailingBatchMaxMessages);
+    }
+    return flux -> flux.map(throttleUiPublish(pollingMode));
+  }
+
   private <T> UnaryOperator<T> throttleUiPublish(PollingModeDTO pollingMode) {
     if (pollingMode == PollingModeDTO.TAILING) {
       RateLimiter rateLimiter = RateLimiter.create(TAILING_UI_MESSAGE_THROTTLE_RATE);
@@ -330,7 +431,7 @@ public class MessagesService {
         .toString()
         .substring(0, 8);
     if (registeredFilters.getIfPresent(filterId) == null) {
-      registeredFilters.put(filterId, MessageFilters.celScriptFilter(celCode));
+      registeredFilters.put(filterId, new RegisteredFilter(celCode, MessageFilters.celScriptFilter(celCode)));
     }
     return filterId;
   }
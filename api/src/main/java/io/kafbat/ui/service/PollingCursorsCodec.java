@@ -0,0 +1,218 @@
+package io.kafbat.ui.service;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.PollingModeDTO;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.ByteUtils;
+
+/**
+ * Encodes next page cursors into self-contained signed tokens, so any application instance (including
+ * restarted one or other replica) can continue polling from the cursor without any server-side state.
+ * Token format (base64url): version, polling mode, topic, limit, serde names, filters, requested partitions,
+ * per-partition offsets (as varints, partitions are delta-encoded) and truncated HMAC-SHA256 signature
+ * over cluster name and payload.
+ * NOTE: to make cursors usable across replicas, all replicas should use same signing key.
+ */
+@Slf4j
+public class PollingCursorsCodec {
+
+  private static final byte VERSION = 1;
+  private static final int SIGNATURE_LENGTH = 16;
+
+  private static final byte TO_OFFSET_MODE = 0;
+  private static final byte FROM_OFFSET_MODE = 1;
+
+  public record CursorState(ConsumerPosition consumerPosition,
+                            String keySerde,
+                            String valueSerde,
+                            @Nullable String containsStringFilter,
+                            @Nullable String smartFilterCode,
+                            int limit) {
+  }
+
+  private final HashFunction signer;
+
+  public PollingCursorsCodec(@Nullable String signingKey) {
+    byte[] key;
+    if (signingKey == null || signingKey.isBlank()) {
+      log.info("Polling cursors signing key not set, next page cursors won't be valid after restart "
+          + "or on other replicas. Set kafka.polling.cursorSigningKey property to change this.");
+      key = new byte[32];
+      new SecureRandom().nextBytes(key);
+    } else {
+      key = signingKey.getBytes(StandardCharsets.UTF_8);
+    }
+    this.signer = Hashing.hmacSha256(key);
+  }
+
+  public String encode(String cluster, CursorState state) {
+    byte[] payload = writePayload(state);
+    byte[] token = Arrays.copyOf(payload, payload.length + SIGNATURE_LENGTH);
+    System.arraycopy(sign(cluster, payload), 0, token, payload.length, SIGNATURE_LENGTH);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+  }
+
+  public CursorState decode(String cluster, String token) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(token);
+    } catch (IllegalArgumentException e) {
+      throw new ValidationException("Invalid next page cursor");
+    }
+    if (bytes.length <= SIGNATURE_LENGTH) {
+      throw new ValidationException("Invalid next page cursor");
+    }
+    byte[] payload = Arrays.copyOf(bytes, bytes.length - SIGNATURE_LENGTH);
+    byte[] signature = Arrays.copyOfRange(bytes, payload.length, bytes.length);
+    if (!MessageDigest.isEqual(sign(cluster, payload), signature)) {
+      throw new ValidationException("Next page cursor signature is invalid");
+    }
+    try {
+      return readPayload(ByteBuffer.wrap(payload));
+    } catch (RuntimeException e) {
+      throw new ValidationException("Invalid next page cursor", e);
+    }
+  }
+
+  private byte[] sign(String cluster, byte[] payload) {
+    byte[] signature = signer.newHasher()
+        .putString(cluster, StandardCharsets.UTF_8)
+        .putBytes(payload)
+        .hash()
+        .asBytes();
+    return Arrays.copyOf(signature, SIGNATURE_LENGTH);
+  }
+
+  private static byte[] writePayload(CursorState state) {
+    var position = state.consumerPosition();
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeByte(switch (position.pollingMode()) {
+        case TO_OFFSET -> TO_OFFSET_MODE;
+        case FROM_OFFSET -> FROM_OFFSET_MODE;
+        default -> throw new IllegalArgumentException("Unsupported cursor polling mode " + position.pollingMode());
+      });
+      writeString(out, position.topic());
+      ByteUtils.writeUnsignedVarint(state.limit(), out);
+      writeString(out, state.keySerde());
+      writeString(out, state.valueSerde());
+      writeString(out, state.containsStringFilter());
+      writeString(out, state.smartFilterCode());
+
+      writePartitions(out, position.partitions().stream().map(TopicPartition::partition).sorted().toList());
+
+      Map<TopicPartition, Long> offsets = position.offsets().tpOffsets();
+      List<TopicPartition> offsetPartitions = offsets.keySet().stream()
+          .sorted(Comparator.comparingInt(TopicPartition::partition))
+          .toList();
+      writePartitions(out, offsetPartitions.stream().map(TopicPartition::partition).toList());
+      for (TopicPartition tp : offsetPartitions) {
+        ByteUtils.writeVarlong(offsets.get(tp), out);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static CursorState readPayload(ByteBuffer in) {
+    byte version = in.get();
+    if (version != VERSION) {
+      throw new IllegalStateException("Unsupported cursor version " + version);
+    }
+    var mode = switch (in.get()) {
+      case TO_OFFSET_MODE -> PollingModeDTO.TO_OFFSET;
+      case FROM_OFFSET_MODE -> PollingModeDTO.FROM_OFFSET;
+      default -> throw new IllegalStateException("Unknown polling mode");
+    };
+    String topic = readString(in);
+    int limit = ByteUtils.readUnsignedVarint(in);
+    String keySerde = readString(in);
+    String valueSerde = readString(in);
+    String containsStringFilter = readString(in);
+    String smartFilterCode = readString(in);
+
+    List<TopicPartition> partitions = readPartitions(in).stream()
+        .map(p -> new TopicPartition(topic, p))
+        .toList();
+
+    Map<TopicPartition, Long> offsets = new HashMap<>();
+    for (int partition : readPartitions(in)) {
+      offsets.put(new TopicPartition(topic, partition), ByteUtils.readVarlong(in));
+    }
+    return new CursorState(
+        new ConsumerPosition(mode, topic, partitions, null, new ConsumerPosition.Offsets(null, offsets)),
+        keySerde,
+        valueSerde,
+        containsStringFilter,
+        smartFilterCode,
+        limit
+    );
+  }
+
+  // sorted partitions are written as deltas from previous partition
+  private static void writePartitions(DataOutput out, List<Integer> sortedPartitions) throws IOException {
+    ByteUtils.writeUnsignedVarint(sortedPartitions.size(), out);
+    int prev = 0;
+    for (int partition : sortedPartitions) {
+      ByteUtils.writeUnsignedVarint(partition - prev, out);
+      prev = partition;
+    }
+  }
+
+  private static List<Integer> readPartitions(ByteBuffer in) {
+    int size = ByteUtils.readUnsignedVarint(in);
+    List<Integer> partitions = new ArrayList<>(size);
+    int prev = 0;
+    for (int i = 0; i < size; i++) {
+      prev += ByteUtils.readUnsignedVarint(in);
+      partitions.add(prev);
+    }
+    return partitions;
+  }
+
+  // null strings are written as 0 length, non-null as (length + 1)
+  private static void writeString(DataOutput out, @Nullable String str) throws IOException {
+    if (str == null) {
+      ByteUtils.writeUnsignedVarint(0, out);
+      return;
+    }
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    ByteUtils.writeUnsignedVarint(bytes.length + 1, out);
+    out.write(bytes);
+  }
+
+  @Nullable
+  private static String readString(ByteBuffer in) {
+    int length = ByteUtils.readUnsignedVarint(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length - 1];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
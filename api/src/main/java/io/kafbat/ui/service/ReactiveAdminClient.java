@@ -63,6 +63,7 @@ import org.apache.kafka.clients.admin.OffsetSpec;
 import org.apache.kafka.clients.admin.ProducerState;
 import org.apache.kafka.clients.admin.RecordsToDelete;
 import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.TopicListing;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.KafkaFuture;
@@ -70,6 +71,7 @@ import org.apache.kafka.common.Node;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.TopicPartitionReplica;
+import org.apache.kafka.common.Uuid;
 import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
@@ -242,6 +244,12 @@ public class ReactiveAdminClient implements Closeable {
     return toMono(client.listTopics(new ListTopicsOptions().listInternal(listInternal)).names());
   }
 
+  // topic name -> topic id, ids allow to detect re-created topics
+  public Mono<Map<String, Uuid>> listTopicIds(boolean listInternal) {
+    return toMono(client.listTopics(new ListTopicsOptions().listInternal(listInternal)).listings())
+        .map(listings -> listings.stream().collect(toMap(TopicListing::name, TopicListing::topicId)));
+  }
+
   public Mono<Void> deleteTopic(String topicName) {
     return toMono(client.deleteTopics(List.of(topicName)).all());
   }
@@ -3,63 +3,71 @@ package io.kafbat.ui.service;
 import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.ServerStatusDTO;
 import io.kafbat.ui.model.Statistics;
-import java.util.HashMap;
+import io.kafbat.ui.util.PersistentHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.springframework.stereotype.Component;
 
+/**
+ * Keeps latest statistics snapshot per cluster. Snapshots' topic descriptions and configs are persistent maps,
+ * so topic updates create new snapshot sharing unchanged entries with previous one, instead of copying whole maps.
+ * Readers never block, updates of the same cluster are serialized.
+ */
 @Component
 public class StatisticsCache {
 
   private final Map<String, Statistics> cache = new ConcurrentHashMap<>();
 
-  public StatisticsCache(ClustersStorage clustersStorage) {
+  public StatisticsCache(ClustersStorage clustersStorage, StatisticsSnapshots snapshots) {
     var initializing = Statistics.empty().toBuilder().status(ServerStatusDTO.INITIALIZING).build();
-    clustersStorage.getKafkaClusters().forEach(c -> cache.put(c.getName(), initializing));
+    clustersStorage.getKafkaClusters().forEach(c ->
+        // statistics saved before restart are shown (as stale) until first update completes
+        cache.put(c.getName(), withPersistentTopicMaps(snapshots.load(c.getName()).orElse(initializing))));
   }
 
-  public synchronized void replace(KafkaCluster c, Statistics stats) {
-    cache.put(c.getName(), stats);
+  public void replace(KafkaCluster c, Statistics stats) {
+    cache.put(c.getName(), withPersistentTopicMaps(stats));
   }
 
-  public synchronized void update(KafkaCluster c,
-                                  Map<String, TopicDescription> descriptions,
-                                  Map<String, List<ConfigEntry>> configs) {
-    var metrics = get(c);
-    var updatedDescriptions = new HashMap<>(metrics.getTopicDescriptions());
-    updatedDescriptions.putAll(descriptions);
-    var updatedConfigs = new HashMap<>(metrics.getTopicConfigs());
-    updatedConfigs.putAll(configs);
-    replace(
-        c,
-        metrics.toBuilder()
-            .topicDescriptions(updatedDescriptions)
-            .topicConfigs(updatedConfigs)
-            .build()
-    );
+  public void update(KafkaCluster c,
+                     Map<String, TopicDescription> descriptions,
+                     Map<String, List<ConfigEntry>> configs) {
+    compute(c, stats -> stats.toBuilder()
+        .topicDescriptions(PersistentHashMap.copyOf(stats.getTopicDescriptions()).plusAll(descriptions))
+        .topicConfigs(PersistentHashMap.copyOf(stats.getTopicConfigs()).plusAll(configs))
+        .build());
   }
 
-  public synchronized void onTopicDelete(KafkaCluster c, String topic) {
-    var metrics = get(c);
-    var updatedDescriptions = new HashMap<>(metrics.getTopicDescriptions());
-    updatedDescriptions.remove(topic);
-    var updatedConfigs = new HashMap<>(metrics.getTopicConfigs());
-    updatedConfigs.remove(topic);
-    replace(
-        c,
-        metrics.toBuilder()
-            .topicDescriptions(updatedDescriptions)
-            .topicConfigs(updatedConfigs)
-            .build()
-    );
+  public void onTopicDelete(KafkaCluster c, String topic) {
+    compute(c, stats -> stats.toBuilder()
+        .topicDescriptions(PersistentHashMap.copyOf(stats.getTopicDescriptions()).minus(topic))
+        .topicConfigs(PersistentHashMap.copyOf(stats.getTopicConfigs()).minus(topic))
+        .build());
   }
 
   public Statistics get(KafkaCluster c) {
     return Objects.requireNonNull(cache.get(c.getName()), "Unknown cluster metrics requested");
   }
 
+  private void compute(KafkaCluster c, UnaryOperator<Statistics> updater) {
+    cache.compute(c.getName(), (name, stats) -> updater.apply(
+        Objects.requireNonNull(stats, "Unknown cluster metrics requested")));
+  }
+
+  private static Statistics withPersistentTopicMaps(Statistics stats) {
+    if (stats.getTopicDescriptions() instanceof PersistentHashMap
+        && stats.getTopicConfigs() instanceof PersistentHashMap) {
+      return stats;
+    }
+    return stats.toBuilder()
+        .topicDescriptions(PersistentHashMap.copyOf(stats.getTopicDescriptions()))
+        .topicConfigs(PersistentHashMap.copyOf(stats.getTopicConfigs()))
+        .build();
+  }
+
 }
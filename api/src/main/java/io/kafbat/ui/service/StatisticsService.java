@@ -2,6 +2,7 @@ package io.kafbat.ui.service;
 
 import static io.kafbat.ui.service.ReactiveAdminClient.ClusterDescription;
 
+import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.model.ClusterFeature;
 import io.kafbat.ui.model.InternalLogDirStats;
 import io.kafbat.ui.model.KafkaCluster;
@@ -9,19 +10,16 @@ import io.kafbat.ui.model.Metrics;
 import io.kafbat.ui.model.ServerStatusDTO;
 import io.kafbat.ui.model.Statistics;
 import io.kafbat.ui.service.metrics.MetricsCollector;
+import io.kafbat.ui.service.metrics.OffsetsSampler;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.ConfigEntry;
-import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.Node;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class StatisticsService {
 
@@ -29,9 +27,33 @@ public class StatisticsService {
   private final AdminClientService adminClientService;
   private final FeatureService featureService;
   private final StatisticsCache cache;
+  private final TopicsStatisticsRefresh topicsRefresh;
+  private final StatisticsSnapshots snapshots;
+  private final OffsetsSampler offsetsSampler;
+
+  public StatisticsService(MetricsCollector metricsCollector,
+                           AdminClientService adminClientService,
+                           FeatureService featureService,
+                           StatisticsCache cache,
+                           StatisticsSnapshots snapshots,
+                           OffsetsSampler offsetsSampler,
+                           ClustersProperties clustersProperties) {
+    this.metricsCollector = metricsCollector;
+    this.offsetsSampler = offsetsSampler;
+    this.adminClientService = adminClientService;
+    this.featureService = featureService;
+    this.cache = cache;
+    this.snapshots = snapshots;
+    this.topicsRefresh = new TopicsStatisticsRefresh(
+        Optional.ofNullable(clustersProperties.getStatistics())
+            .orElseGet(ClustersProperties.StatisticsProperties::new));
+  }
 
   public Mono<Statistics> updateCache(KafkaCluster c) {
-    return getStatistics(c).doOnSuccess(m -> cache.replace(c, m));
+    return getStatistics(c)
+        .doOnSuccess(m -> cache.replace(c, m))
+        // saved in background, so slow disk doesn't delay update (and doesn't count towards its timeout)
+        .doOnNext(m -> snapshots.saveIfDue(c.getName(), m).subscribe());
   }
 
   @SuppressWarnings("unchecked")
@@ -44,8 +66,7 @@ public class StatisticsService {
                             metricsCollector.getBrokerMetrics(cluster, description.getNodes()),
                             getLogDirInfo(description, ac),
                             featureService.getAvailableFeatures(ac, cluster, description),
-                            loadTopicConfigs(cluster),
-                            describeTopics(cluster)),
+                            loadTopics(cluster, ac, description)),
                         results ->
                             Statistics.builder()
                                 .status(ServerStatusDTO.ONLINE)
@@ -54,27 +75,40 @@ public class StatisticsService {
                                 .metrics((Metrics) results[0])
                                 .logDirInfo((InternalLogDirStats) results[1])
                                 .features((List<ClusterFeature>) results[2])
-                                .topicConfigs((Map<String, List<ConfigEntry>>) results[3])
-                                .topicDescriptions((Map<String, TopicDescription>) results[4])
+                                .topicConfigs(((TopicsStatisticsRefresh.Topics) results[3]).configs())
+                                .topicDescriptions(((TopicsStatisticsRefresh.Topics) results[3]).descriptions())
                                 .build()
-                    ))))
+                    ).flatMap(stats -> estimateThroughput(cluster, ac, stats)))))
         .doOnError(e ->
             log.error("Failed to collect cluster {} info", cluster.getName(), e))
         .onErrorResume(
             e -> Mono.just(Statistics.empty().toBuilder().lastKafkaException(e).build()));
   }
 
+  // without metrics endpoint configured, messages rates are estimated from latest offsets growth
+  private Mono<Statistics> estimateThroughput(KafkaCluster cluster, ReactiveAdminClient ac, Statistics stats) {
+    if (cluster.getMetricsConfig() != null) {
+      return Mono.just(stats);
+    }
+    return offsetsSampler.sample(cluster.getName(), ac, stats.getTopicDescriptions().values())
+        .map(metrics -> stats.toBuilder().metrics(metrics).build())
+        .onErrorResume(e -> {
+          log.warn("Failed to sample latest offsets of cluster {}", cluster.getName(), e);
+          return Mono.just(stats);
+        });
+  }
+
   private Mono<InternalLogDirStats> getLogDirInfo(ClusterDescription desc, ReactiveAdminClient ac) {
     var brokerIds = desc.getNodes().stream().map(Node::id).collect(Collectors.toSet());
     return ac.describeLogDirs(brokerIds).map(InternalLogDirStats::new);
   }
 
-  private Mono<Map<String, TopicDescription>> describeTopics(KafkaCluster c) {
-    return adminClientService.get(c).flatMap(ReactiveAdminClient::describeTopics);
-  }
-
-  private Mono<Map<String, List<ConfigEntry>>> loadTopicConfigs(KafkaCluster c) {
-    return adminClientService.get(c).flatMap(ReactiveAdminClient::getTopicsConfig);
+  // only new and part of existing topics are reloaded, other topics are taken from previous statistics
+  private Mono<TopicsStatisticsRefresh.Topics> loadTopics(KafkaCluster c,
+                                                          ReactiveAdminClient ac,
+                                                          ClusterDescription desc) {
+    var brokerIds = desc.getNodes().stream().map(Node::id).collect(Collectors.toSet());
+    return topicsRefresh.refresh(c.getName(), ac, cache.get(c), brokerIds);
   }
 
 }
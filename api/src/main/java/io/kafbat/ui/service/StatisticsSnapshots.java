@@ -0,0 +1,428 @@
+package io.kafbat.ui.service;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.ClusterFeature;
+import io.kafbat.ui.model.InternalLogDirStats;
+import io.kafbat.ui.model.Metrics;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.model.Statistics;
+import io.kafbat.ui.service.metrics.MetricsColumns;
+import io.kafbat.ui.service.metrics.RawMetric;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.acl.AclOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Periodically saves clusters' statistics to local gzipped json files (one per cluster), so that after restart
+ * statistics cache can be initialized from snapshots, instead of showing clusters as initializing until the first
+ * statistics update completes. Loaded statistics are marked as stale until refreshed.
+ * Disabled if snapshots directory is not configured.
+ */
+@Slf4j
+@Component
+public class StatisticsSnapshots {
+
+  private static final Duration DEFAULT_SAVE_INTERVAL = Duration.ofMinutes(5);
+  private static final int FORMAT_VERSION = 1;
+
+  private final JsonMapper mapper = JsonMapper.builder().disable(FAIL_ON_UNKNOWN_PROPERTIES).build();
+
+  @Nullable
+  private final Path dir;
+  private final long saveIntervalNanos;
+  private final Ticker ticker;
+
+  // cluster name -> nano time of last save
+  private final Map<String, Long> lastSaves = new ConcurrentHashMap<>();
+
+  @Autowired
+  public StatisticsSnapshots(ClustersProperties clustersProperties) {
+    this(
+        Optional.ofNullable(clustersProperties.getStatistics())
+            .map(ClustersProperties.StatisticsProperties::getSnapshotsDir)
+            .map(Path::of)
+            .orElse(null),
+        Optional.ofNullable(clustersProperties.getStatistics())
+            .map(ClustersProperties.StatisticsProperties::getSnapshotsSaveIntervalMs)
+            .map(Duration::ofMillis)
+            .orElse(DEFAULT_SAVE_INTERVAL),
+        Ticker.systemTicker()
+    );
+  }
+
+  @VisibleForTesting
+  StatisticsSnapshots(@Nullable Path dir, Duration saveInterval, Ticker ticker) {
+    this.dir = dir;
+    this.saveIntervalNanos = saveInterval.toNanos();
+    this.ticker = ticker;
+  }
+
+  Optional<Statistics> load(String clusterName) {
+    if (dir == null) {
+      return Optional.empty();
+    }
+    Path file = file(clusterName);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+      var snapshot = mapper.readValue(in, Snapshot.class);
+      if (snapshot.formatVersion() != FORMAT_VERSION) {
+        log.info("Ignoring statistics snapshot of cluster {} with unsupported format version {}",
+            clusterName, snapshot.formatVersion());
+        return Optional.empty();
+      }
+      log.info("Loaded statistics snapshot of cluster {} saved at {}",
+          clusterName, Instant.ofEpochMilli(snapshot.savedAtMs()));
+      return Optional.of(snapshot.toStatistics());
+    } catch (Exception e) {
+      log.warn("Error loading statistics snapshot of cluster {} from {}", clusterName, file, e);
+      return Optional.empty();
+    }
+  }
+
+  // saves online statistics, if save interval passed since previous save of cluster's statistics
+  Mono<Void> saveIfDue(String clusterName, Statistics stats) {
+    if (dir == null || stats.getStatus() != ServerStatusDTO.ONLINE || stats.isStale()) {
+      return Mono.empty();
+    }
+    long now = ticker.read();
+    Long last = lastSaves.get(clusterName);
+    if (last != null && now - last < saveIntervalNanos) {
+      return Mono.empty();
+    }
+    lastSaves.put(clusterName, now);
+    return Mono.<Void>fromRunnable(() -> save(clusterName, stats))
+        .subscribeOn(Schedulers.boundedElastic())
+        .onErrorResume(e -> {
+          log.warn("Error saving statistics snapshot of cluster {}", clusterName, e);
+          return Mono.empty();
+        });
+  }
+
+  private void save(String clusterName, Statistics stats) {
+    try {
+      Files.createDirectories(dir);
+      Path file = file(clusterName);
+      // writing to temp file and moving it to keep snapshot consistent if process is killed while writing
+      Path tmp = Files.createTempFile(dir, ".snapshot", ".tmp");
+      try {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+          mapper.writeValue(out, Snapshot.from(stats));
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      log.debug("Saved statistics snapshot of cluster {} to {}", clusterName, file);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Path file(String clusterName) {
+    return dir.resolve(URLEncoder.encode(clusterName, StandardCharsets.UTF_8) + ".json.gz");
+  }
+
+  //---------------------------------------------------------------------------------------------
+  // snapshot format: nodes are referenced by ids, configs' docs are stored once per config name
+
+  record Snapshot(int formatVersion,
+                  long savedAtMs,
+                  String version,
+                  List<ClusterFeature> features,
+                  ClusterSnapshot cluster,
+                  MetricsSnapshot metrics,
+                  LogDirsSnapshot logDirs,
+                  List<TopicSnapshot> topics,
+                  Map<String, List<ConfigSnapshot>> topicConfigs,
+                  Map<String, String> configDocs) {
+
+    static Snapshot from(Statistics stats) {
+      Map<String, String> docs = new HashMap<>();
+      Map<String, List<ConfigSnapshot>> configs = new HashMap<>();
+      stats.getTopicConfigs().forEach((topic, entries) -> configs.put(topic, entries.stream()
+          .map(e -> {
+            if (e.documentation() != null) {
+              docs.putIfAbsent(e.name(), e.documentation());
+            }
+            return ConfigSnapshot.from(e);
+          })
+          .toList()));
+      return new Snapshot(
+          FORMAT_VERSION,
+          System.currentTimeMillis(),
+          stats.getVersion(),
+          stats.getFeatures(),
+          ClusterSnapshot.from(stats.getClusterDescription()),
+          MetricsSnapshot.from(stats.getMetrics()),
+          LogDirsSnapshot.from(stats.getLogDirInfo()),
+          stats.getTopicDescriptions().values().stream().map(TopicSnapshot::from).toList(),
+          configs,
+          docs
+      );
+    }
+
+    Statistics toStatistics() {
+      var description = cluster.toDescription();
+      Map<Integer, Node> nodes = description.getNodes().stream()
+          .collect(Collectors.toMap(Node::id, Function.identity(), (n1, n2) -> n1));
+      return Statistics.builder()
+          .status(ServerStatusDTO.ONLINE)
+          .stale(true)
+          .version(version)
+          .features(features)
+          .clusterDescription(description)
+          .metrics(metrics.toMetrics())
+          .logDirInfo(logDirs.toStats())
+          .topicDescriptions(topics.stream()
+              .map(t -> t.toDescription(nodes))
+              .collect(Collectors.toMap(TopicDescription::name, Function.identity())))
+          .topicConfigs(topicConfigs.entrySet().stream()
+              .collect(Collectors.toMap(
+                  Map.Entry::getKey,
+                  e -> e.getValue().stream().map(c -> c.toEntry(configDocs.get(c.name()))).toList())))
+          .build();
+    }
+  }
+
+  record NodeSnapshot(int id, String host, int port, @Nullable String rack) {
+    static NodeSnapshot from(Node node) {
+      return new NodeSnapshot(node.id(), node.host(), node.port(), node.rack());
+    }
+
+    Node toNode() {
+      return new Node(id, host, port, rack);
+    }
+  }
+
+  record ClusterSnapshot(@Nullable NodeSnapshot controller,
+                         String clusterId,
+                         List<NodeSnapshot> nodes,
+                         @Nullable Set<AclOperation> authorizedOperations) {
+    static ClusterSnapshot from(ReactiveAdminClient.ClusterDescription description) {
+      return new ClusterSnapshot(
+          Optional.ofNullable(description.getController()).map(NodeSnapshot::from).orElse(null),
+          description.getClusterId(),
+          description.getNodes().stream().map(NodeSnapshot::from).toList(),
+          description.getAuthorizedOperations()
+      );
+    }
+
+    ReactiveAdminClient.ClusterDescription toDescription() {
+      return new ReactiveAdminClient.ClusterDescription(
+          Optional.ofNullable(controller).map(NodeSnapshot::toNode).orElse(null),
+          clusterId,
+          nodes.stream().map(NodeSnapshot::toNode).toList(),
+          authorizedOperations
+      );
+    }
+  }
+
+  record TopicSnapshot(String name,
+                       boolean internal,
+                       @Nullable String topicId,
+                       List<PartitionSnapshot> partitions,
+                       @Nullable Set<AclOperation> authorizedOperations) {
+    static TopicSnapshot from(TopicDescription description) {
+      return new TopicSnapshot(
+          description.name(),
+          description.isInternal(),
+          Optional.ofNullable(description.topicId()).map(Uuid::toString).orElse(null),
+          description.partitions().stream().map(PartitionSnapshot::from).toList(),
+          description.authorizedOperations()
+      );
+    }
+
+    TopicDescription toDescription(Map<Integer, Node> nodes) {
+      return new TopicDescription(
+          name,
+          internal,
+          partitions.stream().map(p -> p.toInfo(nodes)).toList(),
+          authorizedOperations,
+          Optional.ofNullable(topicId).map(Uuid::fromString).orElse(Uuid.ZERO_UUID)
+      );
+    }
+  }
+
+  record PartitionSnapshot(int partition, @Nullable Integer leader, List<Integer> replicas, List<Integer> isr) {
+    static PartitionSnapshot from(TopicPartitionInfo info) {
+      return new PartitionSnapshot(
+          info.partition(),
+          Optional.ofNullable(info.leader()).map(Node::id).orElse(null),
+          info.replicas().stream().map(Node::id).toList(),
+          info.isr().stream().map(Node::id).toList()
+      );
+    }
+
+    TopicPartitionInfo toInfo(Map<Integer, Node> nodes) {
+      // nodes of brokers that are not cluster members (offline) are kept with ids only, as admin client does
+      Function<Integer, Node> node = id -> nodes.getOrDefault(id, new Node(id, "", -1));
+      return new TopicPartitionInfo(
+          partition,
+          Optional.ofNullable(leader).map(node).orElse(null),
+          replicas.stream().map(node).toList(),
+          isr.stream().map(node).toList()
+      );
+    }
+  }
+
+  record ConfigSnapshot(String name,
+                        @Nullable String value,
+                        ConfigEntry.ConfigSource source,
+                        boolean sensitive,
+                        boolean readOnly,
+                        List<SynonymSnapshot> synonyms,
+                        ConfigEntry.ConfigType type) {
+    static ConfigSnapshot from(ConfigEntry entry) {
+      return new ConfigSnapshot(
+          entry.name(),
+          entry.value(),
+          entry.source(),
+          entry.isSensitive(),
+          entry.isReadOnly(),
+          entry.synonyms().stream().map(SynonymSnapshot::from).toList(),
+          entry.type()
+      );
+    }
+
+    ConfigEntry toEntry(@Nullable String documentation) {
+      return new ConfigEntry(
+          name, value, source, sensitive, readOnly,
+          synonyms.stream().map(SynonymSnapshot::toSynonym).toList(),
+          type, documentation
+      );
+    }
+  }
+
+  record SynonymSnapshot(String name, @Nullable String value, ConfigEntry.ConfigSource source) {
+    static SynonymSnapshot from(ConfigEntry.ConfigSynonym synonym) {
+      return new SynonymSnapshot(synonym.name(), synonym.value(), synonym.source());
+    }
+
+    ConfigEntry.ConfigSynonym toSynonym() {
+      return new ConfigEntry.ConfigSynonym(name, value, source);
+    }
+  }
+
+  record MetricSnapshot(String name, Map<String, String> labels, BigDecimal value) {
+  }
+
+  record MetricsSnapshot(Map<Integer, BigDecimal> brokerBytesInPerSec,
+                         Map<Integer, BigDecimal> brokerBytesOutPerSec,
+                         Map<String, BigDecimal> topicBytesInPerSec,
+                         Map<String, BigDecimal> topicBytesOutPerSec,
+                         @Nullable Map<String, BigDecimal> topicMessagesInPerSec, // absent in older snapshots
+                         Map<Integer, List<MetricSnapshot>> perBrokerMetrics) {
+    static MetricsSnapshot from(Metrics metrics) {
+      return new MetricsSnapshot(
+          metrics.getBrokerBytesInPerSec(),
+          metrics.getBrokerBytesOutPerSec(),
+          metrics.getTopicBytesInPerSec(),
+          metrics.getTopicBytesOutPerSec(),
+          metrics.getTopicMessagesInPerSec(),
+          metrics.getPerBrokerMetrics().brokerIds().stream()
+              .collect(Collectors.toMap(
+                  Function.identity(),
+                  id -> metrics.getPerBrokerMetrics().brokerMetrics(id).orElseThrow().stream()
+                      .map(m -> new MetricSnapshot(m.name(), m.labels(), m.value()))
+                      .toList()))
+      );
+    }
+
+    Metrics toMetrics() {
+      var perBroker = MetricsColumns.builder();
+      perBrokerMetrics.forEach((id, metrics) -> perBroker.addAll(id, metrics.stream()
+          .map(m -> RawMetric.create(m.name(), m.labels(), m.value()))
+          .toList()));
+      return Metrics.builder()
+          .brokerBytesInPerSec(brokerBytesInPerSec)
+          .brokerBytesOutPerSec(brokerBytesOutPerSec)
+          .topicBytesInPerSec(topicBytesInPerSec)
+          .topicBytesOutPerSec(topicBytesOutPerSec)
+          .topicMessagesInPerSec(topicMessagesInPerSec != null ? topicMessagesInPerSec : Map.of())
+          .perBrokerMetrics(perBroker.build())
+          .build();
+    }
+  }
+
+  record SegmentSnapshot(long size, int count) {
+    static SegmentSnapshot from(InternalLogDirStats.SegmentStats stats) {
+      return new SegmentSnapshot(stats.getSegmentSize(), stats.getSegmentsCount());
+    }
+
+    InternalLogDirStats.SegmentStats toStats() {
+      return new InternalLogDirStats.SegmentStats(size, count);
+    }
+  }
+
+  record LogDirsSnapshot(Map<String, Map<Integer, SegmentSnapshot>> partitionsStats,
+                         Map<String, SegmentSnapshot> topicStats,
+                         Map<Integer, SegmentSnapshot> brokerStats) {
+    static LogDirsSnapshot from(@Nullable InternalLogDirStats stats) {
+      if (stats == null) {
+        return new LogDirsSnapshot(Map.of(), Map.of(), Map.of());
+      }
+      Map<String, Map<Integer, SegmentSnapshot>> partitions = new HashMap<>();
+      stats.getPartitionsStats().forEach((tp, s) ->
+          partitions.computeIfAbsent(tp.topic(), t -> new HashMap<>()).put(tp.partition(), SegmentSnapshot.from(s)));
+      return new LogDirsSnapshot(
+          partitions,
+          mapValues(stats.getTopicStats(), SegmentSnapshot::from),
+          mapValues(stats.getBrokerStats(), SegmentSnapshot::from)
+      );
+    }
+
+    InternalLogDirStats toStats() {
+      Map<TopicPartition, InternalLogDirStats.SegmentStats> partitions = new HashMap<>();
+      partitionsStats.forEach((topic, perPartition) ->
+          perPartition.forEach((p, s) -> partitions.put(new TopicPartition(topic, p), s.toStats())));
+      return new InternalLogDirStats(
+          partitions,
+          mapValues(topicStats, SegmentSnapshot::toStats),
+          mapValues(brokerStats, SegmentSnapshot::toStats)
+      );
+    }
+  }
+
+  private static <K, V, R> Map<K, R> mapValues(Map<K, V> map, Function<V, R> mapper) {
+    return map.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> mapper.apply(e.getValue())));
+  }
+
+}
@@ -0,0 +1,218 @@
+package io.kafbat.ui.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Sets;
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.model.Statistics;
+import io.kafbat.ui.util.PersistentHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads topic descriptions and configs for statistics updates incrementally. Listed topics are diffed with previously
+ * loaded statistics: new and re-created (by topic id) topics are described and their configs are loaded, deleted
+ * topics are dropped. Other topics are refreshed in round-robin slices, sized so that each topic is re-described once
+ * per descriptions sweep period, and its configs are reloaded once per (longer) configs sweep period. To keep
+ * partitions' leaders and ISR fresh between sweeps, topics with replicas on brokers that joined or left the cluster
+ * are re-described, and topics with leaderless partitions or out-of-sync replicas are re-described on every update
+ * until they recover. Everything is reloaded once per full refresh period, or if previous statistics were not loaded
+ * successfully.
+ */
+@Slf4j
+class TopicsStatisticsRefresh {
+
+  private static final Duration DEFAULT_DESCRIPTIONS_SWEEP = Duration.ofMinutes(10);
+  private static final Duration DEFAULT_CONFIGS_SWEEP = Duration.ofMinutes(30);
+  private static final Duration DEFAULT_FULL_REFRESH = Duration.ofHours(1);
+
+  record Topics(Map<String, TopicDescription> descriptions, Map<String, List<ConfigEntry>> configs) {
+  }
+
+  private record Plan(Set<String> toDescribe, Set<String> toLoadConfigs) {
+  }
+
+  private final long descriptionsSweepNanos;
+  private final long configsSweepNanos;
+  private final long fullRefreshNanos;
+  private final Ticker ticker;
+
+  // cluster name -> refresh state
+  private final Map<String, ClusterState> states = new ConcurrentHashMap<>();
+
+  TopicsStatisticsRefresh(ClustersProperties.StatisticsProperties properties) {
+    this(
+        durationOrDefault(properties.getTopicDescriptionsSweepMs(), DEFAULT_DESCRIPTIONS_SWEEP),
+        durationOrDefault(properties.getTopicConfigsSweepMs(), DEFAULT_CONFIGS_SWEEP),
+        durationOrDefault(properties.getFullRefreshMs(), DEFAULT_FULL_REFRESH),
+        Ticker.systemTicker()
+    );
+  }
+
+  @VisibleForTesting
+  TopicsStatisticsRefresh(Duration descriptionsSweep, Duration configsSweep, Duration fullRefresh, Ticker ticker) {
+    this.descriptionsSweepNanos = Math.max(1, descriptionsSweep.toNanos());
+    this.configsSweepNanos = Math.max(1, configsSweep.toNanos());
+    this.fullRefreshNanos = fullRefresh.toNanos();
+    this.ticker = ticker;
+  }
+
+  private static Duration durationOrDefault(@Nullable Integer millis, Duration defaultDuration) {
+    return Optional.ofNullable(millis).map(Duration::ofMillis).orElse(defaultDuration);
+  }
+
+  Mono<Topics> refresh(String clusterName,
+                       ReactiveAdminClient ac,
+                       Statistics previous,
+                       Set<Integer> brokerIds) {
+    return ac.listTopicIds(true).flatMap(listed -> {
+      var plan = plan(clusterName, listed, previous, brokerIds);
+      log.debug("Refreshing {} descriptions and {} configs of {} topics for cluster {}",
+          plan.toDescribe().size(), plan.toLoadConfigs().size(), listed.size(), clusterName);
+      return Mono.zip(
+          plan.toDescribe().isEmpty() ? Mono.just(Map.<String, TopicDescription>of())
+              : ac.describeTopics(plan.toDescribe()),
+          plan.toLoadConfigs().isEmpty() ? Mono.just(Map.<String, List<ConfigEntry>>of())
+              : ac.getTopicsConfig(plan.toLoadConfigs(), false),
+          (described, loadedConfigs) -> new Topics(
+              merge(listed.keySet(), plan.toDescribe(), described, previous.getTopicDescriptions()),
+              merge(listed.keySet(), plan.toLoadConfigs(), loadedConfigs, previous.getTopicConfigs())
+          )
+      );
+    });
+  }
+
+  private Plan plan(String clusterName, Map<String, Uuid> listed, Statistics previous, Set<Integer> brokerIds) {
+    var state = states.computeIfAbsent(clusterName, c -> new ClusterState());
+    synchronized (state) {
+      long now = ticker.read();
+      long elapsed = now - state.lastRefreshNanos;
+      state.lastRefreshNanos = now;
+      var topics = new TreeSet<>(listed.keySet());
+
+      if (!state.initialized
+          || previous.getStatus() != ServerStatusDTO.ONLINE
+          || now - state.lastFullRefreshNanos >= fullRefreshNanos) {
+        state.initialized = true;
+        state.lastFullRefreshNanos = now;
+        state.brokerIds = brokerIds;
+        return new Plan(topics, topics);
+      }
+
+      Set<Integer> changedBrokers = Sets.symmetricDifference(brokerIds, state.brokerIds).immutableCopy();
+      state.brokerIds = brokerIds;
+
+      Set<String> toDescribe = new HashSet<>();
+      Set<String> toLoadConfigs = new HashSet<>();
+      listed.forEach((topic, topicId) -> {
+        var description = previous.getTopicDescriptions().get(topic);
+        if (description == null || !Objects.equals(description.topicId(), topicId)) {
+          toDescribe.add(topic);
+          toLoadConfigs.add(topic);
+        } else if (leadershipMayChange(description, changedBrokers)) {
+          toDescribe.add(topic);
+        }
+      });
+      toDescribe.addAll(state.descriptionsRotation.next(topics, elapsed, descriptionsSweepNanos));
+      toLoadConfigs.addAll(state.configsRotation.next(topics, elapsed, configsSweepNanos));
+      return new Plan(toDescribe, toLoadConfigs);
+    }
+  }
+
+  // partitions' leaders and ISR can change if topic has replicas on changed brokers, or is not fully in sync
+  private static boolean leadershipMayChange(TopicDescription description, Set<Integer> changedBrokers) {
+    for (TopicPartitionInfo partition : description.partitions()) {
+      if (partition.leader() == null || partition.leader().isEmpty()
+          || partition.isr().size() < partition.replicas().size()) {
+        return true;
+      }
+      if (!changedBrokers.isEmpty()) {
+        for (Node replica : partition.replicas()) {
+          if (changedBrokers.contains(replica.id())) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  // listed topics' values: reloaded if topic was refreshed (skipped if not returned), previous otherwise.
+  // Built on top of previous map, so unchanged entries are shared with previous statistics.
+  private static <V> Map<String, V> merge(Set<String> listed,
+                                          Set<String> refreshed,
+                                          Map<String, V> reloaded,
+                                          Map<String, V> previous) {
+    var result = PersistentHashMap.copyOf(previous);
+    for (String topic : previous.keySet()) {
+      if (!listed.contains(topic)) {
+        result = result.minus(topic);
+      }
+    }
+    for (String topic : refreshed) {
+      V value = reloaded.get(topic);
+      result = value != null ? result.plus(topic, value) : result.minus(topic);
+    }
+    return result;
+  }
+
+  // state is guarded by itself
+  private static final class ClusterState {
+    private boolean initialized = false;
+    private long lastRefreshNanos;
+    private long lastFullRefreshNanos;
+    private Set<Integer> brokerIds = Set.of();
+    private final Rotation descriptionsRotation = new Rotation();
+    private final Rotation configsRotation = new Rotation();
+  }
+
+  // round-robin over sorted topic names
+  private static final class Rotation {
+    @Nullable
+    private String lastRefreshed;
+    // fractional part of topics count to refresh, carried to next refresh
+    private double owed = 0;
+
+    // returns topics that should be refreshed to refresh all of them once per sweep period
+    Collection<String> next(NavigableSet<String> topics, long elapsedNanos, long sweepNanos) {
+      owed += (double) topics.size() * elapsedNanos / sweepNanos;
+      int count = (int) Math.min(topics.size(), Math.floor(owed));
+      owed = count == topics.size() ? 0 : owed - count;
+      List<String> result = new ArrayList<>(count);
+      Iterator<String> iterator = lastRefreshed == null
+          ? topics.iterator()
+          : topics.tailSet(lastRefreshed, false).iterator();
+      while (result.size() < count) {
+        if (!iterator.hasNext()) {
+          iterator = topics.iterator();
+        }
+        result.add(iterator.next());
+      }
+      if (!result.isEmpty()) {
+        lastRefreshed = result.get(result.size() - 1);
+      }
+      return result;
+    }
+  }
+
+}
@@ -3,7 +3,9 @@ package io.kafbat.ui.service.analyze;
 import static io.kafbat.ui.model.PollingModeDTO.EARLIEST;
 
 import io.kafbat.ui.emitter.EnhancedConsumer;
+import io.kafbat.ui.emitter.PollingAdmission;
 import io.kafbat.ui.emitter.SeekOperations;
+import io.kafbat.ui.exception.PollingRejectedException;
 import io.kafbat.ui.exception.TopicAnalysisException;
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.KafkaCluster;
@@ -79,28 +81,31 @@ public class TopicAnalysisService {
     private final TopicAnalysisStats totalStats = new TopicAnalysisStats();
     private final Map<Integer, TopicAnalysisStats> partitionStats = new HashMap<>();
 
-    private final EnhancedConsumer consumer;
+    private final KafkaCluster cluster;
+    private final PollingAdmission admission;
+    // created only after polling slot is acquired, so waiting tasks don't hold consumers
+    private volatile EnhancedConsumer consumer;
+    private volatile boolean cancelled = false;
 
     AnalysisTask(KafkaCluster cluster, TopicIdentity topicId) {
       this.topicId = topicId;
-      this.consumer = consumerGroupService.createConsumer(
-          cluster,
-          // to improve polling throughput
-          Map.of(
-              ConsumerConfig.RECEIVE_BUFFER_CONFIG, "-1", //let OS tune buffer size
-              ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "100000"
-          )
-      );
+      this.cluster = cluster;
+      this.admission = cluster.getPollingSettings().getAdmission();
     }
 
     @Override
     public void close() {
-      consumer.wakeup();
+      cancelled = true;
+      var c = consumer;
+      if (c != null) {
+        c.wakeup();
+      }
     }
 
     @Override
     public void run() {
-      try {
+      try (var permit = admit();
+           var consumer = createConsumer()) {
         log.info("Starting {} topic analysis", topicId);
         consumer.partitionsFor(topicId.topicName)
             .forEach(tp -> partitionStats.put(tp.partition(), new TopicAnalysisStats()));
@@ -124,14 +129,45 @@ public class TopicAnalysisService {
         log.info("{} topic analysis stopped", topicId);
         // calling cancel for cases when our thread was interrupted by some non-user cancellation reason
         analysisTasksStore.cancelAnalysis(topicId);
+      } catch (PollingRejectedException rejected) {
+        log.info("{} topic analysis rejected: {}", topicId, rejected.getMessage());
+        analysisTasksStore.setAnalysisError(topicId, startedAt, rejected);
       } catch (Throwable th) {
         log.error("Error analyzing topic {}", topicId, th);
         analysisTasksStore.setAnalysisError(topicId, startedAt, th);
-      } finally {
-        consumer.close();
       }
     }
 
+    private EnhancedConsumer createConsumer() {
+      consumer = consumerGroupService.createConsumer(
+          cluster,
+          // to improve polling throughput
+          Map.of(
+              ConsumerConfig.RECEIVE_BUFFER_CONFIG, "-1", //let OS tune buffer size
+              ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "100000"
+          )
+      );
+      if (cancelled) {
+        // cancelled before consumer was published to close()
+        consumer.wakeup();
+      }
+      return consumer;
+    }
+
+    // analysis waits for cluster's polling slot after page loads and scans
+    private PollingAdmission.Permit admit() {
+      var permit = admission.acquire(
+          PollingAdmission.Priority.ANALYSIS,
+          position -> log.debug("{} topic analysis is waiting, position in queue: {}", topicId, position),
+          () -> cancelled
+      );
+      if (permit == null) {
+        // cancelled while waiting
+        throw new WakeupException();
+      }
+      return permit;
+    }
+
     private void updateProgress(long processedOffsets, long summaryOffsetsRange) {
       if (processedOffsets > 0 && summaryOffsetsRange != 0) {
         analysisTasksStore.updateProgress(
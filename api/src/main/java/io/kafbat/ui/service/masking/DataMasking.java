@@ -1,17 +1,17 @@
 package io.kafbat.ui.service.masking;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.service.masking.policies.MaskingPolicy;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
@@ -20,7 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 
 public class DataMasking {
 
-  private static final JsonMapper JSON_MAPPER = new JsonMapper();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
   @Value
   static class Mask {
@@ -40,6 +40,9 @@ public class DataMasking {
 
   private final List<Mask> masks;
 
+  // topic -> masker, maskers are created once, since masks are not changed during cluster lifetime
+  private final Map<String, UnaryOperator<TopicMessageDTO>> topicMaskers = new ConcurrentHashMap<>();
+
   public static DataMasking create(@Nullable List<ClustersProperties.Masking> config) {
     return new DataMasking(
         Optional.ofNullable(config).orElse(List.of()).stream().map(property -> {
@@ -63,6 +66,10 @@ public class DataMasking {
   }
 
   public UnaryOperator<TopicMessageDTO> getMaskerForTopic(String topic) {
+    return topicMaskers.computeIfAbsent(topic, this::createMaskerForTopic);
+  }
+
+  private UnaryOperator<TopicMessageDTO> createMaskerForTopic(String topic) {
     var keyMasker = getMaskingFunction(topic, Serde.Target.KEY);
     var valMasker = getMaskingFunction(topic, Serde.Target.VALUE);
     return msg -> msg
@@ -70,25 +77,28 @@ public class DataMasking {
         .value(valMasker.apply(msg.getValue()));
   }
 
+  public boolean hasMasksFor(String topic, Serde.Target target) {
+    return masks.stream().anyMatch(m -> m.shouldBeApplied(topic, target));
+  }
+
   @VisibleForTesting
   UnaryOperator<String> getMaskingFunction(String topic, Serde.Target target) {
     var targetMasks = masks.stream().filter(m -> m.shouldBeApplied(topic, target)).toList();
     if (targetMasks.isEmpty()) {
       return UnaryOperator.identity();
     }
+    var jsonMasker = new StreamingJsonMasker(JSON_FACTORY, targetMasks.stream().map(Mask::getPolicy).toList());
     return inputStr -> {
       if (inputStr == null) {
         return null;
       }
       try {
-        JsonNode json = JSON_MAPPER.readTree(inputStr);
-        if (json.isContainerNode()) {
-          for (Mask targetMask : targetMasks) {
-            json = targetMask.policy.applyToJsonContainer((ContainerNode<?>) json);
-          }
-          return json.toString();
+        // all policies are applied in one pass over json tokens
+        String masked = jsonMasker.mask(inputStr);
+        if (masked != null) {
+          return masked;
         }
-      } catch (JsonProcessingException jsonException) {
+      } catch (IOException jsonException) {
         //just ignore
       }
       // if we can't parse input as json or parsed json is not object/array
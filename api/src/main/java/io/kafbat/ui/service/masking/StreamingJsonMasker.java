@@ -0,0 +1,124 @@
+package io.kafbat.ui.service.masking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberOutput;
+import io.kafbat.ui.service.masking.policies.MaskingPolicy;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Applies several masking policies to json object/array in a single pass over parser tokens, without building
+ * json tree. Result is the same as sequential {@link MaskingPolicy#applyToJsonContainer} calls: fields selected
+ * by any removing policy are skipped, scalar values nested into fields selected by other policies are replaced
+ * with policies' {@link MaskingPolicy#applyToString} results, applied in policies order.
+ */
+final class StreamingJsonMasker {
+
+  private final JsonFactory jsonFactory;
+  private final List<MaskingPolicy> replacingPolicies;
+  private final List<MaskingPolicy> removingPolicies;
+
+  StreamingJsonMasker(JsonFactory jsonFactory, List<MaskingPolicy> policies) {
+    this.jsonFactory = jsonFactory;
+    this.replacingPolicies = policies.stream().filter(p -> !p.removesFields()).toList();
+    this.removingPolicies = policies.stream().filter(MaskingPolicy::removesFields).toList();
+  }
+
+  /**
+   * Returns masked json, or null if input is not a json object or array.
+   */
+  @Nullable
+  String mask(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      JsonToken first = parser.nextToken();
+      if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) {
+        return null;
+      }
+      var writer = new StringWriter(json.length());
+      try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+        writeValue(parser, generator, List.of());
+      }
+      return writer.toString();
+    }
+  }
+
+  // appliedPolicies - policies that selected one of current value's parent fields
+  private void writeValue(JsonParser parser,
+                          JsonGenerator generator,
+                          List<MaskingPolicy> appliedPolicies) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      generator.writeStartObject();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.currentName();
+        parser.nextToken();
+        if (shouldBeRemoved(fieldName)) {
+          parser.skipChildren();
+        } else {
+          generator.writeFieldName(fieldName);
+          writeValue(parser, generator, policiesForField(fieldName, appliedPolicies));
+        }
+      }
+      generator.writeEndObject();
+    } else if (token == JsonToken.START_ARRAY) {
+      generator.writeStartArray();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        writeValue(parser, generator, appliedPolicies);
+      }
+      generator.writeEndArray();
+    } else if (token == null || !token.isScalarValue()) {
+      throw new JsonParseException(parser, "Unexpected token: " + token);
+    } else if (appliedPolicies.isEmpty()) {
+      generator.copyCurrentEvent(parser);
+    } else {
+      String masked = scalarAsText(parser, token);
+      for (MaskingPolicy policy : appliedPolicies) {
+        masked = policy.applyToString(masked);
+      }
+      generator.writeString(masked);
+    }
+  }
+
+  private boolean shouldBeRemoved(String fieldName) {
+    for (MaskingPolicy policy : removingPolicies) {
+      if (policy.fieldShouldBeMasked(fieldName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // returns parent's list (without copying) if field is not selected by any other policy
+  private List<MaskingPolicy> policiesForField(String fieldName, List<MaskingPolicy> appliedPolicies) {
+    boolean newPolicySelected = false;
+    for (MaskingPolicy policy : replacingPolicies) {
+      if (!appliedPolicies.contains(policy) && policy.fieldShouldBeMasked(fieldName)) {
+        newPolicySelected = true;
+        break;
+      }
+    }
+    if (!newPolicySelected) {
+      return appliedPolicies;
+    }
+    // keeping policies order, so they are applied the same way as in sequential tree processing
+    return replacingPolicies.stream()
+        .filter(p -> appliedPolicies.contains(p) || p.fieldShouldBeMasked(fieldName))
+        .toList();
+  }
+
+  // same text as JsonNode.asText() returns for node, that would be created by tree parsing
+  private static String scalarAsText(JsonParser parser, JsonToken token) throws IOException {
+    return switch (token) {
+      case VALUE_NUMBER_INT -> parser.getNumberValue().toString();
+      case VALUE_NUMBER_FLOAT -> NumberOutput.toString(parser.getDoubleValue());
+      default -> parser.getText();
+    };
+  }
+
+}
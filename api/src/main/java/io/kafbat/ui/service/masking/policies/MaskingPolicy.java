@@ -30,10 +30,15 @@ public abstract class MaskingPolicy {
 
   private final FieldsSelector fieldsSelector;
 
-  protected boolean fieldShouldBeMasked(String fieldName) {
+  public boolean fieldShouldBeMasked(String fieldName) {
     return fieldsSelector.shouldBeMasked(fieldName);
   }
 
+  // true if policy drops selected fields, false if it replaces their (nested) scalar values with applyToString()
+  public boolean removesFields() {
+    return false;
+  }
+
   public abstract ContainerNode<?> applyToJsonContainer(ContainerNode<?> node);
 
   public abstract String applyToString(String str);
@@ -12,6 +12,11 @@ class Remove extends MaskingPolicy {
     super(fieldsSelector);
   }
 
+  @Override
+  public boolean removesFields() {
+    return true;
+  }
+
   @Override
   public String applyToString(String str) {
     return "null";
@@ -0,0 +1,186 @@
+package io.kafbat.ui.service.metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import io.kafbat.ui.model.MetricsConfig;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.InstanceNotFoundException;
+import javax.management.IntrospectionException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps JMX connections to brokers open between metrics scrapes, since connection setup (RMI lookup, optional
+ * SSL handshake) takes most of the scrape time. Connection is re-established once if operation on it fails with
+ * IOException (broker restart, network issues). Connections that were not used for idle timeout are closed.
+ */
+@Slf4j
+class JmxConnectionsPool implements Closeable {
+
+  private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+  // metrics config is a part of the key, so that connections are re-created when config changes
+  record Key(String clusterName, int brokerId, String url, MetricsConfig config) {
+  }
+
+  interface Connector {
+    JMXConnector connect(String url, Map<String, Object> env) throws IOException;
+  }
+
+  interface JmxOperation<T> {
+    T apply(Connection connection) throws IOException;
+  }
+
+  static final class Connection implements Closeable {
+    private final JMXConnector connector;
+    private final MBeanServerConnection server;
+    // MBeans' attributes do not change, so they are requested only once per MBean
+    private final Map<ObjectName, MBeanAttributeInfo[]> attributes = new ConcurrentHashMap<>();
+    private volatile long lastUsedNanos;
+
+    Connection(JMXConnector connector, long createdNanos) throws IOException {
+      this.connector = connector;
+      this.server = connector.getMBeanServerConnection();
+      // new connection is not idle, even if it wasn't used yet
+      this.lastUsedNanos = createdNanos;
+    }
+
+    MBeanServerConnection server() {
+      return server;
+    }
+
+    MBeanAttributeInfo[] attributes(ObjectName name)
+        throws IOException, InstanceNotFoundException, IntrospectionException, ReflectionException {
+      var cached = attributes.get(name);
+      if (cached == null) {
+        cached = server.getMBeanInfo(name).getAttributes();
+        attributes.put(name, cached);
+      }
+      return cached;
+    }
+
+    // forgetting attributes of MBeans that are not registered anymore (ex. of deleted topics)
+    void retainAttributes(Collection<ObjectName> names) {
+      attributes.keySet().retainAll(names);
+    }
+
+    @Override
+    public void close() {
+      try {
+        connector.close();
+      } catch (IOException e) {
+        log.trace("Error closing jmx connector", e);
+      }
+    }
+  }
+
+  private final Connector connector;
+  private final long idleTimeoutNanos;
+  private final Ticker ticker;
+  private final Map<Key, Connection> connections = new ConcurrentHashMap<>();
+
+  JmxConnectionsPool() {
+    this(JmxConnectionsPool::connect, DEFAULT_IDLE_TIMEOUT, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  JmxConnectionsPool(Connector connector, Duration idleTimeout, Ticker ticker) {
+    this.connector = connector;
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.ticker = ticker;
+  }
+
+  private static JMXConnector connect(String url, Map<String, Object> env) throws IOException {
+    JMXConnector jmxConnector = JMXConnectorFactory.newJMXConnector(new JMXServiceURL(url), env);
+    try {
+      jmxConnector.connect(env);
+      return jmxConnector;
+    } catch (IOException | RuntimeException e) {
+      jmxConnector.close();
+      throw e;
+    }
+  }
+
+  <T> T execute(Key key, Map<String, Object> env, JmxOperation<T> operation) throws IOException {
+    closeIdle();
+    Connection connection = connection(key, env);
+    try {
+      return use(connection, operation);
+    } catch (IOException e) {
+      log.debug("Jmx connection to {} failed, reconnecting", key.url(), e);
+      invalidate(key, connection);
+      return use(connection(key, env), operation);
+    }
+  }
+
+  private <T> T use(Connection connection, JmxOperation<T> operation) throws IOException {
+    connection.lastUsedNanos = ticker.read();
+    return operation.apply(connection);
+  }
+
+  private Connection connection(Key key, Map<String, Object> env) throws IOException {
+    var existing = connections.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    // connecting outside of map's lock, so slow broker doesn't block other keys' computations;
+    // connection that lost the race to concurrent one is closed
+    var created = newConnection(key, env);
+    var concurrent = connections.putIfAbsent(key, created);
+    if (concurrent != null) {
+      created.close();
+      return concurrent;
+    }
+    return created;
+  }
+
+  private Connection newConnection(Key key, Map<String, Object> env) throws IOException {
+    log.debug("Connecting to {}", key.url());
+    ApplicationMetrics.forCluster(key.clusterName()).meterJmxConnect(key.brokerId());
+    JMXConnector jmxConnector = connector.connect(key.url(), env);
+    try {
+      return new Connection(jmxConnector, ticker.read());
+    } catch (IOException | RuntimeException e) {
+      jmxConnector.close();
+      throw e;
+    }
+  }
+
+  private void invalidate(Key key, Connection connection) {
+    if (connections.remove(key, connection)) {
+      connection.close();
+    }
+  }
+
+  private void closeIdle() {
+    long now = ticker.read();
+    connections.forEach((key, connection) -> {
+      if (now - connection.lastUsedNanos > idleTimeoutNanos) {
+        invalidate(key, connection);
+      }
+    });
+  }
+
+  @VisibleForTesting
+  int size() {
+    return connections.size();
+  }
+
+  @Override
+  public void close() {
+    connections.forEach(this::invalidate);
+  }
+
+}
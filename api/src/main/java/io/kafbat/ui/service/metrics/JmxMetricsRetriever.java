@@ -2,23 +2,23 @@ package io.kafbat.ui.service.metrics;
 
 import io.kafbat.ui.model.KafkaCluster;
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.Set;
+import javax.management.Attribute;
+import javax.management.JMException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
 import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
-import javax.management.remote.JMXServiceURL;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.common.Node;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -36,52 +36,49 @@ class JmxMetricsRetriever implements MetricsRetriever, Closeable {
 
   private static final String JMX_URL = "service:jmx:rmi:///jndi/rmi://";
   private static final String JMX_SERVICE_TYPE = "jmxrmi";
-  private static final String CANONICAL_NAME_PATTERN = "kafka.server*:*";
+  private static final ObjectName KAFKA_SERVER_MBEANS = objectName("kafka.server*:*");
+
+  private final JmxConnectionsPool connectionsPool = new JmxConnectionsPool();
 
   @Override
   public void close() {
+    connectionsPool.close();
     JmxSslSocketFactory.clearFactoriesCache();
   }
 
   @Override
-  public Flux<RawMetric> retrieve(KafkaCluster c, Node node) {
+  public Mono<Void> retrieve(KafkaCluster c, Node node, MetricsSink sink) {
     if (isSslJmxEndpoint(c) && !SSL_JMX_SUPPORTED) {
       log.warn("Cluster {} has jmx ssl configured, but it is not supported", c.getName());
-      return Flux.empty();
+      return Mono.empty();
     }
-    return Mono.fromSupplier(() -> retrieveSync(c, node))
+    return Mono.fromRunnable(() -> retrieveSync(c, node).forEach(sink::accept))
         .subscribeOn(Schedulers.boundedElastic())
-        .flatMapMany(Flux::fromIterable);
+        .then();
+  }
+
+  @SneakyThrows
+  private static ObjectName objectName(String name) {
+    return new ObjectName(name);
   }
 
   private boolean isSslJmxEndpoint(KafkaCluster cluster) {
     return cluster.getMetricsConfig().getKeystoreLocation() != null;
   }
 
-  @SneakyThrows
   private List<RawMetric> retrieveSync(KafkaCluster c, Node node) {
     String jmxUrl = JMX_URL + node.host() + ":" + c.getMetricsConfig().getPort() + "/" + JMX_SERVICE_TYPE;
     log.debug("Collection JMX metrics for {}", jmxUrl);
-    List<RawMetric> result = new ArrayList<>();
-    withJmxConnector(jmxUrl, c, jmxConnector -> getMetricsFromJmx(jmxConnector, result));
-    log.debug("{} metrics collected for {}", result.size(), jmxUrl);
-    return result;
-  }
-
-  private void withJmxConnector(String jmxUrl,
-                                KafkaCluster c,
-                                Consumer<JMXConnector> consumer) {
+    // ssl context is kept in thread local during whole scrape, since rmi can open new sockets for pooled connection
     var env = prepareJmxEnvAndSetThreadLocal(c);
-    try (JMXConnector connector = JMXConnectorFactory.newJMXConnector(new JMXServiceURL(jmxUrl), env)) {
-      try {
-        connector.connect(env);
-      } catch (Exception exception) {
-        log.error("Error connecting to {}", jmxUrl, exception);
-        return;
-      }
-      consumer.accept(connector);
+    try {
+      var key = new JmxConnectionsPool.Key(c.getName(), node.id(), jmxUrl, c.getMetricsConfig());
+      List<RawMetric> result = connectionsPool.execute(key, env, this::getMetricsFromJmx);
+      log.debug("{} metrics collected for {}", result.size(), jmxUrl);
+      return result;
     } catch (Exception e) {
       log.error("Error getting jmx metrics from {}", jmxUrl, e);
+      return List.of();
     } finally {
       JmxSslSocketFactory.clearThreadLocalContext();
     }
@@ -111,23 +108,40 @@ class JmxMetricsRetriever implements MetricsRetriever, Closeable {
     return env;
   }
 
-  @SneakyThrows
-  private void getMetricsFromJmx(JMXConnector jmxConnector, List<RawMetric> sink) {
-    MBeanServerConnection msc = jmxConnector.getMBeanServerConnection();
-    var jmxMetrics = msc.queryNames(new ObjectName(CANONICAL_NAME_PATTERN), null);
-    for (ObjectName jmxMetric : jmxMetrics) {
-      sink.addAll(extractObjectMetrics(jmxMetric, msc));
+  private List<RawMetric> getMetricsFromJmx(JmxConnectionsPool.Connection connection) throws IOException {
+    MBeanServerConnection msc = connection.server();
+    Set<ObjectName> names = msc.queryNames(KAFKA_SERVER_MBEANS, null);
+    List<RawMetric> result = new ArrayList<>();
+    for (ObjectName name : names) {
+      try {
+        result.addAll(extractObjectMetrics(name, connection));
+      } catch (JMException e) {
+        // mbean can be unregistered after it was queried (ex. topic deleted)
+        log.trace("Error reading attributes of {}", name, e);
+      }
     }
+    connection.retainAttributes(names);
+    return result;
   }
 
-  @SneakyThrows
-  private List<RawMetric> extractObjectMetrics(ObjectName objectName, MBeanServerConnection msc) {
-    MBeanAttributeInfo[] attrNames = msc.getMBeanInfo(objectName).getAttributes();
-    Object[] attrValues = new Object[attrNames.length];
-    for (int i = 0; i < attrNames.length; i++) {
-      attrValues[i] = msc.getAttribute(objectName, attrNames[i].getName());
+  private List<RawMetric> extractObjectMetrics(ObjectName objectName, JmxConnectionsPool.Connection connection)
+      throws IOException, JMException {
+    MBeanAttributeInfo[] attrInfos = connection.attributes(objectName);
+    String[] attrNames = new String[attrInfos.length];
+    for (int i = 0; i < attrInfos.length; i++) {
+      attrNames[i] = attrInfos[i].getName();
+    }
+    // all attributes are read in single request, values are aligned with infos by name, since
+    // unreadable attributes are omitted from result
+    Map<String, Object> values = new HashMap<>(attrNames.length);
+    for (Attribute attribute : connection.server().getAttributes(objectName, attrNames).asList()) {
+      values.put(attribute.getName(), attribute.getValue());
+    }
+    Object[] attrValues = new Object[attrInfos.length];
+    for (int i = 0; i < attrInfos.length; i++) {
+      attrValues[i] = values.get(attrNames[i]);
     }
-    return JmxMetricsFormatter.constructMetricsList(objectName, attrNames, attrValues);
+    return JmxMetricsFormatter.constructMetricsList(objectName, attrInfos, attrValues);
   }
 
 }
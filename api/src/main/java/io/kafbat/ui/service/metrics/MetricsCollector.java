@@ -3,18 +3,15 @@ package io.kafbat.ui.service.metrics;
 import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.Metrics;
 import io.kafbat.ui.model.MetricsConfig;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.Node;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
-import reactor.util.function.Tuples;
 
 @Component
 @Slf4j
@@ -23,45 +20,55 @@ public class MetricsCollector {
 
   private final JmxMetricsRetriever jmxMetricsRetriever;
   private final PrometheusMetricsRetriever prometheusMetricsRetriever;
+  private final MetricsHistory metricsHistory;
 
   public Mono<Metrics> getBrokerMetrics(KafkaCluster cluster, Collection<Node> nodes) {
-    return Flux.fromIterable(nodes)
-        .flatMap(n -> getMetrics(cluster, n).map(lst -> Tuples.of(n, lst)))
-        .collectMap(Tuple2::getT1, Tuple2::getT2)
-        .map(this::collectMetrics)
+    return Mono.defer(() -> {
+          // samples are put into broker's column while they are scraped
+          var columns = MetricsColumns.builder();
+          return Flux.fromIterable(nodes)
+              .flatMap(n -> getMetrics(cluster, n, columns.column(n.id())))
+              .then(Mono.fromSupplier(() -> collectMetrics(columns.build())));
+        })
+        .doOnNext(metrics -> metricsHistory.record(cluster.getName(), metrics))
         .defaultIfEmpty(Metrics.empty());
   }
 
-  private Mono<List<RawMetric>> getMetrics(KafkaCluster kafkaCluster, Node node) {
-    Flux<RawMetric> metricFlux = Flux.empty();
+  private Mono<Void> getMetrics(KafkaCluster kafkaCluster, Node node, MetricsColumns.ColumnBuilder column) {
+    MetricsRetriever retriever = null;
     if (kafkaCluster.getMetricsConfig() != null) {
       String type = kafkaCluster.getMetricsConfig().getType();
       if (type == null || type.equalsIgnoreCase(MetricsConfig.JMX_METRICS_TYPE)) {
-        metricFlux = jmxMetricsRetriever.retrieve(kafkaCluster, node);
+        retriever = jmxMetricsRetriever;
       } else if (type.equalsIgnoreCase(MetricsConfig.PROMETHEUS_METRICS_TYPE)) {
-        metricFlux = prometheusMetricsRetriever.retrieve(kafkaCluster, node);
+        retriever = prometheusMetricsRetriever;
       }
     }
-    return metricFlux.collectList();
+    if (retriever == null) {
+      return Mono.empty();
+    }
+    return retriever.retrieve(kafkaCluster, node, column)
+        .then(Mono.just(true))
+        .elapsed()
+        .doOnNext(t -> ApplicationMetrics.forCluster(kafkaCluster)
+            .meterBrokerMetricsScrape(node.id(), Duration.ofMillis(t.getT1()), column.size()))
+        .then();
   }
 
-  public Metrics collectMetrics(Map<Node, List<RawMetric>> perBrokerMetrics) {
+  public Metrics collectMetrics(MetricsColumns columns) {
     Metrics.MetricsBuilder builder = Metrics.builder()
-        .perBrokerMetrics(
-            perBrokerMetrics.entrySet()
-                .stream()
-                .collect(Collectors.toMap(e -> e.getKey().id(), Map.Entry::getValue)));
+        .perBrokerMetrics(columns);
 
-    populateWellknowMetrics(perBrokerMetrics).apply(builder);
+    populateWellknowMetrics(columns).apply(builder);
 
     return builder.build();
   }
 
-  private WellKnownMetrics populateWellknowMetrics(Map<Node, List<RawMetric>> perBrokerMetrics) {
+  private WellKnownMetrics populateWellknowMetrics(MetricsColumns columns) {
     WellKnownMetrics wellKnownMetrics = new WellKnownMetrics();
-    perBrokerMetrics.forEach((node, metrics) ->
-        metrics.forEach(metric ->
-            wellKnownMetrics.populate(node, metric)));
+    columns.brokerIds().forEach(id ->
+        columns.forEach(id, (name, labels, value) ->
+            wellKnownMetrics.populate(id, name, labels, value)));
     return wellKnownMetrics;
   }
 
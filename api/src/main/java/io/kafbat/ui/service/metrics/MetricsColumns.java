@@ -0,0 +1,298 @@
+package io.kafbat.ui.service.metrics;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compact storage of metrics scraped from cluster's brokers. Series (metric name + labels) are interned into
+ * a dictionary shared by all brokers of the scrape, so names, label sets and label values are stored once
+ * regardless of how many brokers expose them. Each broker's samples are stored as primitive columns: series
+ * indexes and values, in scrape order. Summing across brokers is done over arrays indexed by series.
+ * RawMetric instances are only created when metrics are requested.
+ * Integral samples (counters) are kept as long and summed exactly as long as all samples of a series are integral
+ * and the sum fits into long. Other samples are kept as double, their sums are lossy and are rounded to
+ * 15 significant digits (precision guaranteed by double), so 0.1 + 0.2 is reported as 0.3.
+ */
+public final class MetricsColumns {
+
+  private static final MetricsColumns EMPTY = new MetricsColumns(new String[0], List.of(), Map.of());
+  private static final MathContext SUM_PRECISION = new MathContext(15);
+
+  private final String[] names;
+  private final List<Map<String, String>> labels;
+  private final Map<Integer, Column> brokers;
+
+  // values of integral samples are stored as is, other values as double bits
+  private record Column(int[] series, long[] values, BitSet integral) {
+
+    double doubleValue(int i) {
+      return integral.get(i) ? values[i] : Double.longBitsToDouble(values[i]);
+    }
+
+    BigDecimal value(int i) {
+      return integral.get(i) ? BigDecimal.valueOf(values[i]) : BigDecimal.valueOf(Double.longBitsToDouble(values[i]));
+    }
+  }
+
+  private MetricsColumns(String[] names, List<Map<String, String>> labels, Map<Integer, Column> brokers) {
+    this.names = names;
+    this.labels = labels;
+    this.brokers = brokers;
+  }
+
+  public static MetricsColumns empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Set<Integer> brokerIds() {
+    return brokers.keySet();
+  }
+
+  public int seriesCount() {
+    return names.length;
+  }
+
+  public Optional<List<RawMetric>> brokerMetrics(int brokerId) {
+    return Optional.ofNullable(brokers.get(brokerId))
+        .map(c -> IntStream.range(0, c.series().length)
+            .mapToObj(i -> metric(c.series()[i], c.value(i)))
+            .toList());
+  }
+
+  // metrics with equal name and labels are summed across brokers
+  public Stream<RawMetric> summarized() {
+    long[] longSums = new long[names.length];
+    double[] doubleSums = new double[names.length];
+    int[] counts = new int[names.length];
+    // series with non-integral samples or with long sum overflow
+    boolean[] inexact = new boolean[names.length];
+    for (Column column : brokers.values()) {
+      int[] series = column.series();
+      for (int i = 0; i < series.length; i++) {
+        int s = series[i];
+        counts[s]++;
+        doubleSums[s] += column.doubleValue(i);
+        if (column.integral().get(i)) {
+          long value = column.values()[i];
+          long sum = longSums[s] + value;
+          // overflow if both operands have sign different from result's
+          inexact[s] |= ((longSums[s] ^ sum) & (value ^ sum)) < 0;
+          longSums[s] = sum;
+        } else {
+          inexact[s] = true;
+        }
+      }
+    }
+    return IntStream.range(0, names.length)
+        .filter(s -> counts[s] > 0)
+        .mapToObj(s -> metric(s, inexact[s] ? doubleSum(doubleSums[s], counts[s]) : BigDecimal.valueOf(longSums[s])));
+  }
+
+  private static BigDecimal doubleSum(double sum, int count) {
+    if (count == 1) {
+      return BigDecimal.valueOf(sum);
+    }
+    // dropping rounding noise of additions, like 0.30000000000000004
+    BigDecimal rounded = BigDecimal.valueOf(sum).round(SUM_PRECISION).stripTrailingZeros();
+    return rounded.scale() < 0 ? rounded.setScale(0) : rounded;
+  }
+
+  // passes broker's samples to sink in scrape order, without creating RawMetric instances
+  public void forEach(int brokerId, MetricsSink sink) {
+    Column column = brokers.get(brokerId);
+    if (column != null) {
+      for (int i = 0; i < column.series().length; i++) {
+        int s = column.series()[i];
+        if (column.integral().get(i)) {
+          sink.accept(names[s], labels.get(s), column.values()[i]);
+        } else {
+          sink.accept(names[s], labels.get(s), Double.longBitsToDouble(column.values()[i]));
+        }
+      }
+    }
+  }
+
+  private RawMetric metric(int series, BigDecimal value) {
+    return RawMetric.create(names[series], labels.get(series), value);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MetricsColumns that) || !brokers.keySet().equals(that.brokers.keySet())) {
+      return false;
+    }
+    for (var e : brokers.entrySet()) {
+      Column c1 = e.getValue();
+      Column c2 = that.brokers.get(e.getKey());
+      if (c1.series().length != c2.series().length || !Arrays.equals(c1.values(), c2.values())
+          || !c1.integral().equals(c2.integral())) {
+        return false;
+      }
+      for (int i = 0; i < c1.series().length; i++) {
+        if (!names[c1.series()[i]].equals(that.names[c2.series()[i]])
+            || !labels.get(c1.series()[i]).equals(that.labels.get(c2.series()[i]))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(brokers.keySet(), seriesCount());
+  }
+
+  @Override
+  public String toString() {
+    return "MetricsColumns(brokers=" + brokers.keySet() + ", series=" + names.length + ")";
+  }
+
+  public static final class Builder {
+
+    private record SeriesKey(String name, Map<String, String> labels) {
+    }
+
+    private final Map<SeriesKey, Integer> index = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<Map<String, String>> labels = new ArrayList<>();
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<Integer, ColumnBuilder> brokers = new LinkedHashMap<>();
+
+    private Builder() {
+    }
+
+    // columns of different brokers can be filled concurrently, their series are merged into dictionary on build
+    public synchronized ColumnBuilder column(int brokerId) {
+      return brokers.computeIfAbsent(brokerId, id -> new ColumnBuilder());
+    }
+
+    public Builder addAll(int brokerId, Collection<RawMetric> metrics) {
+      var column = column(brokerId);
+      metrics.forEach(column::accept);
+      return this;
+    }
+
+    public synchronized MetricsColumns build() {
+      Map<Integer, Column> columns = new HashMap<>(brokers.size());
+      brokers.forEach((id, c) -> columns.put(id, c.build(this::series)));
+      return new MetricsColumns(names.toArray(String[]::new), List.copyOf(labels), Map.copyOf(columns));
+    }
+
+    private int series(String name, Map<String, String> seriesLabels) {
+      var key = new SeriesKey(name, seriesLabels);
+      Integer existing = index.get(key);
+      if (existing != null) {
+        return existing;
+      }
+      int idx = names.size();
+      names.add(intern(name));
+      labels.add(internLabels(seriesLabels));
+      index.put(new SeriesKey(names.get(idx), labels.get(idx)), idx);
+      return idx;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> internLabels(Map<String, String> seriesLabels) {
+      return Map.ofEntries(seriesLabels.entrySet().stream()
+          .map(e -> Map.entry(intern(e.getKey()), intern(e.getValue())))
+          .toArray(Map.Entry[]::new));
+    }
+
+    private String intern(String s) {
+      return strings.computeIfAbsent(s, k -> k);
+    }
+  }
+
+  /**
+   * Samples of a single broker. Series are indexed in a column-local dictionary (name -> labels -> index,
+   * so lookups do not allocate keys) while samples are added, and mapped to the shared dictionary on build.
+   */
+  public static final class ColumnBuilder implements MetricsSink {
+    private final Map<String, Map<Map<String, String>, Integer>> index = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<Map<String, String>> labels = new ArrayList<>();
+    private int[] series = new int[64];
+    private long[] values = new long[64];
+    private final BitSet integral = new BitSet();
+    private int size = 0;
+
+    private ColumnBuilder() {
+    }
+
+    @Override
+    public void accept(String name, Map<String, String> seriesLabels, double value) {
+      add(localSeries(name, seriesLabels), Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void accept(String name, Map<String, String> seriesLabels, long value) {
+      integral.set(size);
+      add(localSeries(name, seriesLabels), value);
+    }
+
+    public int size() {
+      return size;
+    }
+
+    private int localSeries(String name, Map<String, String> seriesLabels) {
+      var byLabels = index.get(name);
+      if (byLabels == null) {
+        byLabels = new HashMap<>();
+        index.put(name, byLabels);
+      }
+      Integer local = byLabels.get(seriesLabels);
+      if (local == null) {
+        local = names.size();
+        names.add(name);
+        labels.add(seriesLabels);
+        byLabels.put(seriesLabels, local);
+      }
+      return local;
+    }
+
+    private void add(int localSeries, long value) {
+      if (size == series.length) {
+        series = Arrays.copyOf(series, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      series[size] = localSeries;
+      values[size] = value;
+      size++;
+    }
+
+    private Column build(ToIntBiFunction<String, Map<String, String>> dictionary) {
+      int[] shared = new int[names.size()];
+      for (int i = 0; i < shared.length; i++) {
+        shared[i] = dictionary.applyAsInt(names.get(i), labels.get(i));
+      }
+      int[] mapped = new int[size];
+      for (int i = 0; i < size; i++) {
+        mapped[i] = shared[series[i]];
+      }
+      return new Column(mapped, Arrays.copyOf(values, size), (BitSet) integral.clone());
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+package io.kafbat.ui.service.metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.Metrics;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory history of brokers' and topics' throughput, recorded on every metrics collection.
+ * Each series takes ~1.2KB of memory (see {@link Resolution} tiers), total number of series of all clusters is
+ * limited, so history memory (~300MB by default) doesn't grow with number of clusters.
+ */
+@Component
+public class MetricsHistory {
+
+  // shared by all clusters, enough for every series type of 50k topics
+  private static final int DEFAULT_MAX_SERIES = 50_000 * SeriesType.values().length;
+
+  @Getter
+  public enum Resolution {
+    MINUTE(Duration.ofMinutes(1), 60),
+    HOUR(Duration.ofHours(1), 24),
+    DAY(Duration.ofDays(1), 30);
+
+    private final long periodMs;
+    private final int capacity;
+
+    Resolution(Duration period, int capacity) {
+      this.periodMs = period.toMillis();
+      this.capacity = capacity;
+    }
+  }
+
+  public enum SeriesType {
+    BROKER_BYTES_IN,
+    BROKER_BYTES_OUT,
+    TOPIC_BYTES_IN,
+    TOPIC_BYTES_OUT,
+    TOPIC_MESSAGES_IN
+  }
+
+  // id is broker id or topic name, depending on type
+  public record SeriesKey(SeriesType type, String id) {
+  }
+
+  // values for consecutive periods starting at startMs, NaN for periods without samples
+  public record TimeSeries(long startMs, long stepMs, double[] values) {
+  }
+
+  private final TimeSeriesStore.Budget budget;
+  private final Clock clock;
+
+  // cluster name -> history
+  private final Map<String, TimeSeriesStore<SeriesKey>> stores = new ConcurrentHashMap<>();
+
+  @Autowired
+  public MetricsHistory(ClustersProperties clustersProperties) {
+    this(
+        Optional.ofNullable(clustersProperties.getStatistics())
+            .map(ClustersProperties.StatisticsProperties::getHistoryMaxSeries)
+            .orElse(DEFAULT_MAX_SERIES),
+        Clock.systemUTC()
+    );
+  }
+
+  @VisibleForTesting
+  MetricsHistory(int maxSeries, Clock clock) {
+    this.budget = new TimeSeriesStore.Budget(maxSeries);
+    this.clock = clock;
+  }
+
+  void record(String clusterName, Metrics metrics) {
+    Map<SeriesKey, BigDecimal> samples = new HashMap<>();
+    addSamples(samples, SeriesType.BROKER_BYTES_IN, metrics.getBrokerBytesInPerSec());
+    addSamples(samples, SeriesType.BROKER_BYTES_OUT, metrics.getBrokerBytesOutPerSec());
+    addSamples(samples, SeriesType.TOPIC_BYTES_IN, metrics.getTopicBytesInPerSec());
+    addSamples(samples, SeriesType.TOPIC_BYTES_OUT, metrics.getTopicBytesOutPerSec());
+    addSamples(samples, SeriesType.TOPIC_MESSAGES_IN, metrics.getTopicMessagesInPerSec());
+    if (!samples.isEmpty()) {
+      stores.computeIfAbsent(clusterName, c -> new TimeSeriesStore<>(budget)).add(clock.millis(), samples);
+    }
+  }
+
+  public Optional<TimeSeries> query(String clusterName, SeriesKey key, Resolution resolution) {
+    return Optional.ofNullable(stores.get(clusterName)).flatMap(s -> s.query(key, resolution));
+  }
+
+  private static void addSamples(Map<SeriesKey, BigDecimal> samples, SeriesType type, Map<?, BigDecimal> values) {
+    values.forEach((id, value) -> samples.put(new SeriesKey(type, String.valueOf(id)), value));
+  }
+
+}
@@ -2,8 +2,9 @@ package io.kafbat.ui.service.metrics;
 
 import io.kafbat.ui.model.KafkaCluster;
 import org.apache.kafka.common.Node;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 interface MetricsRetriever {
-  Flux<RawMetric> retrieve(KafkaCluster c, Node node);
+  // passes scraped samples to sink, completes when scrape is done
+  Mono<Void> retrieve(KafkaCluster c, Node node, MetricsSink sink);
 }
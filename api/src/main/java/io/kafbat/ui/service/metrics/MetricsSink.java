@@ -0,0 +1,33 @@
+package io.kafbat.ui.service.metrics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Receives scraped samples one by one, without wrapping them into RawMetric instances.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+  void accept(String name, Map<String, String> labels, double value);
+
+  // integral samples (counters), can be summed exactly
+  default void accept(String name, Map<String, String> labels, long value) {
+    accept(name, labels, (double) value);
+  }
+
+  default void accept(RawMetric metric) {
+    BigDecimal value = metric.value();
+    if (value == null) {
+      return;
+    }
+    boolean integral = value.scale() <= 0
+        && (value.precision() - value.scale() <= 18 || value.toBigInteger().bitLength() < Long.SIZE);
+    if (integral) {
+      accept(metric.name(), metric.labels(), value.longValue());
+    } else {
+      accept(metric.name(), metric.labels(), value.doubleValue());
+    }
+  }
+
+}
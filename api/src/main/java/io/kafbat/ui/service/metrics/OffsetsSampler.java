@@ -0,0 +1,123 @@
+package io.kafbat.ui.service.metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.model.Metrics;
+import io.kafbat.ui.service.ReactiveAdminClient;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Estimates topics' and partitions' produce rates (messages/sec) from latest offsets growth between
+ * samples. Used for clusters without jmx / prometheus metrics configured (ex. managed clusters), where
+ * it is the only source of throughput data. Only the last sample is kept per cluster: latest offsets
+ * of each topic's partitions in array indexed by partition. Estimated topic rates are recorded to
+ * {@link MetricsHistory}.
+ */
+@Component
+public class OffsetsSampler {
+
+  private static final int RATE_SCALE = 3;
+
+  private record Sample(long timestampMs, Map<String, long[]> offsets) {
+  }
+
+  private final MetricsHistory metricsHistory;
+  private final Clock clock;
+
+  // cluster name -> last sample
+  private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+  @Autowired
+  public OffsetsSampler(MetricsHistory metricsHistory) {
+    this(metricsHistory, Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  OffsetsSampler(MetricsHistory metricsHistory, Clock clock) {
+    this.metricsHistory = metricsHistory;
+    this.clock = clock;
+  }
+
+  public Mono<Metrics> sample(String clusterName,
+                              ReactiveAdminClient ac,
+                              Collection<TopicDescription> topics) {
+    // all partitions are requested at once, admin client groups them by leader broker
+    return ac.listOffsets(topics, OffsetSpec.latest())
+        .map(offsets -> {
+          Metrics metrics = update(clusterName, clock.millis(), offsets);
+          metricsHistory.record(clusterName, metrics);
+          return metrics;
+        });
+  }
+
+  @VisibleForTesting
+  Metrics update(String clusterName, long timestampMs, Map<TopicPartition, Long> latestOffsets) {
+    var current = new Sample(timestampMs, toArrays(latestOffsets));
+    Sample previous = samples.put(clusterName, current);
+    Map<String, BigDecimal> topicRates = new HashMap<>();
+    Map<TopicPartition, BigDecimal> partitionRates = new HashMap<>();
+    if (previous != null && timestampMs > previous.timestampMs()) {
+      double elapsedSec = (timestampMs - previous.timestampMs()) / 1000.0;
+      current.offsets().forEach((topic, offsets) -> {
+        long[] prevOffsets = previous.offsets().get(topic);
+        if (prevOffsets == null) {
+          return; // new topic
+        }
+        double topicRate = 0;
+        boolean estimated = false;
+        for (int partition = 0; partition < Math.min(offsets.length, prevOffsets.length); partition++) {
+          // offset decrease means that topic was re-created since previous sample
+          if (offsets[partition] < 0 || prevOffsets[partition] < 0 || offsets[partition] < prevOffsets[partition]) {
+            continue;
+          }
+          double rate = (offsets[partition] - prevOffsets[partition]) / elapsedSec;
+          partitionRates.put(new TopicPartition(topic, partition), toDecimal(rate));
+          topicRate += rate;
+          estimated = true;
+        }
+        if (estimated) {
+          topicRates.put(topic, toDecimal(topicRate));
+        }
+      });
+    }
+    return Metrics.builder()
+        .brokerBytesInPerSec(Map.of())
+        .brokerBytesOutPerSec(Map.of())
+        .topicBytesInPerSec(Map.of())
+        .topicBytesOutPerSec(Map.of())
+        .perBrokerMetrics(MetricsColumns.empty())
+        .topicMessagesInPerSec(topicRates)
+        .partitionMessagesInPerSec(partitionRates)
+        .build();
+  }
+
+  private static Map<String, long[]> toArrays(Map<TopicPartition, Long> latestOffsets) {
+    Map<String, Integer> partitionsCount = new HashMap<>();
+    latestOffsets.keySet().forEach(tp -> partitionsCount.merge(tp.topic(), tp.partition() + 1, Math::max));
+    Map<String, long[]> arrays = new HashMap<>(partitionsCount.size());
+    partitionsCount.forEach((topic, count) -> {
+      long[] offsets = new long[count];
+      Arrays.fill(offsets, -1); // partitions without offsets (no leader)
+      arrays.put(topic, offsets);
+    });
+    latestOffsets.forEach((tp, offset) -> arrays.get(tp.topic())[tp.partition()] = offset);
+    return arrays;
+  }
+
+  private static BigDecimal toDecimal(double rate) {
+    return BigDecimal.valueOf(rate).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+  }
+
+}
@@ -1,46 +1,479 @@
 package io.kafbat.ui.service.metrics;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.core.io.buffer.DataBuffer;
 
+/**
+ * Incremental parser of prometheus text / openmetrics exposition format. Body is fed chunk by chunk
+ * (as received from network), complete lines are parsed directly from bytes, without intermediate strings
+ * and regexps. Samples of metrics that are not in allowlist (if set) are skipped right after name is read.
+ * For example, line:
+ * kafka_server_BrokerTopicMetrics_FiveMinuteRate{name="BytesInPerSec",topic="__consumer_offsets",} 16.94886650744339
+ * will produce:
+ * name=kafka_server_BrokerTopicMetrics_FiveMinuteRate
+ * value=16.94886650744339
+ * labels={name="BytesInPerSec", topic="__consumer_offsets"}.
+ * Samples are passed to MetricsSink as primitive values: plain integers as long, other values as double.
+ * Metric names, label names, label values and label sets are interned for the lifetime of the parser (a single
+ * scrape), so samples only allocate when they bring a string or label set not seen before. Timestamps and
+ * exemplars are ignored, samples with NaN and infinite values are skipped.
+ */
 @Slf4j
 class PrometheusEndpointMetricsParser {
 
-  /**
-   * Matches openmetrics format. For example, string:
-   * kafka_server_BrokerTopicMetrics_FiveMinuteRate{name="BytesInPerSec",topic="__consumer_offsets",} 16.94886650744339
-   * will produce:
-   * name=kafka_server_BrokerTopicMetrics_FiveMinuteRate
-   * value=16.94886650744339
-   * labels={name="BytesInPerSec", topic="__consumer_offsets"}",
-   */
-  private static final Pattern PATTERN = Pattern.compile(
-      "(?<metricName>^\\w+)([ \t]*\\{*(?<properties>.*)}*)[ \\t]+(?<value>[\\d]+\\.?[\\d]+)?");
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+  // exactly representable powers of ten, used for fast value parsing
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  // metric name prefixes to keep, null to keep all
+  @Nullable
+  private final byte[][] allowlist;
+
+  // bytes of current (incomplete) line
+  private byte[] line = new byte[8 * 1024];
+  private int lineLength = 0;
+  private boolean skippingLongLine = false;
+
+  private final StringTable strings = new StringTable();
+  private final Map<LabelSet, Map<String, String>> labelSets = new HashMap<>();
+  // labels of current line, reused between lines
+  private final LabelSet labels = new LabelSet();
+  private byte[] labelValue = new byte[256];
+  private byte[] chunkBytes = new byte[0];
+
+  PrometheusEndpointMetricsParser(@Nullable Collection<String> allowlist) {
+    this.allowlist = allowlist == null
+        ? null
+        : allowlist.stream().map(p -> p.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+  }
 
   static Optional<RawMetric> parse(String s) {
-    Matcher matcher = PATTERN.matcher(s);
-    if (matcher.matches()) {
-      String value = matcher.group("value");
-      String metricName = matcher.group("metricName");
-      if (metricName == null || !NumberUtils.isCreatable(value)) {
-        return Optional.empty();
+    var parser = new PrometheusEndpointMetricsParser(null);
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    List<RawMetric> parsed = new ArrayList<>(1);
+    MetricsSink sink = (n, l, v) -> parsed.add(RawMetric.create(n, l, BigDecimal.valueOf(v)));
+    parser.feed(bytes, 0, bytes.length, sink);
+    parser.finish(sink);
+    return parsed.stream().findFirst();
+  }
+
+  // parses all lines completed by this chunk, does not release buffer
+  void parse(DataBuffer chunk, MetricsSink sink) {
+    int readable = chunk.readableByteCount();
+    if (chunkBytes.length < readable) {
+      chunkBytes = new byte[readable];
+    }
+    chunk.read(chunkBytes, 0, readable);
+    feed(chunkBytes, 0, readable, sink);
+  }
+
+  // parses last line, if body did not end with line break
+  void finish(MetricsSink sink) {
+    if (!skippingLongLine && lineLength > 0) {
+      parseLine(line, 0, lineLength, sink);
+    }
+    lineLength = 0;
+    skippingLongLine = false;
+  }
+
+  private void feed(byte[] bytes, int offset, int length, MetricsSink sink) {
+    int pos = offset;
+    int end = offset + length;
+    while (pos < end) {
+      int lineEnd = indexOf(bytes, (byte) '\n', pos, end);
+      int chunkEnd = lineEnd < 0 ? end : lineEnd;
+      if (!skippingLongLine) {
+        if (lineLength == 0 && lineEnd >= 0) {
+          // whole line is in this chunk, parsing it in place
+          parseLine(bytes, pos, chunkEnd, sink);
+        } else {
+          append(bytes, pos, chunkEnd - pos);
+          if (lineEnd >= 0 && !skippingLongLine) {
+            parseLine(line, 0, lineLength, sink);
+          }
+        }
+      }
+      if (lineEnd < 0) {
+        return;
+      }
+      lineLength = 0;
+      skippingLongLine = false;
+      pos = lineEnd + 1;
+    }
+  }
+
+  private void append(byte[] bytes, int offset, int length) {
+    if (lineLength + length > MAX_LINE_LENGTH) {
+      log.warn("Skipping metrics line longer than {} bytes", MAX_LINE_LENGTH);
+      skippingLongLine = true;
+      lineLength = 0;
+      return;
+    }
+    if (lineLength + length > line.length) {
+      line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+    }
+    System.arraycopy(bytes, offset, line, lineLength, length);
+    lineLength += length;
+  }
+
+  private void parseLine(byte[] b, int start, int end, MetricsSink sink) {
+    int pos = skipSpaces(b, start, end);
+    if (pos == end || b[pos] == '#') {
+      return; // empty line or comment (HELP, TYPE, EOF)
+    }
+    int nameEnd = pos;
+    while (nameEnd < end && isNameChar(b[nameEnd], nameEnd == pos)) {
+      nameEnd++;
+    }
+    if (nameEnd == pos || !allowed(b, pos, nameEnd)) {
+      return;
+    }
+    String name = strings.get(b, pos, nameEnd);
+    pos = skipSpaces(b, nameEnd, end);
+
+    Map<String, String> sampleLabels = Map.of();
+    if (pos < end && b[pos] == '{') {
+      labels.clear();
+      pos = parseLabels(b, pos + 1, end);
+      if (pos < 0) {
+        log.trace("Skipping metrics line with invalid labels: {}",
+            new String(b, start, end - start, StandardCharsets.UTF_8));
+        return;
+      }
+      sampleLabels = internLabels();
+      if (sampleLabels == null) {
+        return; // duplicated label names
+      }
+      pos = skipSpaces(b, pos, end);
+    }
+
+    int valueEnd = pos;
+    while (valueEnd < end && b[valueEnd] != ' ' && b[valueEnd] != '\t' && b[valueEnd] != '\r') {
+      valueEnd++;
+    }
+    if (isInteger(b, pos, valueEnd)) {
+      sink.accept(name, sampleLabels, parseInteger(b, pos, valueEnd));
+      return;
+    }
+    double value = parseValue(b, pos, valueEnd);
+    if (Double.isFinite(value)) {
+      sink.accept(name, sampleLabels, value);
+    }
+  }
+
+  // plain integers of up to 18 digits (always fit into long), passed as long to be summed exactly
+  private static boolean isInteger(byte[] b, int start, int end) {
+    int pos = start < end && (b[start] == '-' || b[start] == '+') ? start + 1 : start;
+    if (pos == end || end - pos > 18) {
+      return false;
+    }
+    for (; pos < end; pos++) {
+      if (b[pos] < '0' || b[pos] > '9') {
+        return false;
       }
-      var labels = Arrays.stream(matcher.group("properties").split(","))
-          .filter(str -> !"".equals(str))
-          .map(str -> str.split("="))
-          .filter(spit -> spit.length == 2)
-          .collect(Collectors.toUnmodifiableMap(
-              str -> str[0].trim(),
-              str -> str[1].trim().replace("\"", "")));
+    }
+    return true;
+  }
 
-      return Optional.of(RawMetric.create(metricName, labels, new BigDecimal(value)));
+  private static long parseInteger(byte[] b, int start, int end) {
+    int pos = b[start] == '-' || b[start] == '+' ? start + 1 : start;
+    long value = 0;
+    for (; pos < end; pos++) {
+      value = value * 10 + (b[pos] - '0');
     }
-    return Optional.empty();
+    return b[start] == '-' ? -value : value;
   }
+
+  // returns position after closing brace, or -1 if labels are malformed
+  private int parseLabels(byte[] b, int pos, int end) {
+    while (true) {
+      pos = skipSpaces(b, pos, end);
+      if (pos == end) {
+        return -1;
+      }
+      if (b[pos] == '}') {
+        return pos + 1;
+      }
+      int nameStart = pos;
+      while (pos < end && isNameChar(b[pos], pos == nameStart) && b[pos] != ':') {
+        pos++;
+      }
+      if (pos == nameStart) {
+        return -1;
+      }
+      String labelName = strings.get(b, nameStart, pos);
+      pos = skipSpaces(b, pos, end);
+      if (pos == end || b[pos] != '=') {
+        return -1;
+      }
+      pos = skipSpaces(b, pos + 1, end);
+      if (pos == end || b[pos] != '"') {
+        return -1;
+      }
+      pos++;
+      int valueLength = 0;
+      while (pos < end && b[pos] != '"') {
+        byte c = b[pos];
+        if (c == '\\' && pos + 1 < end) {
+          pos++;
+          c = b[pos] == 'n' ? (byte) '\n' : b[pos];
+        }
+        if (valueLength == labelValue.length) {
+          labelValue = Arrays.copyOf(labelValue, labelValue.length * 2);
+        }
+        labelValue[valueLength++] = c;
+        pos++;
+      }
+      if (pos == end) {
+        return -1;
+      }
+      labels.add(labelName, strings.get(labelValue, 0, valueLength));
+      pos = skipSpaces(b, pos + 1, end);
+      if (pos < end && b[pos] == ',') {
+        pos++;
+      } else if (pos == end || b[pos] != '}') {
+        return -1;
+      }
+    }
+  }
+
+  // returns shared map for labels of current line, or null if label names are duplicated
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private Map<String, String> internLabels() {
+    Map<String, String> interned = labelSets.get(labels);
+    if (interned == null) {
+      try {
+        interned = Map.ofEntries(labels.entries().toArray(Map.Entry[]::new));
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+      labelSets.put(labels.copy(), interned);
+    }
+    return interned;
+  }
+
+  // returns NaN if value can't be parsed
+  private static double parseValue(byte[] b, int start, int end) {
+    if (start == end) {
+      return Double.NaN;
+    }
+    // NaN, +Inf, -Inf
+    byte last = b[end - 1];
+    if (last == 'N' || last == 'n' || last == 'F' || last == 'f') {
+      return Double.NaN;
+    }
+    // fast path for decimals with up to 18 significant digits, exact when both mantissa and
+    // power of ten are exactly representable as double (value is rounded once)
+    int pos = start;
+    boolean negative = b[pos] == '-';
+    if (b[pos] == '-' || b[pos] == '+') {
+      pos++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean point = false;
+    boolean anyDigit = false;
+    for (; pos < end; pos++) {
+      byte c = b[pos];
+      if (c >= '0' && c <= '9') {
+        anyDigit = true;
+        if (mantissa != 0 || c != '0') {
+          digits++;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        if (point) {
+          exponent--;
+        }
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (pos < end && (b[pos] == 'e' || b[pos] == 'E')) {
+      pos++;
+      boolean negativeExp = pos < end && b[pos] == '-';
+      if (pos < end && (b[pos] == '-' || b[pos] == '+')) {
+        pos++;
+      }
+      int exp = 0;
+      int expStart = pos;
+      for (; pos < end && b[pos] >= '0' && b[pos] <= '9' && pos - expStart < 4; pos++) {
+        exp = exp * 10 + (b[pos] - '0');
+      }
+      exponent += negativeExp ? -exp : exp;
+      anyDigit &= pos > expStart;
+    }
+    if (pos == end && anyDigit && digits <= 18 && mantissa <= (1L << 53) && Math.abs(exponent) <= 22) {
+      double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+      return negative ? -value : value;
+    }
+    try {
+      return Double.parseDouble(new String(b, start, end - start, StandardCharsets.ISO_8859_1));
+    } catch (NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+  private boolean allowed(byte[] b, int start, int end) {
+    if (allowlist == null) {
+      return true;
+    }
+    for (byte[] prefix : allowlist) {
+      if (prefix.length <= end - start && Arrays.equals(b, start, start + prefix.length, prefix, 0, prefix.length)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isNameChar(byte c, boolean first) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':' || (!first && c >= '0' && c <= '9');
+  }
+
+  private static int skipSpaces(byte[] b, int pos, int end) {
+    while (pos < end && (b[pos] == ' ' || b[pos] == '\t' || b[pos] == '\r')) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int indexOf(byte[] b, byte value, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (b[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // open addressing hash table of decoded strings, looked up by their utf-8 bytes without decoding them
+  private static final class StringTable {
+    private byte[][] keys = new byte[1024][];
+    private String[] values = new String[1024];
+    private int size = 0;
+
+    String get(byte[] b, int start, int end) {
+      int mask = keys.length - 1;
+      for (int i = hash(b, start, end) & mask; ; i = (i + 1) & mask) {
+        byte[] key = keys[i];
+        if (key == null) {
+          String value = new String(b, start, end - start, StandardCharsets.UTF_8);
+          keys[i] = Arrays.copyOfRange(b, start, end);
+          values[i] = value;
+          if (++size * 2 > keys.length) {
+            resize();
+          }
+          return value;
+        }
+        if (Arrays.equals(key, 0, key.length, b, start, end)) {
+          return values[i];
+        }
+      }
+    }
+
+    private void resize() {
+      byte[][] oldKeys = keys;
+      String[] oldValues = values;
+      keys = new byte[oldKeys.length * 2][];
+      values = new String[oldKeys.length * 2];
+      int mask = keys.length - 1;
+      for (int j = 0; j < oldKeys.length; j++) {
+        if (oldKeys[j] != null) {
+          int i = hash(oldKeys[j], 0, oldKeys[j].length) & mask;
+          while (keys[i] != null) {
+            i = (i + 1) & mask;
+          }
+          keys[i] = oldKeys[j];
+          values[i] = oldValues[j];
+        }
+      }
+    }
+
+    private static int hash(byte[] b, int start, int end) {
+      int h = 1;
+      for (int i = start; i < end; i++) {
+        h = 31 * h + b[i];
+      }
+      return h ^ (h >>> 16);
+    }
+  }
+
+  // label names and values of a sample, compared by identity since strings are interned by StringTable
+  private static final class LabelSet {
+    private String[] strings;
+    private int size;
+    private int hash;
+
+    LabelSet() {
+      this(new String[16], 0, 0);
+    }
+
+    private LabelSet(String[] strings, int size, int hash) {
+      this.strings = strings;
+      this.size = size;
+      this.hash = hash;
+    }
+
+    void clear() {
+      size = 0;
+      hash = 0;
+    }
+
+    void add(String name, String value) {
+      if (size + 2 > strings.length) {
+        strings = Arrays.copyOf(strings, strings.length * 2);
+      }
+      strings[size++] = name;
+      strings[size++] = value;
+      hash = 31 * (31 * hash + name.hashCode()) + value.hashCode();
+    }
+
+    List<Map.Entry<String, String>> entries() {
+      List<Map.Entry<String, String>> entries = new ArrayList<>(size / 2);
+      for (int i = 0; i < size; i += 2) {
+        entries.add(Map.entry(strings[i], strings[i + 1]));
+      }
+      return entries;
+    }
+
+    LabelSet copy() {
+      return new LabelSet(Arrays.copyOf(strings, size), size, hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof LabelSet that) || size != that.size || hash != that.hash) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (strings[i] != that.strings[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
 }
@@ -1,20 +1,18 @@
 package io.kafbat.ui.service.metrics;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Strings;
 import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.MetricsConfig;
 import io.kafbat.ui.util.WebClientConfigurator;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.Node;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
@@ -25,12 +23,11 @@ class PrometheusMetricsRetriever implements MetricsRetriever {
   private static final int DEFAULT_EXPORTER_PORT = 11001;
 
   @Override
-  public Flux<RawMetric> retrieve(KafkaCluster c, Node node) {
+  public Mono<Void> retrieve(KafkaCluster c, Node node, MetricsSink sink) {
     log.debug("Retrieving metrics from prometheus exporter: {}:{}", node.host(), c.getMetricsConfig().getPort());
 
     MetricsConfig metricsConfig = c.getMetricsConfig();
     var webClient = new WebClientConfigurator()
-        .configureBufferSize(DataSize.ofMegabytes(20))
         .configureBasicAuth(metricsConfig.getUsername(), metricsConfig.getPassword())
         .configureSsl(
             c.getOriginalProperties().getSsl(),
@@ -39,11 +36,11 @@ class PrometheusMetricsRetriever implements MetricsRetriever {
                 metricsConfig.getKeystorePassword()))
         .build();
 
-    return retrieve(webClient, node.host(), c.getMetricsConfig());
+    return retrieve(webClient, node.host(), c.getMetricsConfig(), sink);
   }
 
   @VisibleForTesting
-  Flux<RawMetric> retrieve(WebClient webClient, String host, MetricsConfig metricsConfig) {
+  Mono<Void> retrieve(WebClient webClient, String host, MetricsConfig metricsConfig, MetricsSink sink) {
     int port = Optional.ofNullable(metricsConfig.getPort()).orElse(DEFAULT_EXPORTER_PORT);
     boolean sslEnabled = metricsConfig.isSsl() || metricsConfig.getKeystoreLocation() != null;
     var request = webClient.get()
@@ -53,18 +50,22 @@ class PrometheusMetricsRetriever implements MetricsRetriever {
             .port(port)
             .path(METRICS_ENDPOINT_PATH).build().toUri());
 
-    WebClient.ResponseSpec responseSpec = request.retrieve();
-    return responseSpec.bodyToMono(String.class)
+    // body is parsed while it is being received, without aggregating it in memory
+    return Mono.defer(() -> {
+          var parser = new PrometheusEndpointMetricsParser(metricsConfig.getAllowlist());
+          return request.retrieve()
+              .bodyToFlux(DataBuffer.class)
+              .doOnNext(chunk -> {
+                try {
+                  parser.parse(chunk, sink);
+                } finally {
+                  DataBufferUtils.release(chunk);
+                }
+              })
+              .then(Mono.fromRunnable(() -> parser.finish(sink)));
+        })
         .doOnError(e -> log.error("Error while getting metrics from {}", host, e))
         .onErrorResume(th -> Mono.empty())
-        .flatMapMany(body ->
-            Flux.fromStream(
-                Arrays.stream(body.split("\\n"))
-                    .filter(str -> !Strings.isNullOrEmpty(str) && !str.startsWith("#")) // skipping comments strings
-                    .map(PrometheusEndpointMetricsParser::parse)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-            )
-        );
+        .then();
   }
 }
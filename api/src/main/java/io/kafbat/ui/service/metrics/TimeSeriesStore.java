@@ -0,0 +1,174 @@
+package io.kafbat.ui.service.metrics;
+
+import io.kafbat.ui.service.metrics.MetricsHistory.Resolution;
+import io.kafbat.ui.service.metrics.MetricsHistory.TimeSeries;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded history of metrics series. Each series is kept in fixed-size ring buffers of primitive doubles, one per
+ * {@link Resolution} tier. Tier slot holds average of samples that fell into slot's period, NaN if there were none.
+ * All series share tiers' timelines, so buffers' slots are recycled for all series when timeline moves to next period.
+ * Memory per series is fixed (~1.2KB: ~0.9KB of buffers plus series object, key and map entry), number of series
+ * is limited by {@link Budget}, that can be shared by several stores. Series that have no samples for the longest
+ * tier's span are evicted.
+ */
+@Slf4j
+class TimeSeriesStore<K> {
+
+  private static final Resolution[] TIERS = Resolution.values();
+
+  /**
+   * Max number of series, shared by all stores created with it.
+   */
+  static final class Budget {
+    private final int maxSeries;
+    private final AtomicInteger used = new AtomicInteger();
+
+    Budget(int maxSeries) {
+      this.maxSeries = maxSeries;
+    }
+
+    private boolean tryAcquire() {
+      if (used.incrementAndGet() > maxSeries) {
+        used.decrementAndGet();
+        return false;
+      }
+      return true;
+    }
+
+    private void release(int series) {
+      used.addAndGet(-series);
+    }
+
+    int used() {
+      return used.get();
+    }
+  }
+
+  private final Budget budget;
+  private final Map<K, Series> series = new HashMap<>();
+  // current period number (timestamp / period) per tier, -1 if no samples were added yet
+  private final long[] currentPeriods = new long[TIERS.length];
+  private boolean limitReachedLogged = false;
+
+  TimeSeriesStore(int maxSeries) {
+    this(new Budget(maxSeries));
+  }
+
+  TimeSeriesStore(Budget budget) {
+    this.budget = budget;
+    Arrays.fill(currentPeriods, -1);
+  }
+
+  synchronized void add(long timestampMs, Map<K, ? extends Number> samples) {
+    advance(timestampMs);
+    samples.forEach((key, value) -> {
+      if (value == null) {
+        return;
+      }
+      Series s = series.get(key);
+      if (s == null) {
+        if (!budget.tryAcquire()) {
+          if (!limitReachedLogged) {
+            log.warn("Metrics history series limit ({}) reached, new series are not recorded", budget.maxSeries);
+            limitReachedLogged = true;
+          }
+          return;
+        }
+        s = new Series();
+        series.put(key, s);
+      }
+      s.add(currentPeriods, timestampMs, value.doubleValue());
+    });
+  }
+
+  // values of the series for the last tier span, oldest first
+  synchronized Optional<TimeSeries> query(K key, Resolution resolution) {
+    Series s = series.get(key);
+    int tier = resolution.ordinal();
+    if (s == null || currentPeriods[tier] < 0) {
+      return Optional.empty();
+    }
+    int capacity = resolution.getCapacity();
+    long firstPeriod = currentPeriods[tier] - capacity + 1;
+    double[] values = new double[capacity];
+    for (int i = 0; i < capacity; i++) {
+      values[i] = s.values[tier][slot(firstPeriod + i, capacity)];
+    }
+    return Optional.of(new TimeSeries(firstPeriod * resolution.getPeriodMs(), resolution.getPeriodMs(), values));
+  }
+
+  synchronized int seriesCount() {
+    return series.size();
+  }
+
+  private void advance(long timestampMs) {
+    for (int tier = 0; tier < TIERS.length; tier++) {
+      long period = timestampMs / TIERS[tier].getPeriodMs();
+      long current = currentPeriods[tier];
+      if (period <= current) {
+        continue;
+      }
+      if (current >= 0) {
+        // clearing slots of periods that are recycled
+        int capacity = TIERS[tier].getCapacity();
+        long clearTo = Math.min(period, current + capacity);
+        for (Series s : series.values()) {
+          s.counts[tier] = 0;
+          for (long p = current + 1; p <= clearTo; p++) {
+            s.values[tier][slot(p, capacity)] = Double.NaN;
+          }
+        }
+      }
+      currentPeriods[tier] = period;
+      if (tier == TIERS.length - 1) {
+        evictInactive(timestampMs);
+      }
+    }
+  }
+
+  private void evictInactive(long timestampMs) {
+    Resolution longest = TIERS[TIERS.length - 1];
+    long threshold = timestampMs - longest.getPeriodMs() * longest.getCapacity();
+    int before = series.size();
+    if (series.values().removeIf(s -> s.lastSampleMs < threshold)) {
+      budget.release(before - series.size());
+      limitReachedLogged = false;
+    }
+  }
+
+  private static int slot(long period, int capacity) {
+    return (int) (period % capacity);
+  }
+
+  private static final class Series {
+    private final double[][] values = new double[TIERS.length][];
+    // number of samples added to current period's slot, per tier
+    private final int[] counts = new int[TIERS.length];
+    private long lastSampleMs;
+
+    Series() {
+      for (int tier = 0; tier < TIERS.length; tier++) {
+        values[tier] = new double[TIERS[tier].getCapacity()];
+        Arrays.fill(values[tier], Double.NaN);
+      }
+    }
+
+    void add(long[] currentPeriods, long timestampMs, double value) {
+      lastSampleMs = timestampMs;
+      for (int tier = 0; tier < TIERS.length; tier++) {
+        int slot = slot(currentPeriods[tier], TIERS[tier].getCapacity());
+        int count = counts[tier]++;
+        double[] tierValues = values[tier];
+        // running average of samples in period
+        tierValues[slot] = count == 0 ? value : tierValues[slot] + (value - tierValues[slot]) / (count + 1);
+      }
+    }
+  }
+
+}
@@ -7,7 +7,6 @@ import io.kafbat.ui.model.Metrics;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
-import org.apache.kafka.common.Node;
 
 class WellKnownMetrics {
 
@@ -22,9 +21,9 @@ class WellKnownMetrics {
   final Map<String, BigDecimal> bytesInFifteenMinuteRate = new HashMap<>();
   final Map<String, BigDecimal> bytesOutFifteenMinuteRate = new HashMap<>();
 
-  void populate(Node node, RawMetric rawMetric) {
-    updateBrokerIOrates(node, rawMetric);
-    updateTopicsIOrates(rawMetric);
+  void populate(int brokerId, String name, Map<String, String> labels, double value) {
+    updateBrokerIOrates(brokerId, name, labels, value);
+    updateTopicsIOrates(name, labels, value);
   }
 
   void apply(Metrics.MetricsBuilder metricsBuilder) {
@@ -34,35 +33,33 @@ class WellKnownMetrics {
     metricsBuilder.brokerBytesOutPerSec(brokerBytesOutFifteenMinuteRate);
   }
 
-  private void updateBrokerIOrates(Node node, RawMetric rawMetric) {
-    String name = rawMetric.name();
-    if (!brokerBytesInFifteenMinuteRate.containsKey(node.id())
-        && rawMetric.labels().size() == 1
-        && "BytesInPerSec".equalsIgnoreCase(rawMetric.labels().get("name"))
+  private void updateBrokerIOrates(int brokerId, String name, Map<String, String> labels, double value) {
+    if (!brokerBytesInFifteenMinuteRate.containsKey(brokerId)
+        && labels.size() == 1
+        && "BytesInPerSec".equalsIgnoreCase(labels.get("name"))
         && containsIgnoreCase(name, BROKER_TOPIC_METRICS)
         && endsWithIgnoreCase(name, FIFTEEN_MINUTE_RATE)) {
-      brokerBytesInFifteenMinuteRate.put(node.id(),  rawMetric.value());
+      brokerBytesInFifteenMinuteRate.put(brokerId, BigDecimal.valueOf(value));
     }
-    if (!brokerBytesOutFifteenMinuteRate.containsKey(node.id())
-        && rawMetric.labels().size() == 1
-        && "BytesOutPerSec".equalsIgnoreCase(rawMetric.labels().get("name"))
+    if (!brokerBytesOutFifteenMinuteRate.containsKey(brokerId)
+        && labels.size() == 1
+        && "BytesOutPerSec".equalsIgnoreCase(labels.get("name"))
         && containsIgnoreCase(name, BROKER_TOPIC_METRICS)
         && endsWithIgnoreCase(name, FIFTEEN_MINUTE_RATE)) {
-      brokerBytesOutFifteenMinuteRate.put(node.id(), rawMetric.value());
+      brokerBytesOutFifteenMinuteRate.put(brokerId, BigDecimal.valueOf(value));
     }
   }
 
-  private void updateTopicsIOrates(RawMetric rawMetric) {
-    String name = rawMetric.name();
-    String topic = rawMetric.labels().get("topic");
+  private void updateTopicsIOrates(String name, Map<String, String> labels, double value) {
+    String topic = labels.get("topic");
     if (topic != null
         && containsIgnoreCase(name, BROKER_TOPIC_METRICS)
         && endsWithIgnoreCase(name, FIFTEEN_MINUTE_RATE)) {
-      String nameProperty = rawMetric.labels().get("name");
+      String nameProperty = labels.get("name");
       if ("BytesInPerSec".equalsIgnoreCase(nameProperty)) {
-        bytesInFifteenMinuteRate.compute(topic, (k, v) -> v == null ? rawMetric.value() : v.add(rawMetric.value()));
+        bytesInFifteenMinuteRate.merge(topic, BigDecimal.valueOf(value), BigDecimal::add);
       } else if ("BytesOutPerSec".equalsIgnoreCase(nameProperty)) {
-        bytesOutFifteenMinuteRate.compute(topic, (k, v) -> v == null ? rawMetric.value() : v.add(rawMetric.value()));
+        bytesOutFifteenMinuteRate.merge(topic, BigDecimal.valueOf(value), BigDecimal::add);
       }
     }
   }
@@ -12,7 +12,9 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor(access = PRIVATE)
@@ -26,7 +28,11 @@ public class ApplicationMetrics {
   private final MeterRegistry registry;
 
   public static ApplicationMetrics forCluster(KafkaCluster cluster) {
-    return new ApplicationMetrics(cluster.getName(), Metrics.globalRegistry);
+    return forCluster(cluster.getName());
+  }
+
+  public static ApplicationMetrics forCluster(String clusterName) {
+    return new ApplicationMetrics(clusterName, Metrics.globalRegistry);
   }
 
   @VisibleForTesting
@@ -74,6 +80,138 @@ public class ApplicationMetrics {
         .register(registry);
   }
 
+  public void meterUserPolling(String user, int polledBytes, Duration throttled) {
+    userPolledBytes(user).increment(polledBytes);
+    userThrottleTimer(user).record(throttled);
+  }
+
+  private Counter userPolledBytes(String user) {
+    return Counter.builder(COMMON_PREFIX + "user_polled_bytes")
+        .description("Bytes polled by user's polling streams on throttled cluster")
+        .tag("cluster", clusterName)
+        .tag("user", user)
+        .register(registry);
+  }
+
+  private Timer userThrottleTimer(String user) {
+    return Timer.builder(COMMON_PREFIX + "user_poll_throttle_time")
+        .description("Time user's polls waited for cluster's polling bandwidth")
+        .tag("cluster", clusterName)
+        .tag("user", user)
+        .register(registry);
+  }
+
+  public void meterBackpressureStall(Duration stall) {
+    backpressureStallTimer().record(stall);
+  }
+
+  private Timer backpressureStallTimer() {
+    return Timer.builder(COMMON_PREFIX + "polling_backpressure_stalls")
+        .description("Time polling was paused, because subscriber did not consume already emitted messages")
+        .tag("cluster", clusterName)
+        .register(registry);
+  }
+
+  public void meterPollAdmission(String priority, Duration waited) {
+    pollAdmissionWaitTimer(priority).record(waited);
+  }
+
+  private Timer pollAdmissionWaitTimer(String priority) {
+    return Timer.builder(COMMON_PREFIX + "poll_admission_wait_time")
+        .description("Time polls waited in queue for cluster's concurrent polls limit")
+        .tag("cluster", clusterName)
+        .tag("priority", priority)
+        .register(registry);
+  }
+
+  public void meterPollRejection(String priority) {
+    pollRejections(priority).increment();
+  }
+
+  private Counter pollRejections(String priority) {
+    return Counter.builder(COMMON_PREFIX + "poll_admission_rejections")
+        .description("Number of polls rejected, because cluster's polls queue was full or poll waited too long")
+        .tag("cluster", clusterName)
+        .tag("priority", priority)
+        .register(registry);
+  }
+
+  public void meterBrokerMetricsScrape(int brokerId, Duration elapsed, int collected) {
+    brokerMetricsScrapeTimer(brokerId).record(elapsed);
+    brokerMetricsScraped(brokerId).record(collected);
+  }
+
+  private Timer brokerMetricsScrapeTimer(int brokerId) {
+    return Timer.builder(COMMON_PREFIX + "broker_metrics_scrape_time")
+        .description("Time spent in scraping broker's metrics endpoint")
+        .tag("cluster", clusterName)
+        .tag("broker", String.valueOf(brokerId))
+        .register(registry);
+  }
+
+  private DistributionSummary brokerMetricsScraped(int brokerId) {
+    return DistributionSummary.builder(COMMON_PREFIX + "broker_metrics_scraped")
+        .description("Number of metrics scraped from broker")
+        .tag("cluster", clusterName)
+        .tag("broker", String.valueOf(brokerId))
+        .register(registry);
+  }
+
+  public void meterJmxConnect(int brokerId) {
+    jmxConnects(brokerId).increment();
+  }
+
+  private Counter jmxConnects(int brokerId) {
+    return Counter.builder(COMMON_PREFIX + "broker_jmx_connects")
+        .description("Number of jmx connections opened to broker (including reconnects after failures)")
+        .tag("cluster", clusterName)
+        .tag("broker", String.valueOf(brokerId))
+        .register(registry);
+  }
+
+  public void meterStatisticsUpdate(Duration elapsed, String result) {
+    statisticsUpdateTimer(result).record(elapsed);
+  }
+
+  private Timer statisticsUpdateTimer(String result) {
+    return Timer.builder(COMMON_PREFIX + "statistics_update_time")
+        .description("Time spent in cluster's statistics updates")
+        .tag("cluster", clusterName)
+        .tag("result", result)
+        .register(registry);
+  }
+
+  public void meterStatisticsUpdateSkip() {
+    statisticsUpdateSkips().increment();
+  }
+
+  private Counter statisticsUpdateSkips() {
+    return Counter.builder(COMMON_PREFIX + "statistics_updates_skipped")
+        .description("Number of statistics updates skipped, because previous update was still running")
+        .tag("cluster", clusterName)
+        .register(registry);
+  }
+
+  public AtomicLong statisticsLastUpdateDuration() {
+    var durationMs = new AtomicLong();
+    Gauge.builder(COMMON_PREFIX + "statistics_last_update_duration", () -> durationMs)
+        .description("Duration of last cluster's statistics update")
+        .baseUnit("milliseconds")
+        .tag("cluster", clusterName)
+        .register(registry);
+    return durationMs;
+  }
+
+  public AtomicLong statisticsLastSuccess() {
+    var epochMs = new AtomicLong();
+    Gauge.builder(COMMON_PREFIX + "statistics_last_success_timestamp", () -> epochMs)
+        .description("Time of last successful cluster's statistics update, epoch millis")
+        .baseUnit("milliseconds")
+        .tag("cluster", clusterName)
+        .register(registry);
+    return epochMs;
+  }
+
   public AtomicInteger activeConsumers() {
     var count = new AtomicInteger();
     Gauge.builder(COMMON_PREFIX + "active_consumers", () -> count)
@@ -12,8 +12,6 @@ import java.nio.charset.StandardCharsets;
 public class ContentUtils {
   private static final byte[] HEX_ARRAY = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
 
-  private static final CharsetDecoder UTF8_DECODER = StandardCharsets.UTF_8.newDecoder();
-
   private ContentUtils() {
   }
 
@@ -28,7 +26,9 @@ public class ContentUtils {
       return true;
     }
     try {
-      CharBuffer decode = UTF8_DECODER.decode(ByteBuffer.wrap(value));
+      // decoder instances are not thread-safe, so creating new one for each call
+      CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+      CharBuffer decode = decoder.decode(ByteBuffer.wrap(value));
       return decode.chars().allMatch(ContentUtils::isValidUtf8);
     } catch (Exception e) {
       return false;
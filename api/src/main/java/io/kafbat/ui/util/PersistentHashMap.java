@@ -0,0 +1,452 @@
+package io.kafbat.ui.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable hash map with structural sharing (hash array mapped trie, CHAMP layout). {@link #plus} and
+ * {@link #minus} return new map instances in O(log32 n), sharing all untouched trie nodes with the original map,
+ * so it is cheap to keep consistent snapshots of large maps and update them frequently. Map interface's mutating
+ * methods throw UnsupportedOperationException. Null keys and values are not supported.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  // returns same instance if map is already persistent
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentHashMap<?, ?> persistent) {
+      return (PersistentHashMap<K, V>) persistent;
+    }
+    return PersistentHashMap.<K, V>empty().plusAll(map);
+  }
+
+  public PersistentHashMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    var change = new Change();
+    Node newRoot = root.put(key, value, hash(key), 0, change);
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, size + change.sizeDelta);
+  }
+
+  public PersistentHashMap<K, V> plusAll(Map<? extends K, ? extends V> map) {
+    var change = new Change();
+    Node newRoot = root;
+    for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+      K key = Objects.requireNonNull(e.getKey());
+      newRoot = newRoot.put(key, Objects.requireNonNull(e.getValue()), hash(key), 0, change);
+    }
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, size + change.sizeDelta);
+  }
+
+  public PersistentHashMap<K, V> minus(Object key) {
+    if (key == null) {
+      return this;
+    }
+    var change = new Change();
+    Node newRoot = root.remove(key, hash(key), 0, change);
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, size + change.sizeDelta);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    return key == null ? null : (V) root.get(key, hash(key), 0);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  // collects size change of a single put/remove operation
+  private static final class Change {
+    private int sizeDelta = 0;
+  }
+
+  private abstract static class Node {
+    @Nullable
+    abstract Object get(Object key, int hash, int shift);
+
+    // returns same node if nothing changed
+    abstract Node put(Object key, Object value, int hash, int shift, Change change);
+
+    // returns same node if nothing changed
+    abstract Node remove(Object key, int hash, int shift, Change change);
+
+    abstract int entriesCount();
+
+    abstract Object keyAt(int idx);
+
+    abstract Object valueAt(int idx);
+
+    abstract int nodesCount();
+
+    abstract Node nodeAt(int idx);
+
+    // node with single entry is inlined into its parent
+    boolean isSingleEntry() {
+      return entriesCount() == 1 && nodesCount() == 0;
+    }
+  }
+
+  /*
+   * Entries are stored as key-value pairs at the beginning of content array, ordered by hash fragment,
+   * sub-nodes are stored at the end of the array in reversed order.
+   */
+  private static final class BitmapNode extends Node {
+    private static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+    private final int dataMap;
+    private final int nodeMap;
+    private final Object[] content;
+
+    private BitmapNode(int dataMap, int nodeMap, Object[] content) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.content = content;
+    }
+
+    private int dataIndex(int bit) {
+      return Integer.bitCount(dataMap & (bit - 1));
+    }
+
+    private int nodeContentIndex(int bit) {
+      return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((dataMap & bit) != 0) {
+        int idx = dataIndex(bit);
+        return key.equals(content[2 * idx]) ? content[2 * idx + 1] : null;
+      }
+      if ((nodeMap & bit) != 0) {
+        return ((Node) content[nodeContentIndex(bit)]).get(key, hash, shift + BITS);
+      }
+      return null;
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((dataMap & bit) != 0) {
+        int idx = dataIndex(bit);
+        Object existingKey = content[2 * idx];
+        if (key.equals(existingKey)) {
+          if (content[2 * idx + 1] == value) {
+            return this;
+          }
+          Object[] newContent = content.clone();
+          newContent[2 * idx + 1] = value;
+          return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+        Object existingValue = content[2 * idx + 1];
+        Node merged = mergeEntries(existingKey, existingValue, hash(existingKey), key, value, hash, shift + BITS);
+        change.sizeDelta++;
+        return replaceEntryWithNode(bit, idx, merged);
+      }
+      if ((nodeMap & bit) != 0) {
+        int contentIdx = nodeContentIndex(bit);
+        Node subNode = (Node) content[contentIdx];
+        Node newSubNode = subNode.put(key, value, hash, shift + BITS, change);
+        if (newSubNode == subNode) {
+          return this;
+        }
+        Object[] newContent = content.clone();
+        newContent[contentIdx] = newSubNode;
+        return new BitmapNode(dataMap, nodeMap, newContent);
+      }
+      change.sizeDelta++;
+      int idx = dataIndex(bit);
+      Object[] newContent = new Object[content.length + 2];
+      System.arraycopy(content, 0, newContent, 0, 2 * idx);
+      newContent[2 * idx] = key;
+      newContent[2 * idx + 1] = value;
+      System.arraycopy(content, 2 * idx, newContent, 2 * idx + 2, content.length - 2 * idx);
+      return new BitmapNode(dataMap | bit, nodeMap, newContent);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((dataMap & bit) != 0) {
+        int idx = dataIndex(bit);
+        if (!key.equals(content[2 * idx])) {
+          return this;
+        }
+        change.sizeDelta--;
+        Object[] newContent = new Object[content.length - 2];
+        System.arraycopy(content, 0, newContent, 0, 2 * idx);
+        System.arraycopy(content, 2 * idx + 2, newContent, 2 * idx, content.length - 2 * idx - 2);
+        return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+      }
+      if ((nodeMap & bit) != 0) {
+        int contentIdx = nodeContentIndex(bit);
+        Node subNode = (Node) content[contentIdx];
+        Node newSubNode = subNode.remove(key, hash, shift + BITS, change);
+        if (newSubNode == subNode) {
+          return this;
+        }
+        if (newSubNode.isSingleEntry()) {
+          return replaceNodeWithEntry(bit, newSubNode.keyAt(0), newSubNode.valueAt(0));
+        }
+        Object[] newContent = content.clone();
+        newContent[contentIdx] = newSubNode;
+        return new BitmapNode(dataMap, nodeMap, newContent);
+      }
+      return this;
+    }
+
+    private Node replaceEntryWithNode(int bit, int idx, Node node) {
+      int oldNodeContentIdx = nodeContentIndex(bit);
+      // entry's 2 slots are removed and node's slot is added: entries after removed one and nodes with higher
+      // bits are shifted by 2, nodes with lower bits (at the end of array) are shifted by 1
+      Object[] newContent = new Object[content.length - 1];
+      System.arraycopy(content, 0, newContent, 0, 2 * idx);
+      System.arraycopy(content, 2 * idx + 2, newContent, 2 * idx, oldNodeContentIdx - 2 * idx - 1);
+      int newNodeIdx = oldNodeContentIdx - 1;
+      newContent[newNodeIdx] = node;
+      System.arraycopy(content, oldNodeContentIdx + 1, newContent, newNodeIdx + 1,
+          content.length - oldNodeContentIdx - 1);
+      return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+    }
+
+    private Node replaceNodeWithEntry(int bit, Object key, Object value) {
+      int nodeIdx = nodeContentIndex(bit);
+      int idx = dataIndex(bit);
+      Object[] newContent = new Object[content.length + 1];
+      System.arraycopy(content, 0, newContent, 0, 2 * idx);
+      newContent[2 * idx] = key;
+      newContent[2 * idx + 1] = value;
+      System.arraycopy(content, 2 * idx, newContent, 2 * idx + 2, nodeIdx - 2 * idx);
+      System.arraycopy(content, nodeIdx + 1, newContent, nodeIdx + 2, content.length - nodeIdx - 1);
+      return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+    }
+
+    @Override
+    int entriesCount() {
+      return Integer.bitCount(dataMap);
+    }
+
+    @Override
+    Object keyAt(int idx) {
+      return content[2 * idx];
+    }
+
+    @Override
+    Object valueAt(int idx) {
+      return content[2 * idx + 1];
+    }
+
+    @Override
+    int nodesCount() {
+      return Integer.bitCount(nodeMap);
+    }
+
+    @Override
+    Node nodeAt(int idx) {
+      return (Node) content[content.length - 1 - idx];
+    }
+  }
+
+  private static Node mergeEntries(Object key1, Object value1, int hash1,
+                                   Object key2, Object value2, int hash2,
+                                   int shift) {
+    if (shift >= Integer.SIZE) {
+      return new CollisionNode(new Object[] {key1, value1, key2, value2});
+    }
+    int frag1 = (hash1 >>> shift) & MASK;
+    int frag2 = (hash2 >>> shift) & MASK;
+    if (frag1 == frag2) {
+      Node subNode = mergeEntries(key1, value1, hash1, key2, value2, hash2, shift + BITS);
+      return new BitmapNode(0, 1 << frag1, new Object[] {subNode});
+    }
+    Object[] content = frag1 < frag2
+        ? new Object[] {key1, value1, key2, value2}
+        : new Object[] {key2, value2, key1, value1};
+    return new BitmapNode((1 << frag1) | (1 << frag2), 0, content);
+  }
+
+  // entries with equal hashes, stored as key-value pairs
+  private static final class CollisionNode extends Node {
+    private final Object[] content;
+
+    private CollisionNode(Object[] content) {
+      this.content = content;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < content.length; i += 2) {
+        if (key.equals(content[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int idx = indexOf(key);
+      return idx < 0 ? null : content[idx + 1];
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int idx = indexOf(key);
+      if (idx >= 0) {
+        if (content[idx + 1] == value) {
+          return this;
+        }
+        Object[] newContent = content.clone();
+        newContent[idx + 1] = value;
+        return new CollisionNode(newContent);
+      }
+      change.sizeDelta++;
+      Object[] newContent = Arrays.copyOf(content, content.length + 2);
+      newContent[content.length] = key;
+      newContent[content.length + 1] = value;
+      return new CollisionNode(newContent);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int idx = indexOf(key);
+      if (idx < 0) {
+        return this;
+      }
+      change.sizeDelta--;
+      Object[] newContent = new Object[content.length - 2];
+      System.arraycopy(content, 0, newContent, 0, idx);
+      System.arraycopy(content, idx + 2, newContent, idx, content.length - idx - 2);
+      return new CollisionNode(newContent);
+    }
+
+    @Override
+    int entriesCount() {
+      return content.length / 2;
+    }
+
+    @Override
+    Object keyAt(int idx) {
+      return content[2 * idx];
+    }
+
+    @Override
+    Object valueAt(int idx) {
+      return content[2 * idx + 1];
+    }
+
+    @Override
+    int nodesCount() {
+      return 0;
+    }
+
+    @Override
+    Node nodeAt(int idx) {
+      throw new IndexOutOfBoundsException(idx);
+    }
+  }
+
+  // depth-first traversal, node's own entries first
+  private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+    private final Deque<Node> pending = new ArrayDeque<>();
+    private Node current;
+    private int entryIdx = 0;
+
+    private EntryIterator(Node root) {
+      current = root;
+      pushSubNodes(root);
+      skipExhausted();
+    }
+
+    private void pushSubNodes(Node node) {
+      for (int i = 0; i < node.nodesCount(); i++) {
+        pending.push(node.nodeAt(i));
+      }
+    }
+
+    private void skipExhausted() {
+      while (entryIdx >= current.entriesCount() && !pending.isEmpty()) {
+        current = pending.pop();
+        entryIdx = 0;
+        pushSubNodes(current);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return entryIdx < current.entriesCount();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      var entry = new SimpleImmutableEntry<>((K) current.keyAt(entryIdx), (V) current.valueAt(entryIdx));
+      entryIdx++;
+      skipExhausted();
+      return entry;
+    }
+  }
+
+}
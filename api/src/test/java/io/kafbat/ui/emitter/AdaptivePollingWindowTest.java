@@ -0,0 +1,99 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePollingWindowTest {
+
+  static final String TOPIC = "test";
+  static final TopicPartition TP0 = new TopicPartition(TOPIC, 0);
+  static final TopicPartition TP1 = new TopicPartition(TOPIC, 1);
+
+  static final Duration FAST_ROUND = Duration.ofMillis(100);
+  static final Duration LATENCY_TARGET = Duration.ofSeconds(3);
+
+  @Test
+  void initialWindowIsPageSizeSplitBetweenPartitions() {
+    var window = new AdaptivePollingWindow(100, Long.MAX_VALUE, LATENCY_TARGET);
+    assertThat(window.windowSize(TP0, 2)).isEqualTo(50);
+    assertThat(window.windowSize(TP0, 3)).isEqualTo(34);
+  }
+
+  @Test
+  void windowGrowsWhenNothingMatchedButNotMoreThanMaxGrowthPerRound() {
+    var window = new AdaptivePollingWindow(100, Long.MAX_VALUE, LATENCY_TARGET);
+    window.update(List.of(TP0, TP1), records(Map.of(TP0, 50, TP1, 50), 10), tp -> 0, 100, FAST_ROUND);
+    assertThat(window.windowSize(TP0, 2)).isEqualTo(200);
+    assertThat(window.windowSize(TP1, 2)).isEqualTo(200);
+
+    window.update(List.of(TP0, TP1), records(Map.of(TP0, 200, TP1, 200), 10), tp -> 0, 100, FAST_ROUND);
+    assertThat(window.windowSize(TP0, 2)).isEqualTo(800);
+  }
+
+  @Test
+  void windowIsCalculatedFromPartitionHitRate() {
+    var window = new AdaptivePollingWindow(100, Long.MAX_VALUE, LATENCY_TARGET);
+    // tp0: 5 of 50 matched (10%), tp1: 50 of 50 matched
+    window.update(
+        List.of(TP0, TP1),
+        records(Map.of(TP0, 50, TP1, 50), 10),
+        tp -> tp.equals(TP0) ? 5 : 50,
+        45,
+        FAST_ROUND
+    );
+    // 23 messages needed from each partition: tp0 needs 230 records (limited by growth), tp1 - 23 (limited by min)
+    assertThat(window.windowSize(TP0, 2)).isEqualTo(200);
+    assertThat(window.windowSize(TP1, 2)).isEqualTo(50);
+  }
+
+  @Test
+  void windowShrinksWhenRoundIsTooSlow() {
+    var window = new AdaptivePollingWindow(10, Long.MAX_VALUE, LATENCY_TARGET);
+    window.update(List.of(TP0), records(Map.of(TP0, 10), 10), tp -> 0, 10, FAST_ROUND);
+    window.update(List.of(TP0), records(Map.of(TP0, 40), 10), tp -> 0, 10, FAST_ROUND);
+    assertThat(window.windowSize(TP0, 1)).isEqualTo(160);
+
+    window.update(List.of(TP0), records(Map.of(TP0, 160), 10), tp -> 0, 10, Duration.ofSeconds(10));
+    assertThat(window.windowSize(TP0, 1)).isEqualTo(80);
+  }
+
+  @Test
+  void windowIsLimitedByBytesBudget() {
+    // 2 partitions, 100-byte records, budget 10_000 bytes -> max 50 records per partition
+    var window = new AdaptivePollingWindow(10, 10_000, LATENCY_TARGET);
+    for (int i = 0; i < 5; i++) {
+      int size = window.windowSize(TP0, 2);
+      window.update(List.of(TP0, TP1), records(Map.of(TP0, size, TP1, size), 100), tp -> 0, 10, FAST_ROUND);
+    }
+    assertThat(window.windowSize(TP0, 2)).isEqualTo(50);
+    assertThat(window.windowSize(TP1, 2)).isEqualTo(50);
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> records(Map<TopicPartition, Integer> counts, int valueSize) {
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
+    counts.forEach((tp, cnt) -> {
+      for (int i = 0; i < cnt; i++) {
+        result.add(
+            new ConsumerRecord<>(
+                tp.topic(), tp.partition(), i, 0L, TimestampType.CREATE_TIME,
+                0, valueSize, null, Bytes.wrap(new byte[valueSize]),
+                new RecordHeaders(), Optional.empty()
+            )
+        );
+      }
+    });
+    return result;
+  }
+
+}
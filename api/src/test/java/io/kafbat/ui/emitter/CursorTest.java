@@ -11,8 +11,8 @@ import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
 import io.kafbat.ui.serdes.PropertyResolverImpl;
 import io.kafbat.ui.serdes.builtin.StringSerde;
-import io.kafbat.ui.service.PollingCursorsStorage;
 import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -34,7 +34,7 @@ class CursorTest extends AbstractIntegrationTest {
   static final int MSGS_IN_PARTITION = 20;
   static final int PAGE_SIZE = (MSGS_IN_PARTITION / 2) + 1; //to poll fill data set in 2 iterations
 
-  final PollingCursorsStorage cursorsStorage = new PollingCursorsStorage();
+  final List<Cursor> registeredCursors = new ArrayList<>();
 
   @BeforeAll
   static void setup() {
@@ -67,7 +67,7 @@ class CursorTest extends AbstractIntegrationTest {
     emitter = createBackwardEmitterWithCursor(cursor);
     waitMgsgEmitted(emitter, MSGS_IN_PARTITION - PAGE_SIZE);
     //checking no new cursors registered
-    assertThat(cursorsStorage.asMap()).hasSize(1).containsValue(cursor);
+    assertThat(registeredCursors).hasSize(1).containsExactly(cursor);
   }
 
   @Test
@@ -86,12 +86,12 @@ class CursorTest extends AbstractIntegrationTest {
     emitter = createForwardEmitterWithCursor(cursor);
     waitMgsgEmitted(emitter, MSGS_IN_PARTITION - PAGE_SIZE);
     //checking no new cursors registered
-    assertThat(cursorsStorage.asMap()).hasSize(1).containsValue(cursor);
+    assertThat(registeredCursors).hasSize(1).containsExactly(cursor);
   }
 
   private Cursor assertCursor(PollingModeDTO expectedMode,
                               Consumer<Map<TopicPartition, Long>> offsetsAssert) {
-    Cursor registeredCursor = cursorsStorage.asMap().values().stream().findFirst().orElse(null);
+    Cursor registeredCursor = registeredCursors.stream().findFirst().orElse(null);
     assertThat(registeredCursor).isNotNull();
     assertThat(registeredCursor.limit()).isEqualTo(PAGE_SIZE);
     assertThat(registeredCursor.deserializer()).isNotNull();
@@ -166,7 +166,12 @@ class CursorTest extends AbstractIntegrationTest {
   }
 
   private Cursor.Tracking createCursor(ConsumerPosition position) {
-    return cursorsStorage.createNewCursor(createRecordsDeserializer(), position, m -> true, PAGE_SIZE);
+    return new Cursor.Tracking(createRecordsDeserializer(), position, m -> true, PAGE_SIZE, this::register);
+  }
+
+  private String register(Cursor cursor) {
+    registeredCursors.add(cursor);
+    return "cursor-" + registeredCursors.size();
   }
 
   private EnhancedConsumer createConsumer() {
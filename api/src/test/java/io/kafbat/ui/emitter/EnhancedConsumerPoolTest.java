@@ -0,0 +1,80 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.AbstractIntegrationTest;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class EnhancedConsumerPoolTest extends AbstractIntegrationTest {
+
+  static final String TOPIC = EnhancedConsumerPoolTest.class.getSimpleName() + "_" + UUID.randomUUID();
+
+  @BeforeAll
+  static void setup() {
+    createTopic(new NewTopic(TOPIC, 2, (short) 1));
+  }
+
+  @AfterAll
+  static void cleanup() {
+    deleteTopic(TOPIC);
+  }
+
+  @Test
+  void consumerIsResetAndReusedAfterClose() {
+    try (var pool = new EnhancedConsumerPool(this::createConsumer, 2, Duration.ofMinutes(1))) {
+      var tp0 = new TopicPartition(TOPIC, 0);
+      var tp1 = new TopicPartition(TOPIC, 1);
+
+      EnhancedConsumer consumer = pool.borrow();
+      consumer.assign(List.of(tp0, tp1));
+      consumer.pause(List.of(tp1));
+      consumer.pollEnhanced(Duration.ofMillis(100));
+      consumer.close();
+
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+
+      EnhancedConsumer reused = pool.borrow();
+      assertThat(reused).isSameAs(consumer);
+      assertThat(reused.assignment()).isEmpty();
+      assertThat(reused.paused()).isEmpty();
+      assertThat(pool.getIdleCount()).isZero();
+
+      // consumer should still be usable after reuse
+      reused.assign(List.of(tp0));
+      reused.pollEnhanced(Duration.ofMillis(100));
+      reused.close();
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void notMoreThanMaxIdleConsumersKeptInPool() {
+    try (var pool = new EnhancedConsumerPool(this::createConsumer, 1, Duration.ofMinutes(1))) {
+      EnhancedConsumer first = pool.borrow();
+      EnhancedConsumer second = pool.borrow();
+      assertThat(first).isNotSameAs(second);
+
+      first.close();
+      second.close();
+
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+    }
+  }
+
+  private EnhancedConsumer createConsumer() {
+    Properties props = new Properties();
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+    return new EnhancedConsumer(props, PollingThrottler.noop(), ApplicationMetrics.noop());
+  }
+
+}
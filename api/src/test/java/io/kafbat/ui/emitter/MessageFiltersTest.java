@@ -2,6 +2,7 @@ package io.kafbat.ui.emitter;
 
 import static io.kafbat.ui.emitter.MessageFilters.celScriptFilter;
 import static io.kafbat.ui.emitter.MessageFilters.containsStringFilter;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,9 +15,14 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -72,6 +78,56 @@ class MessageFiltersTest {
 
   }
 
+  @Nested
+  class StringContainsRawRecordFilter {
+
+    @Test
+    void rejectsRawRecordsWhereStringNotFoundInKeyValueOrHeaders() {
+      var f = containsStringFilter("abC", UTF_8, UTF_8);
+      assertTrue(f.testRaw(rawRecord("xabCx", "some", Map.of())));
+      assertTrue(f.testRaw(rawRecord(null, "{\"f\": \"abC\"}", Map.of())));
+      assertTrue(f.testRaw(rawRecord(null, null, Map.of("abC", "v"))));
+      assertTrue(f.testRaw(rawRecord(null, null, Map.of("k", "--abC--"))));
+
+      assertFalse(f.testRaw(rawRecord("abc", "ab", Map.of("k", "v"))));
+      assertFalse(f.testRaw(rawRecord(null, null, Map.of())));
+    }
+
+    @Test
+    void findsMultiByteCharacters() {
+      var f = containsStringFilter("привет", UTF_8, UTF_8);
+      assertTrue(f.testRaw(rawRecord(null, "всем привет!", Map.of())));
+      assertFalse(f.testRaw(rawRecord(null, "всем пока!", Map.of())));
+    }
+
+    @Test
+    void passesRawRecordWhenKeyOrValueEncodingIsUnknown() {
+      var f = containsStringFilter("abC", null, UTF_8);
+      assertTrue(f.testRaw(rawRecord("not matching", "not matching", Map.of())));
+      assertFalse(f.testRaw(rawRecord(null, "not matching", Map.of())));
+
+      f = containsStringFilter("abC", null, null);
+      assertTrue(f.testRaw(rawRecord(null, null, Map.of())));
+    }
+
+    @Test
+    void passesAllRawRecordsWhenSearchStringContainsReplacementChar() {
+      var f = containsStringFilter("a\uFFFDb", UTF_8, UTF_8); // replacement char
+      assertTrue(f.testRaw(rawRecord("key", "value", Map.of())));
+    }
+
+    private ConsumerRecord<Bytes, Bytes> rawRecord(String key, String value, Map<String, String> headers) {
+      var recordHeaders = new RecordHeaders();
+      headers.forEach((k, v) -> recordHeaders.add(k, v.getBytes(UTF_8)));
+      return new ConsumerRecord<>(
+          "topic", 0, 0, System.currentTimeMillis(), TimestampType.CREATE_TIME, 0, 0,
+          key != null ? Bytes.wrap(key.getBytes(UTF_8)) : null,
+          value != null ? Bytes.wrap(value.getBytes(UTF_8)) : null,
+          recordHeaders, Optional.empty()
+      );
+    }
+  }
+
   @Nested
   class CelScriptFilter {
 
@@ -213,6 +269,66 @@ class MessageFiltersTest {
       assertFalse(f.test(msg().value(msg)));
     }
 
+    @Test
+    void canUseWholeRecordInScript() {
+      var f = celScriptFilter("[record][0].partition == 1 && [record][0].value.name == 'user1'");
+      assertTrue(f.test(msg().value("{ \"name\" : \"user1\" }")));
+      assertFalse(f.test(msg().value("{ \"name\" : \"user2\" }")));
+    }
+
+  }
+
+  @Nested
+  class CelScriptRawRecordFilter {
+
+    @Test
+    void rejectsRawRecordsByMetadataOnlyConjuncts() {
+      var f = celScriptFilter("record.partition == 1 && record.offset > 10 && record.value.name == 'user1'");
+      assertFalse(f.testRaw(rawRecord(0, 100L, Map.of())));
+      assertFalse(f.testRaw(rawRecord(1, 5L, Map.of())));
+      assertTrue(f.testRaw(rawRecord(1, 100L, Map.of())));
+    }
+
+    @Test
+    void canCheckHeadersOnRawRecord() {
+      var f = celScriptFilter("record.headers['k1'] == 'v1' && record.valueAsText.contains('abc')");
+      assertTrue(f.testRaw(rawRecord(0, 0L, Map.of("k1", "v1"))));
+      assertFalse(f.testRaw(rawRecord(0, 0L, Map.of("k1", "v2"))));
+    }
+
+    @Test
+    void passesRawRecordWhenMetadataConjunctCantBeEvaluated() {
+      // no 'k1' header -> evaluation error, decision deferred to deserialized message check
+      var f = celScriptFilter("record.headers['k1'] == 'v1' && record.partition == 0");
+      assertTrue(f.testRaw(rawRecord(0, 0L, Map.of())));
+    }
+
+    @Test
+    void passesAllRawRecordsWhenNoConjunctIsMetadataOnly() {
+      var f = celScriptFilter("record.partition == 1 || record.value.name == 'user1'");
+      assertTrue(f.testRaw(rawRecord(0, 0L, Map.of())));
+
+      f = celScriptFilter("has(record.key) && record.keyAsText == 'k'");
+      assertTrue(f.testRaw(rawRecord(0, 0L, Map.of())));
+    }
+
+    @Test
+    void combinedFilterAppliesRawChecksOfAllParts() {
+      MessageFilter f = MessageFilters.noop()
+          .and(containsStringFilter("abc"))
+          .and(celScriptFilter("record.partition == 1"));
+      assertFalse(f.testRaw(rawRecord(0, 0L, Map.of())));
+      assertTrue(f.testRaw(rawRecord(1, 0L, Map.of())));
+    }
+
+    private ConsumerRecord<Bytes, Bytes> rawRecord(int partition, long offset, Map<String, String> headers) {
+      var recordHeaders = new RecordHeaders();
+      headers.forEach((k, v) -> recordHeaders.add(k, v.getBytes()));
+      return new ConsumerRecord<>(
+          "topic", partition, offset, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+          0, 0, null, null, recordHeaders, Optional.empty()
+      );
+    }
   }
 
   @Test
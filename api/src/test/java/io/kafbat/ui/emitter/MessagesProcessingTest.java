@@ -2,16 +2,30 @@ package io.kafbat.ui.emitter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.Streams;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.serde.api.Serde;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.serdes.PropertyResolverImpl;
+import io.kafbat.ui.serdes.builtin.StringSerde;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.common.utils.Bytes;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
 
 class MessagesProcessingTest {
 
@@ -58,6 +72,128 @@ class MessagesProcessingTest {
     assertThat(sortedList).containsExactlyElementsOf(messagesInOrder);
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void mergesPartitionsRecordsReturnedByConsumerInOffsetOrder(boolean asc) {
+    // consumer returns contiguous offset-ordered runs of partitions' records, timestamps grow with offsets here
+    var records = new ArrayList<ConsumerRecord<Bytes, Bytes>>();
+    for (int partition = 0; partition < 120; partition++) {
+      long ts = ThreadLocalRandom.current().nextLong(1_000);
+      for (long offset = 0; offset < 5; offset++) {
+        ts += ThreadLocalRandom.current().nextLong(3); // some timestamps are equal
+        records.add(consumerRecord(partition, offset, ts));
+      }
+    }
+    Comparator<ConsumerRecord<Bytes, Bytes>> tsComparator = Comparator.comparingLong(ConsumerRecord::timestamp);
+    var expected = records.stream()
+        .sorted((asc ? tsComparator : tsComparator.reversed())
+            .thenComparingInt(ConsumerRecord::partition)
+            .thenComparingLong(r -> asc ? r.offset() : -r.offset()))
+        .toList();
+
+    assertThat(MessagesProcessing.sortForSending(records, asc)).containsExactlyElementsOf(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void sendsMessagesInSortedOrderRegardlessOfParallelism(int parallelism) {
+    var records = new ArrayList<ConsumerRecord<Bytes, Bytes>>();
+    for (int partition = 0; partition < 8; partition++) {
+      for (long offset = 0; offset < 50; offset++) {
+        records.add(consumerRecord(partition, offset, ThreadLocalRandom.current().nextLong(1_000_000)));
+      }
+    }
+    Collections.shuffle(records);
+
+    var processing = new MessagesProcessing(
+        createStringDeserializer(),
+        msg -> msg.getOffset() % 2 == 0,
+        true,
+        150,
+        parallelism
+    );
+
+    List<TopicMessageDTO> sent = Flux.<TopicMessageEventDTO>create(sink -> {
+          processing.send(sink, records, null);
+          sink.complete();
+        })
+        .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .map(TopicMessageEventDTO::getMessage)
+        .collectList()
+        .block();
+
+    var expected = Streams.stream(MessagesProcessing.sortForSending(records, true))
+        .filter(r -> r.offset() % 2 == 0)
+        .limit(150)
+        .toList();
+
+    assertThat(processing.limitReached()).isTrue();
+    assertThat(sent).hasSize(expected.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(sent.get(i).getPartition()).isEqualTo(expected.get(i).partition());
+      assertThat(sent.get(i).getOffset()).isEqualTo(expected.get(i).offset());
+      assertThat(sent.get(i).getValue()).isEqualTo(new String(expected.get(i).value().get()));
+    }
+  }
+
+  @Test
+  void stopsProcessingBatchWhenLimitIsCovered() {
+    var records = new ArrayList<ConsumerRecord<Bytes, Bytes>>();
+    for (int partition = 0; partition < 4; partition++) {
+      for (long offset = 0; offset < 500; offset++) {
+        records.add(consumerRecord(partition, offset, offset));
+      }
+    }
+    var deserializer = createStringDeserializer();
+    var deserialized = new AtomicInteger();
+    var processing = new MessagesProcessing(
+        rec -> {
+          deserialized.incrementAndGet();
+          return deserializer.deserialize(rec);
+        },
+        msg -> true,
+        true,
+        10,
+        4
+    );
+
+    long sent = Flux.<TopicMessageEventDTO>create(sink -> {
+          processing.send(sink, records, null);
+          sink.complete();
+        })
+        .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .count()
+        .block();
+
+    assertThat(sent).isEqualTo(10);
+    // only units that were already scheduled when limit was covered are processed
+    assertThat(deserialized.get()).isLessThan(records.size() / 4);
+  }
+
+  private static ConsumerRecordDeserializer createStringDeserializer() {
+    Serde s = new StringSerde();
+    s.configure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+    return new ConsumerRecordDeserializer(
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.KEY),
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.VALUE),
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.KEY),
+        s.deserializer(null, Serde.Target.VALUE),
+        msg -> msg
+    );
+  }
+
+  private ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset, long ts) {
+    return new ConsumerRecord<>(
+        "topic", partition, offset, ts,
+        TimestampType.CREATE_TIME,
+        0, 0, null, Bytes.wrap(("value_" + partition + "_" + offset).getBytes()), new RecordHeaders(),
+        Optional.empty()
+    );
+  }
+
   private ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset, String ts) {
     return new ConsumerRecord<>(
         "topic", partition, offset, OffsetDateTime.parse(ts).toInstant().toEpochMilli(),
@@ -0,0 +1,119 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class PolledRecordsCacheTest {
+
+  static final TopicPartition TP0 = new TopicPartition("test", 0);
+  static final TopicPartition TP1 = new TopicPartition("test", 1);
+  static final TopicPartition OTHER_TOPIC_TP = new TopicPartition("other", 0);
+
+  final PolledRecordsCache cache = PolledRecordsCache.create(1024 * 1024, Duration.ofMinutes(1));
+
+  @Test
+  void returnsCachedRangeAndItsSubranges() {
+    cache.put(TP0, 10, 20, records(TP0, 10, 20));
+
+    assertThat(offsets(cache.get(TP0, 10, 20))).containsExactly(10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+    assertThat(offsets(cache.get(TP0, 15, 17))).containsExactly(15L, 16L);
+    assertThat(cache.get(TP1, 10, 20)).isNull();
+  }
+
+  @Test
+  void returnsNullIfRangeIsNotFullyCached() {
+    cache.put(TP0, 10, 20, records(TP0, 10, 20));
+
+    assertThat(cache.get(TP0, 5, 15)).isNull();
+    assertThat(cache.get(TP0, 15, 25)).isNull();
+  }
+
+  @Test
+  void rangeCanBeServedFromAdjacentBatches() {
+    cache.put(TP0, 10, 20, records(TP0, 10, 20));
+    cache.put(TP0, 20, 30, records(TP0, 20, 30));
+
+    assertThat(offsets(cache.get(TP0, 18, 22))).containsExactly(18L, 19L, 20L, 21L);
+  }
+
+  @Test
+  void rangeWithoutRecordsIsCached() {
+    // e.g. compacted or transaction markers-only range
+    cache.put(TP0, 10, 20, List.of());
+
+    assertThat(cache.get(TP0, 10, 20)).isEmpty();
+  }
+
+  @Test
+  void invalidateRemovesOnlyTargetTopicRecords() {
+    cache.put(TP0, 0, 10, records(TP0, 0, 10));
+    cache.put(TP1, 0, 10, records(TP1, 0, 10));
+    cache.put(OTHER_TOPIC_TP, 0, 10, records(OTHER_TOPIC_TP, 0, 10));
+
+    cache.invalidate("test");
+
+    assertThat(cache.get(TP0, 0, 10)).isNull();
+    assertThat(cache.get(TP1, 0, 10)).isNull();
+    assertThat(cache.get(OTHER_TOPIC_TP, 0, 10)).hasSize(10);
+  }
+
+  @Test
+  void batchesAreEvictedWhenSizeLimitExceeded() {
+    // each batch weights 128 + 10 * (100 + 128) = 2408 bytes, so at most 16 batches fit
+    var smallCache = PolledRecordsCache.create(40_000, Duration.ofMinutes(1));
+    for (int i = 0; i < 30; i++) {
+      smallCache.put(TP0, i * 10L, i * 10L + 10, records(TP0, i * 10L, i * 10L + 10));
+    }
+    long cachedBatches = LongStream.range(0, 30)
+        .filter(i -> smallCache.get(TP0, i * 10, i * 10 + 10) != null)
+        .count();
+    assertThat(cachedBatches).isBetween(1L, 16L);
+    assertThat(smallCache.get(TP0, 290, 300)).hasSize(10);
+  }
+
+  @Test
+  void partitionIndexIsDroppedWithItsLastBatch() {
+    var smallCache = PolledRecordsCache.create(40_000, Duration.ofMinutes(1));
+    for (int partition = 0; partition < 30; partition++) {
+      var tp = new TopicPartition("test", partition);
+      smallCache.put(tp, 0, 10, records(tp, 0, 10));
+    }
+    long cachedPartitions = LongStream.range(0, 30)
+        .filter(p -> smallCache.get(new TopicPartition("test", (int) p), 0, 10) != null)
+        .count();
+    assertThat(cachedPartitions).isLessThan(30);
+    assertThat(smallCache.indexedPartitions()).isEqualTo((int) cachedPartitions);
+  }
+
+  @Test
+  void disabledCacheDoesNotStoreRecords() {
+    var disabled = PolledRecordsCache.disabled();
+    disabled.put(TP0, 0, 10, records(TP0, 0, 10));
+    assertThat(disabled.get(TP0, 0, 10)).isNull();
+  }
+
+  private static List<Long> offsets(List<ConsumerRecord<Bytes, Bytes>> records) {
+    return records.stream().map(ConsumerRecord::offset).toList();
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> records(TopicPartition tp, long from, long to) {
+    return LongStream.range(from, to)
+        .mapToObj(offset -> new ConsumerRecord<>(
+            tp.topic(), tp.partition(), offset, 0L, TimestampType.CREATE_TIME,
+            0, 100, null, Bytes.wrap(new byte[100]),
+            new RecordHeaders(), Optional.<Integer>empty()
+        ))
+        .toList();
+  }
+
+}
@@ -0,0 +1,148 @@
+package io.kafbat.ui.emitter;
+
+import static io.kafbat.ui.emitter.PollingAdmission.Priority.ANALYSIS;
+import static io.kafbat.ui.emitter.PollingAdmission.Priority.INTERACTIVE;
+import static io.kafbat.ui.emitter.PollingAdmission.Priority.SCAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import io.kafbat.ui.exception.PollingRejectedException;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PollingAdmissionTest {
+
+  static final Duration LONG_WAIT = Duration.ofMinutes(1);
+
+  // waiting polls block their threads, so they are not run on common pool
+  final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void pollsAboveConcurrencyLimitWaitInQueue() throws Exception {
+    var admission = new PollingAdmission(2, 10, LONG_WAIT, ApplicationMetrics.noop());
+    var first = admission.acquire(INTERACTIVE, p -> { }, () -> false);
+    var second = admission.acquire(INTERACTIVE, p -> { }, () -> false);
+    assertThat(admission.runningPolls()).isEqualTo(2);
+
+    List<Integer> positions = new CopyOnWriteArrayList<>();
+    var third = CompletableFuture.supplyAsync(
+        () -> admission.acquire(INTERACTIVE, positions::add, () -> false), executor);
+    await().until(() -> admission.queuedPolls() == 1);
+    assertThat(third).isNotDone();
+
+    first.close();
+    first.close(); // closing is idempotent
+    assertThat(third.get(5, TimeUnit.SECONDS)).isNotNull();
+    assertThat(positions).containsExactly(1);
+    assertThat(admission.runningPolls()).isEqualTo(2);
+    assertThat(admission.queuedPolls()).isZero();
+
+    second.close();
+    assertThat(admission.runningPolls()).isEqualTo(1);
+  }
+
+  @Test
+  void higherPriorityPollsAreAdmittedFirst() throws Exception {
+    var admission = new PollingAdmission(1, 10, LONG_WAIT, ApplicationMetrics.noop());
+    var running = admission.acquire(INTERACTIVE, p -> { }, () -> false);
+
+    List<PollingAdmission.Priority> admitted = new CopyOnWriteArrayList<>();
+    List<Integer> analysisPositions = new CopyOnWriteArrayList<>();
+    var analysis = enqueue(admission, ANALYSIS, admitted, analysisPositions);
+    await().until(() -> admission.queuedPolls() == 1);
+    var scan = enqueue(admission, SCAN, admitted, new CopyOnWriteArrayList<>());
+    await().until(() -> analysisPositions.contains(2));
+    var interactive = enqueue(admission, INTERACTIVE, admitted, new CopyOnWriteArrayList<>());
+    // analysis is moved back in queue by later, but more important polls
+    await().until(() -> analysisPositions.contains(3));
+    assertThat(analysisPositions).containsExactly(1, 2, 3);
+
+    running.close();
+    CompletableFuture.allOf(analysis, scan, interactive).get(5, TimeUnit.SECONDS);
+    assertThat(admitted).containsExactly(INTERACTIVE, SCAN, ANALYSIS);
+  }
+
+  @Test
+  void lowerPriorityPollIsDisplacedWhenQueueIsFull() throws Exception {
+    var admission = new PollingAdmission(1, 1, LONG_WAIT, ApplicationMetrics.noop());
+    var running = admission.acquire(INTERACTIVE, p -> { }, () -> false);
+
+    var scan = CompletableFuture.supplyAsync(() -> admission.acquire(SCAN, p -> { }, () -> false), executor);
+    await().until(() -> admission.queuedPolls() == 1);
+
+    // same priority poll can't displace waiting one
+    assertThatThrownBy(() -> admission.acquire(SCAN, p -> { }, () -> false))
+        .isInstanceOf(PollingRejectedException.class);
+
+    var interactive = CompletableFuture.supplyAsync(
+        () -> admission.acquire(INTERACTIVE, p -> { }, () -> false), executor);
+    assertThatThrownBy(() -> scan.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(PollingRejectedException.class);
+
+    running.close();
+    assertThat(interactive.get(5, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  @Test
+  void pollIsRejectedWhenItWaitedTooLong() {
+    var admission = new PollingAdmission(1, 10, Duration.ofMillis(300), ApplicationMetrics.noop());
+    admission.acquire(INTERACTIVE, p -> { }, () -> false);
+
+    assertThatThrownBy(() -> admission.acquire(INTERACTIVE, p -> { }, () -> false))
+        .isInstanceOf(PollingRejectedException.class);
+    assertThat(admission.queuedPolls()).isZero();
+  }
+
+  @Test
+  void returnsNullWhenPollIsCancelledWhileWaiting() throws Exception {
+    var admission = new PollingAdmission(1, 10, LONG_WAIT, ApplicationMetrics.noop());
+    admission.acquire(INTERACTIVE, p -> { }, () -> false);
+
+    var cancelled = new AtomicBoolean();
+    var waiting = CompletableFuture.supplyAsync(
+        () -> admission.acquire(INTERACTIVE, p -> { }, cancelled::get), executor);
+    await().until(() -> admission.queuedPolls() == 1);
+
+    cancelled.set(true);
+    assertThat(waiting.get(5, TimeUnit.SECONDS)).isNull();
+    assertThat(admission.queuedPolls()).isZero();
+  }
+
+  @Test
+  void unlimitedAdmissionNeverQueues() {
+    var admission = PollingAdmission.unlimited();
+    for (int i = 0; i < 1_000; i++) {
+      assertThat(admission.acquire(SCAN, p -> { }, () -> false)).isNotNull();
+    }
+    assertThat(admission.queuedPolls()).isZero();
+  }
+
+  private CompletableFuture<Void> enqueue(PollingAdmission admission,
+                                          PollingAdmission.Priority priority,
+                                          List<PollingAdmission.Priority> admitted,
+                                          List<Integer> positions) {
+    return CompletableFuture.runAsync(() -> {
+      try (var permit = admission.acquire(priority, positions::add, () -> false)) {
+        admitted.add(priority);
+      }
+    }, executor);
+  }
+
+}
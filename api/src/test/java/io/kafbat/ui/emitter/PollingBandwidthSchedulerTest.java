@@ -0,0 +1,132 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PollingBandwidthSchedulerTest {
+
+  static final int RATE = 100_000;
+  static final int POLL_BYTES = 1_000;
+  static final Duration TEST_DURATION = Duration.ofSeconds(10);
+
+  // virtual time, advanced by pacer as if bytes were paced at RATE
+  final AtomicLong nanos = new AtomicLong();
+  final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+  final AtomicInteger runningStreams = new AtomicInteger();
+  PollingBandwidthScheduler scheduler;
+
+  final PollingBandwidthScheduler.Pacer pacer = new PollingBandwidthScheduler.Pacer() {
+    @Override
+    public void acquire(int bytes) {
+      // pacing only when all other streams wait for bandwidth, so results don't depend on threads scheduling
+      while (scheduler.waitingPolls() < runningStreams.get() - 1) {
+        Thread.onSpinWait();
+      }
+      nanos.addAndGet(TimeUnit.SECONDS.toNanos(bytes) / RATE);
+    }
+
+    @Override
+    public double getRate() {
+      return RATE;
+    }
+  };
+
+  @Test
+  void usersGetEqualBandwidthRegardlessOfTheirStreamsCount() throws Exception {
+    scheduler = new PollingBandwidthScheduler(pacer, Map.of(), ApplicationMetrics.noop(), ticker);
+    var heavyUserBytes = new AtomicLong();
+    var lightUserBytes = new AtomicLong();
+
+    runPolling(
+        List.of(
+            new PollingStream("heavy", heavyUserBytes),
+            new PollingStream("heavy", heavyUserBytes),
+            new PollingStream("heavy", heavyUserBytes),
+            new PollingStream("light", lightUserBytes)
+        )
+    );
+
+    double ratio = (double) lightUserBytes.get() / heavyUserBytes.get();
+    assertThat(ratio).isBetween(0.9, 1.1);
+  }
+
+  @Test
+  void bandwidthIsSharedProportionallyToUserWeights() throws Exception {
+    scheduler = new PollingBandwidthScheduler(pacer, Map.of("admin", 3), ApplicationMetrics.noop(), ticker);
+    var adminBytes = new AtomicLong();
+    var userBytes = new AtomicLong();
+
+    runPolling(
+        List.of(
+            new PollingStream("admin", adminBytes),
+            new PollingStream("user", userBytes)
+        )
+    );
+
+    double ratio = (double) adminBytes.get() / userBytes.get();
+    assertThat(ratio).isBetween(2.7, 3.3);
+  }
+
+  @Test
+  void singleUserCanUseWholeBandwidth() throws Exception {
+    scheduler = new PollingBandwidthScheduler(pacer, Map.of(), ApplicationMetrics.noop(), ticker);
+    var polledBytes = new AtomicLong();
+
+    runPolling(List.of(new PollingStream("single", polledBytes)));
+
+    double expected = RATE * (TEST_DURATION.toMillis() / 1000.0);
+    assertThat((double) polledBytes.get()).isBetween(expected * 0.99, expected * 1.01);
+  }
+
+  @Test
+  void usersWithoutActiveStreamsAreForgotten() throws Exception {
+    scheduler = new PollingBandwidthScheduler(pacer, Map.of(), ApplicationMetrics.noop(), ticker);
+    scheduler.acquire(PollingBandwidthScheduler.share("gone"), POLL_BYTES);
+    assertThat(scheduler.activeUsers()).isEqualTo(1);
+
+    runPolling(List.of(new PollingStream("active", new AtomicLong())));
+
+    assertThat(scheduler.activeUsers()).isEqualTo(1);
+  }
+
+  private record PollingStream(String user, AtomicLong polledBytes) {
+  }
+
+  private void runPolling(List<PollingStream> streams) throws Exception {
+    long deadline = ticker.read() + TEST_DURATION.toNanos();
+    runningStreams.set(streams.size());
+    List<Thread> threads = new ArrayList<>();
+    for (PollingStream stream : streams) {
+      var share = PollingBandwidthScheduler.share(stream.user());
+      threads.add(Thread.ofPlatform().start(() -> {
+        try {
+          while (ticker.read() < deadline) {
+            scheduler.acquire(share, POLL_BYTES);
+            stream.polledBytes().addAndGet(POLL_BYTES);
+          }
+        } finally {
+          runningStreams.decrementAndGet();
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class RangePollingEmitterTest {
+
+  @Test
+  void parallelPollReturnsAllTasksResults() {
+    List<Function<BooleanSupplier, List<Integer>>> tasks = List.of(
+        stopped -> List.of(1, 2),
+        stopped -> List.of(3)
+    );
+
+    assertThat(RangePollingEmitter.pollInParallel(tasks, () -> false)).containsExactlyInAnyOrder(1, 2, 3);
+  }
+
+  @Test
+  void parallelPollWaitsForAllTasksWhenOneOfScannersFails() {
+    var pollingStarted = new CountDownLatch(1);
+    var stillPolling = new AtomicBoolean();
+    List<Function<BooleanSupplier, List<Integer>>> tasks = List.of(
+        stopped -> {
+          stillPolling.set(true);
+          pollingStarted.countDown();
+          // emulates blocking poll loop, that only checks stop condition between polls
+          while (!stopped.getAsBoolean()) {
+            Thread.onSpinWait();
+          }
+          sleep(100);
+          stillPolling.set(false);
+          return List.of(1);
+        },
+        stopped -> {
+          await(pollingStarted);
+          throw new IllegalStateException("scanner failed");
+        }
+    );
+
+    assertThatThrownBy(() -> RangePollingEmitter.pollInParallel(tasks, () -> false))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("scanner failed");
+    // no task uses its consumer after error is propagated, so consumers can be safely closed
+    assertThat(stillPolling).isFalse();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+class SinkDemandTest {
+
+  // 256 bytes overhead + 100 chars value
+  static final long MESSAGE_SIZE = 256 + 200;
+
+  final AtomicReference<FluxSink<TopicMessageEventDTO>> sinkRef = new AtomicReference<>();
+  final AtomicReference<SinkDemand> demandRef = new AtomicReference<>();
+
+  final BaseSubscriber<TopicMessageEventDTO> subscriber = new BaseSubscriber<>() {
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      request(1);
+    }
+  };
+
+  void subscribe(long maxBufferedBytes) {
+    Flux.<TopicMessageEventDTO>create(sink -> {
+      demandRef.set(SinkDemand.track(sink, maxBufferedBytes, ApplicationMetrics.noop()));
+      sinkRef.set(sink);
+    }).subscribe(subscriber);
+  }
+
+  @Test
+  void eventsEmittedAheadOfDemandAreCountedAsBuffered() {
+    subscribe(Long.MAX_VALUE);
+    var demand = demandRef.get();
+
+    emit(3);
+    assertThat(demand.bufferedBytes()).isEqualTo(2 * MESSAGE_SIZE);
+
+    subscriber.request(1);
+    assertThat(demand.bufferedBytes()).isEqualTo(MESSAGE_SIZE);
+
+    subscriber.request(10);
+    assertThat(demand.bufferedBytes()).isZero();
+
+    // remaining demand is used before buffering
+    emit(9);
+    assertThat(demand.bufferedBytes()).isZero();
+    emit(1);
+    assertThat(demand.bufferedBytes()).isEqualTo(MESSAGE_SIZE);
+  }
+
+  @Test
+  void awaitDemandBlocksUntilSubscriberRequestsBufferedEvents() throws Exception {
+    subscribe(MESSAGE_SIZE);
+    emit(3); // one is requested, two are buffered
+
+    var awaiting = CompletableFuture.runAsync(() -> demandRef.get().awaitDemand());
+    Thread.sleep(200);
+    assertThat(awaiting).isNotDone();
+
+    subscriber.request(1);
+    awaiting.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void awaitDemandReturnsWhenSinkIsCancelled() throws Exception {
+    subscribe(MESSAGE_SIZE);
+    emit(3);
+
+    var awaiting = CompletableFuture.runAsync(() -> demandRef.get().awaitDemand());
+    subscriber.cancel();
+    awaiting.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void untrackedDemandNeverBlocks() {
+    var untracked = SinkDemand.untracked();
+    untracked.emitted(message());
+    untracked.awaitDemand();
+    assertThat(untracked.bufferedBytes()).isZero();
+  }
+
+  private void emit(int count) {
+    for (int i = 0; i < count; i++) {
+      var event = message();
+      demandRef.get().emitted(event);
+      sinkRef.get().next(event);
+    }
+  }
+
+  private static TopicMessageEventDTO message() {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .message(new TopicMessageDTO().value("v".repeat(100)));
+  }
+
+}
@@ -0,0 +1,119 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.model.TailingSamplingStrategyDTO;
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessagePhaseDTO;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class TailingBatchingTest {
+
+  // longer than test execution, so all events go to single frame
+  static final Duration INTERVAL = Duration.ofMinutes(1);
+
+  @Test
+  void sendsAllMessagesInSingleBatchWhenLimitNotExceeded() {
+    var frame = frame(TailingSamplingStrategyDTO.UNIFORM, 10, messages(5));
+    assertThat(frame).hasSize(1);
+    assertThat(frame.get(0).getType()).isEqualTo(TopicMessageEventDTO.TypeEnum.MESSAGES_BATCH);
+    assertThat(offsets(frame.get(0))).containsExactly(0L, 1L, 2L, 3L, 4L);
+    assertThat(frame.get(0).getMessagesBatch().getSkippedMessages()).isZero();
+  }
+
+  @Test
+  void firstStrategyKeepsEarliestMessages() {
+    var batch = frame(TailingSamplingStrategyDTO.FIRST, 3, messages(10)).get(0);
+    assertThat(offsets(batch)).containsExactly(0L, 1L, 2L);
+    assertThat(batch.getMessagesBatch().getSkippedMessages()).isEqualTo(7);
+    assertThat(batch.getMessagesBatch().getSampling()).isEqualTo(TailingSamplingStrategyDTO.FIRST);
+  }
+
+  @Test
+  void lastStrategyKeepsLatestMessagesInOrder() {
+    var batch = frame(TailingSamplingStrategyDTO.LAST, 3, messages(10)).get(0);
+    assertThat(offsets(batch)).containsExactly(7L, 8L, 9L);
+    assertThat(batch.getMessagesBatch().getSkippedMessages()).isEqualTo(7);
+  }
+
+  @Test
+  void uniformStrategyKeepsMaxMessagesInOrder() {
+    var batch = frame(TailingSamplingStrategyDTO.UNIFORM, 10, messages(1000)).get(0);
+    assertThat(offsets(batch))
+        .hasSize(10)
+        .doesNotHaveDuplicates()
+        .isSorted()
+        .allMatch(o -> o >= 0 && o < 1000);
+    assertThat(batch.getMessagesBatch().getSkippedMessages()).isEqualTo(990);
+  }
+
+  @Test
+  void onlyLatestPhaseAndConsumingEventsAreSent() {
+    List<TopicMessageEventDTO> events = new ArrayList<>();
+    events.add(phase("p1"));
+    events.add(consuming(1));
+    events.addAll(messages(2));
+    events.add(phase("p2"));
+    events.add(consuming(2));
+
+    var frame = frame(TailingSamplingStrategyDTO.LAST, 10, events);
+    assertThat(frame)
+        .map(TopicMessageEventDTO::getType)
+        .containsExactly(
+            TopicMessageEventDTO.TypeEnum.PHASE,
+            TopicMessageEventDTO.TypeEnum.CONSUMING,
+            TopicMessageEventDTO.TypeEnum.MESSAGES_BATCH
+        );
+    assertThat(frame.get(0).getPhase().getName()).isEqualTo("p2");
+    assertThat(frame.get(1).getConsuming().getMessagesConsumed()).isEqualTo(2);
+  }
+
+  @Test
+  void batchIsNotSentWhenNoMessagesMatched() {
+    var frame = frame(TailingSamplingStrategyDTO.LAST, 10, List.of(phase("p")));
+    assertThat(frame)
+        .map(TopicMessageEventDTO::getType)
+        .containsExactly(TopicMessageEventDTO.TypeEnum.PHASE);
+  }
+
+  private static List<TopicMessageEventDTO> frame(TailingSamplingStrategyDTO strategy,
+                                                  int maxMessages,
+                                                  List<TopicMessageEventDTO> events) {
+    return Flux.fromIterable(events)
+        .transform(TailingBatching.batching(strategy, INTERVAL, maxMessages))
+        .collectList()
+        .block();
+  }
+
+  private static List<Long> offsets(TopicMessageEventDTO batchEvent) {
+    return batchEvent.getMessagesBatch().getMessages().stream().map(TopicMessageDTO::getOffset).toList();
+  }
+
+  private static List<TopicMessageEventDTO> messages(int count) {
+    return LongStream.range(0, count)
+        .mapToObj(i -> new TopicMessageEventDTO()
+            .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+            .message(new TopicMessageDTO().offset(i)))
+        .toList();
+  }
+
+  private static TopicMessageEventDTO phase(String name) {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.PHASE)
+        .phase(new TopicMessagePhaseDTO().name(name));
+  }
+
+  private static TopicMessageEventDTO consuming(int consumed) {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.CONSUMING)
+        .consuming(new TopicMessageConsumingDTO().messagesConsumed(consumed));
+  }
+
+}
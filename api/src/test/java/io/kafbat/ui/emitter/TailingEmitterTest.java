@@ -101,6 +101,46 @@ class TailingEmitterTest extends AbstractIntegrationTest {
         );
   }
 
+  @Test
+  void concurrentSubscribersOfSameTopicReceiveMessagesAccordingToTheirFilters() throws Exception {
+    var allMessagesOutput = startTailing(null);
+
+    List<TopicMessageEventDTO> goodMessagesOutput = new CopyOnWriteArrayList<>();
+    Disposable goodMessagesTailing = createTailingFlux(topic, "good")
+        .doOnNext(goodMessagesOutput::add)
+        .subscribe();
+    try {
+      waitUntilTailingInitialized(goodMessagesOutput);
+
+      List<String> allValues = new ArrayList<>();
+      List<String> goodValues = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        String value = i + (i % 2 == 0 ? "_good" : "_bad");
+        producer.send(new ProducerRecord<>(topic, i + "", value)).get();
+        allValues.add(value);
+        if (i % 2 == 0) {
+          goodValues.add(value);
+        }
+      }
+
+      Awaitility.await()
+          .atMost(Duration.ofSeconds(60))
+          .pollInSameThread()
+          .untilAsserted(() -> {
+            assertThat(allMessagesOutput)
+                .filteredOn(msg -> msg.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+                .extracting(msg -> msg.getMessage().getValue())
+                .hasSameElementsAs(allValues);
+            assertThat(goodMessagesOutput)
+                .filteredOn(msg -> msg.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+                .extracting(msg -> msg.getMessage().getValue())
+                .hasSameElementsAs(goodValues);
+          });
+    } finally {
+      goodMessagesTailing.dispose();
+    }
+  }
+
   private Flux<TopicMessageEventDTO> createTailingFlux(
       String topicName,
       String query) {
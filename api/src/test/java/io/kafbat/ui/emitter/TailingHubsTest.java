@@ -0,0 +1,82 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class TailingHubsTest {
+
+  static final Duration GRACE_PERIOD = Duration.ofSeconds(10);
+  static final TailingHub.Key KEY = new TailingHub.Key("cluster", "topic", "String", "String");
+
+  final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+  final TailingHubs hubs = new TailingHubs(GRACE_PERIOD, scheduler);
+  final List<TailingHub> created = new CopyOnWriteArrayList<>();
+
+  @Test
+  void hubIsReusedBySubscriberArrivingWithinGracePeriod() {
+    subscribe().dispose();
+    scheduler.advanceTimeBy(GRACE_PERIOD.minusSeconds(1));
+
+    var second = subscribe();
+    scheduler.advanceTimeBy(GRACE_PERIOD.multipliedBy(2));
+
+    assertThat(created).hasSize(1);
+    assertThat(created.get(0).isTerminated()).isFalse();
+    assertThat(hubs.size()).isEqualTo(1);
+    second.dispose();
+  }
+
+  @Test
+  void unusedHubIsShutDownAndRemovedAfterGracePeriod() {
+    subscribe().dispose();
+    scheduler.advanceTimeBy(GRACE_PERIOD);
+
+    assertThat(created).hasSize(1);
+    assertThat(created.get(0).isTerminated()).isTrue();
+    assertThat(hubs.size()).isZero();
+
+    // next subscriber gets a new hub, stopped one is never restarted
+    subscribe();
+    assertThat(created).hasSize(2);
+    assertThat(created.get(1).isTerminated()).isFalse();
+  }
+
+  @Test
+  void hubIsKeptWhileAnySubscriberHoldsIt() {
+    var first = subscribe();
+    var second = subscribe();
+    first.dispose();
+    scheduler.advanceTimeBy(GRACE_PERIOD.multipliedBy(2));
+
+    assertThat(created).hasSize(1);
+    assertThat(created.get(0).isTerminated()).isFalse();
+    second.dispose();
+  }
+
+  private Disposable subscribe() {
+    return hubs.withHub(KEY, this::newHub, hub -> Flux.never()).subscribe();
+  }
+
+  private TailingHub newHub() {
+    var hub = new TailingHub(
+        () -> {
+          throw new IllegalStateException("hub is not polled in this test");
+        },
+        KEY.topic(),
+        mock(ConsumerRecordDeserializer.class),
+        PollingSettings.createDefault()
+    );
+    created.add(hub);
+    return hub;
+  }
+
+}
@@ -0,0 +1,106 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.model.Statistics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class ClustersStatisticsSchedulerTest {
+
+  final VirtualTimeScheduler time = VirtualTimeScheduler.create();
+  final ClustersStorage storage = mock(ClustersStorage.class);
+  final StatisticsService statisticsService = mock(StatisticsService.class);
+  final ClustersProperties properties = new ClustersProperties();
+
+  ClustersStatisticsScheduler scheduler;
+
+  @AfterEach
+  void close() {
+    scheduler.close();
+    time.dispose();
+  }
+
+  @Test
+  void hungClusterDoesNotDelayOtherClustersUpdates() {
+    var healthy = cluster("healthy", null, null);
+    var hung = cluster("hung", null, 60_000);
+    var healthyUpdates = updates(healthy, Mono.just(onlineStats()));
+    var hungUpdates = updates(hung, Mono.never());
+    start(healthy, hung);
+
+    time.advanceTimeBy(Duration.ofSeconds(95));
+
+    // at 0s, 30s, 60s and 90s
+    assertThat(healthyUpdates).hasValue(4);
+    // at 0s (timed out at 60s) and at 60s, ticks at 30s and 90s are skipped while update is running
+    assertThat(hungUpdates).hasValue(2);
+  }
+
+  @Test
+  void usesClusterSpecificInterval() {
+    var fast = cluster("fast", 10_000, null);
+    var fastUpdates = updates(fast, Mono.just(onlineStats()));
+    start(fast);
+
+    time.advanceTimeBy(Duration.ofSeconds(35));
+
+    assertThat(fastUpdates).hasValue(4);
+  }
+
+  @Test
+  void spreadsFirstUpdatesOverInterval() {
+    var cluster = cluster("c", null, null);
+    var updates = updates(cluster, Mono.just(onlineStats()));
+    scheduler = new ClustersStatisticsScheduler(
+        storage, statisticsService, properties, Duration.ofSeconds(30), time, bound -> bound / 2);
+    when(storage.getKafkaClusters()).thenReturn(List.of(cluster));
+    scheduler.start();
+
+    time.advanceTimeBy(Duration.ofSeconds(14));
+    assertThat(updates).hasValue(0);
+
+    time.advanceTimeBy(Duration.ofSeconds(1));
+    assertThat(updates).hasValue(1);
+  }
+
+  private void start(KafkaCluster... clusters) {
+    when(storage.getKafkaClusters()).thenReturn(List.of(clusters));
+    scheduler = new ClustersStatisticsScheduler(
+        storage, statisticsService, properties, Duration.ofSeconds(30), time, bound -> 0);
+    scheduler.start();
+  }
+
+  private AtomicInteger updates(KafkaCluster cluster, Mono<Statistics> result) {
+    var counter = new AtomicInteger();
+    when(statisticsService.updateCache(cluster))
+        .thenReturn(Mono.defer(() -> {
+          counter.incrementAndGet();
+          return result;
+        }));
+    return counter;
+  }
+
+  private static Statistics onlineStats() {
+    return Statistics.empty().toBuilder().status(ServerStatusDTO.ONLINE).build();
+  }
+
+  private static KafkaCluster cluster(String name, Integer refreshMs, Integer timeoutMs) {
+    var props = new ClustersProperties.Cluster();
+    props.setName(name);
+    props.setStatisticsRefreshMs(refreshMs);
+    props.setStatisticsTimeoutMs(timeoutMs);
+    return KafkaCluster.builder().name(name).originalProperties(props).build();
+  }
+
+}
@@ -0,0 +1,138 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.PollingModeDTO;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class PollingCursorsCodecTest {
+
+  private static final String TOPIC = "test-topic";
+
+  private final PollingCursorsCodec codec = new PollingCursorsCodec("secret");
+
+  @Test
+  void cursorStateCanBeRestoredFromTokenByOtherInstanceWithSameKey() {
+    var state = new PollingCursorsCodec.CursorState(
+        new ConsumerPosition(
+            PollingModeDTO.FROM_OFFSET,
+            TOPIC,
+            List.of(new TopicPartition(TOPIC, 5), new TopicPartition(TOPIC, 0)),
+            null,
+            new ConsumerPosition.Offsets(
+                null,
+                Map.of(
+                    new TopicPartition(TOPIC, 0), 0L,
+                    new TopicPartition(TOPIC, 5), 123_456_789_012L
+                )
+            )
+        ),
+        "String",
+        "SchemaRegistry",
+        "some text",
+        "record.partition == 5",
+        100
+    );
+
+    String token = codec.encode("cluster", state);
+
+    var restored = new PollingCursorsCodec("secret").decode("cluster", token);
+    assertThat(restored.keySerde()).isEqualTo("String");
+    assertThat(restored.valueSerde()).isEqualTo("SchemaRegistry");
+    assertThat(restored.containsStringFilter()).isEqualTo("some text");
+    assertThat(restored.smartFilterCode()).isEqualTo("record.partition == 5");
+    assertThat(restored.limit()).isEqualTo(100);
+
+    var position = restored.consumerPosition();
+    assertThat(position.pollingMode()).isEqualTo(PollingModeDTO.FROM_OFFSET);
+    assertThat(position.topic()).isEqualTo(TOPIC);
+    assertThat(position.partitions())
+        .containsExactly(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 5));
+    assertThat(position.offsets().tpOffsets())
+        .containsExactlyInAnyOrderEntriesOf(state.consumerPosition().offsets().tpOffsets());
+  }
+
+  @Test
+  void nullableFieldsAreRestored() {
+    var state = new PollingCursorsCodec.CursorState(
+        new ConsumerPosition(
+            PollingModeDTO.TO_OFFSET,
+            TOPIC,
+            List.of(),
+            null,
+            new ConsumerPosition.Offsets(null, Map.of(new TopicPartition(TOPIC, 1), 10L))
+        ),
+        "String",
+        "String",
+        null,
+        null,
+        50
+    );
+
+    var restored = codec.decode("cluster", codec.encode("cluster", state));
+    assertThat(restored.containsStringFilter()).isNull();
+    assertThat(restored.smartFilterCode()).isNull();
+    assertThat(restored.consumerPosition().pollingMode()).isEqualTo(PollingModeDTO.TO_OFFSET);
+    assertThat(restored.consumerPosition().partitions()).isEmpty();
+  }
+
+  @Test
+  void tokenSignedWithOtherKeyOrForOtherClusterIsRejected() {
+    var state = new PollingCursorsCodec.CursorState(
+        new ConsumerPosition(
+            PollingModeDTO.TO_OFFSET,
+            TOPIC,
+            List.of(),
+            null,
+            new ConsumerPosition.Offsets(null, Map.of(new TopicPartition(TOPIC, 0), 10L))
+        ),
+        "String",
+        "String",
+        null,
+        null,
+        50
+    );
+    String token = codec.encode("cluster", state);
+
+    assertThatThrownBy(() -> new PollingCursorsCodec("other-secret").decode("cluster", token))
+        .isInstanceOf(ValidationException.class);
+
+    assertThatThrownBy(() -> codec.decode("other-cluster", token))
+        .isInstanceOf(ValidationException.class);
+  }
+
+  @Test
+  void tamperedTokenIsRejected() {
+    var state = new PollingCursorsCodec.CursorState(
+        new ConsumerPosition(
+            PollingModeDTO.TO_OFFSET,
+            TOPIC,
+            List.of(),
+            null,
+            new ConsumerPosition.Offsets(null, Map.of(new TopicPartition(TOPIC, 0), 10L))
+        ),
+        "String",
+        "String",
+        null,
+        null,
+        50
+    );
+    byte[] bytes = Base64.getUrlDecoder().decode(codec.encode("cluster", state));
+    bytes[bytes.length / 2] ^= 1;
+    String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    assertThatThrownBy(() -> codec.decode("cluster", tampered))
+        .isInstanceOf(ValidationException.class);
+
+    assertThatThrownBy(() -> codec.decode("cluster", "not a token"))
+        .isInstanceOf(ValidationException.class);
+  }
+
+}
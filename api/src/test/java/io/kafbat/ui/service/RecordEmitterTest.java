@@ -9,6 +9,7 @@ import static io.kafbat.ui.model.PollingModeDTO.TO_TIMESTAMP;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.kafbat.ui.AbstractIntegrationTest;
+import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.emitter.BackwardEmitter;
 import io.kafbat.ui.emitter.Cursor;
 import io.kafbat.ui.emitter.EnhancedConsumer;
@@ -180,6 +181,38 @@ class RecordEmitterTest extends AbstractIntegrationTest {
     expectEmitter(backwardEmitter, expectedValues);
   }
 
+  @Test
+  void pollFullTopicWithParallelScanConsumers() {
+    var cluster = new ClustersProperties.Cluster();
+    cluster.setPollingScanConsumers(3);
+    var pollingSettings = PollingSettings.create(cluster, new ClustersProperties());
+
+    var forwardEmitter = new ForwardEmitter(
+        this::createConsumer,
+        new ConsumerPosition(EARLIEST, TOPIC, List.of(), null, null),
+        PARTITIONS * MSGS_PER_PARTITION,
+        RECORD_DESERIALIZER,
+        NOOP_FILTER,
+        pollingSettings,
+        CURSOR_MOCK
+    );
+
+    var backwardEmitter = new BackwardEmitter(
+        this::createConsumer,
+        new ConsumerPosition(LATEST, TOPIC, List.of(), null, null),
+        PARTITIONS * MSGS_PER_PARTITION,
+        RECORD_DESERIALIZER,
+        NOOP_FILTER,
+        pollingSettings,
+        CURSOR_MOCK
+    );
+
+    List<String> expectedValues = SENT_RECORDS.stream().map(Record::getValue).collect(Collectors.toList());
+
+    expectEmitter(forwardEmitter, expectedValues);
+    expectEmitter(backwardEmitter, expectedValues);
+  }
+
   @Test
   void pollWithOffsets() {
     Map<TopicPartition, Long> targetOffsets = new HashMap<>();
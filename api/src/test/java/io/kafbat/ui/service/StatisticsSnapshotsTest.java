@@ -0,0 +1,145 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import io.kafbat.ui.model.ClusterFeature;
+import io.kafbat.ui.model.InternalLogDirStats;
+import io.kafbat.ui.model.Metrics;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.model.Statistics;
+import io.kafbat.ui.service.metrics.MetricsColumns;
+import io.kafbat.ui.service.metrics.RawMetric;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StatisticsSnapshotsTest {
+
+  static final String CLUSTER = "local/cluster";
+
+  @TempDir
+  Path dir;
+
+  final AtomicLong nanos = new AtomicLong();
+
+  @Test
+  void restoresSavedStatisticsAsStale() {
+    var snapshots = snapshots(Duration.ofMinutes(5));
+    var stats = statistics();
+
+    snapshots.saveIfDue(CLUSTER, stats).block();
+    var loaded = snapshots.load(CLUSTER).orElseThrow();
+
+    assertThat(loaded.isStale()).isTrue();
+    assertThat(loaded.getStatus()).isEqualTo(ServerStatusDTO.ONLINE);
+    assertThat(loaded.getVersion()).isEqualTo(stats.getVersion());
+    assertThat(loaded.getFeatures()).isEqualTo(stats.getFeatures());
+    assertThat(loaded.getClusterDescription()).isEqualTo(stats.getClusterDescription());
+    assertThat(loaded.getTopicDescriptions()).isEqualTo(stats.getTopicDescriptions());
+    assertThat(loaded.getTopicConfigs()).isEqualTo(stats.getTopicConfigs());
+    assertThat(loaded.getLogDirInfo()).isEqualTo(stats.getLogDirInfo());
+    assertThat(loaded.getMetrics()).isEqualTo(stats.getMetrics());
+  }
+
+  @Test
+  void savesOnlyOnlineStatisticsOncePerInterval() throws Exception {
+    var snapshots = snapshots(Duration.ofMinutes(5));
+
+    snapshots.saveIfDue(CLUSTER, Statistics.empty()).block();
+    assertThat(snapshots.load(CLUSTER)).isEmpty();
+
+    snapshots.saveIfDue(CLUSTER, statistics()).block();
+    Files.delete(Files.list(dir).findFirst().orElseThrow());
+
+    nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+    snapshots.saveIfDue(CLUSTER, statistics()).block();
+    assertThat(dir).isEmptyDirectory();
+
+    nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+    snapshots.saveIfDue(CLUSTER, statistics()).block();
+    assertThat(snapshots.load(CLUSTER)).isPresent();
+  }
+
+  @Test
+  void ignoresCorruptedSnapshot() throws Exception {
+    var snapshots = snapshots(Duration.ofMinutes(5));
+    snapshots.saveIfDue(CLUSTER, statistics()).block();
+    var file = Files.list(dir).findFirst().orElseThrow();
+    Files.writeString(file, "not a snapshot");
+
+    assertThat(snapshots.load(CLUSTER)).isEmpty();
+  }
+
+  @Test
+  void disabledWhenDirectoryNotConfigured() {
+    var snapshots = new StatisticsSnapshots(null, Duration.ZERO, Ticker.systemTicker());
+
+    snapshots.saveIfDue(CLUSTER, statistics()).block();
+
+    assertThat(snapshots.load(CLUSTER)).isEmpty();
+  }
+
+  private StatisticsSnapshots snapshots(Duration saveInterval) {
+    return new StatisticsSnapshots(dir, saveInterval, new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    });
+  }
+
+  private static Statistics statistics() {
+    var n1 = new Node(1, "broker1", 9092, "rack1");
+    var n2 = new Node(2, "broker2", 9092);
+    var offline = new Node(3, "", -1);
+    var topic = new TopicDescription("topic", false,
+        List.of(
+            new TopicPartitionInfo(0, n1, List.of(n1, n2), List.of(n1, n2)),
+            new TopicPartitionInfo(1, null, List.of(offline), List.of())),
+        null, Uuid.randomUuid());
+    var configs = List.of(
+        new ConfigEntry("retention.ms", "1000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG, false, false,
+            List.of(
+                new ConfigEntry.ConfigSynonym("retention.ms", "1000", ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG),
+                new ConfigEntry.ConfigSynonym("log.retention.ms", null, ConfigEntry.ConfigSource.DEFAULT_CONFIG)),
+            ConfigEntry.ConfigType.LONG, "retention doc"),
+        new ConfigEntry("ssl.password", null, ConfigEntry.ConfigSource.DEFAULT_CONFIG, true, false,
+            List.of(), ConfigEntry.ConfigType.PASSWORD, null));
+    return Statistics.empty().toBuilder()
+        .status(ServerStatusDTO.ONLINE)
+        .version("3.7")
+        .features(List.of(ClusterFeature.TOPIC_DELETION))
+        .clusterDescription(new ReactiveAdminClient.ClusterDescription(n1, "cluster-id", List.of(n1, n2), Set.of()))
+        .metrics(Metrics.builder()
+            .brokerBytesInPerSec(Map.of(1, new BigDecimal("1.5")))
+            .brokerBytesOutPerSec(Map.of(1, new BigDecimal("2.5")))
+            .topicBytesInPerSec(Map.of("topic", BigDecimal.ONE))
+            .topicBytesOutPerSec(Map.of("topic", BigDecimal.TEN))
+            .perBrokerMetrics(MetricsColumns.builder()
+                .addAll(1, List.of(RawMetric.create("m", Map.of("l", "v"), new BigDecimal("3.25"))))
+                .build())
+            .build())
+        .logDirInfo(new InternalLogDirStats(
+            Map.of(new TopicPartition("topic", 0), new InternalLogDirStats.SegmentStats(100, 2)),
+            Map.of("topic", new InternalLogDirStats.SegmentStats(100, 2)),
+            Map.of(1, new InternalLogDirStats.SegmentStats(100, 2))))
+        .topicDescriptions(Map.of("topic", topic))
+        .topicConfigs(Map.of("topic", configs))
+        .build();
+  }
+
+}
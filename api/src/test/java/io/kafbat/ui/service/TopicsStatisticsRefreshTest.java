@@ -0,0 +1,200 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import io.kafbat.ui.model.ServerStatusDTO;
+import io.kafbat.ui.model.Statistics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class TopicsStatisticsRefreshTest {
+
+  static final String CLUSTER = "test";
+  static final Set<Integer> BROKERS = Set.of(1, 2, 3);
+
+  final AtomicLong nanos = new AtomicLong();
+  final TopicsStatisticsRefresh refresh = new TopicsStatisticsRefresh(
+      Duration.ofMinutes(10), Duration.ofMinutes(30), Duration.ofHours(1), new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      });
+
+  final ReactiveAdminClient adminClient = mock(ReactiveAdminClient.class);
+  final Map<String, Uuid> listedTopics = new HashMap<>();
+  final List<Collection<String>> describeCalls = new ArrayList<>();
+  final List<Collection<String>> configCalls = new ArrayList<>();
+  // topic -> replicas' broker ids (first is leader), all brokers by default
+  final Map<String, List<Integer>> replicas = new HashMap<>();
+  final Set<String> outOfSync = new HashSet<>();
+
+  @BeforeEach
+  void mockAdminClient() {
+    when(adminClient.listTopicIds(true)).thenAnswer(inv -> Mono.just(Map.copyOf(listedTopics)));
+    when(adminClient.describeTopics(anyCollection())).thenAnswer(inv -> {
+      Collection<String> topics = inv.getArgument(0);
+      describeCalls.add(Set.copyOf(topics));
+      return Mono.just(topics.stream().collect(Collectors.toMap(Function.identity(), this::description)));
+    });
+    when(adminClient.getTopicsConfig(anyCollection(), eq(false))).thenAnswer(inv -> {
+      Collection<String> topics = inv.getArgument(0);
+      configCalls.add(Set.copyOf(topics));
+      return Mono.just(topics.stream().collect(Collectors.toMap(Function.identity(), t -> List.<ConfigEntry>of())));
+    });
+  }
+
+  @Test
+  void loadsAllTopicsOnFirstRefresh() {
+    addTopics(50);
+
+    var topics = refresh(Statistics.empty(), BROKERS);
+
+    assertThat(topics.descriptions()).containsOnlyKeys(listedTopics.keySet());
+    assertThat(topics.configs()).containsOnlyKeys(listedTopics.keySet());
+    assertThat(describeCalls).containsExactly(listedTopics.keySet());
+    assertThat(configCalls).containsExactly(listedTopics.keySet());
+  }
+
+  @Test
+  void loadsNewAndRecreatedTopicsAndDropsDeleted() {
+    addTopics(3);
+    var previous = online(refresh(Statistics.empty(), BROKERS));
+    describeCalls.clear();
+    configCalls.clear();
+
+    listedTopics.remove("topic-0");
+    listedTopics.put("topic-1", Uuid.randomUuid()); // re-created
+    listedTopics.put("new-topic", Uuid.randomUuid());
+    var topics = refresh(previous, BROKERS);
+
+    assertThat(describeCalls).containsExactly(Set.of("topic-1", "new-topic"));
+    assertThat(configCalls).containsExactly(Set.of("topic-1", "new-topic"));
+    assertThat(topics.descriptions()).containsOnlyKeys("topic-1", "topic-2", "new-topic");
+    assertThat(topics.descriptions().get("topic-1").topicId()).isEqualTo(listedTopics.get("topic-1"));
+    assertThat(topics.descriptions().get("topic-2")).isSameAs(previous.getTopicDescriptions().get("topic-2"));
+    assertThat(topics.configs()).containsOnlyKeys("topic-1", "topic-2", "new-topic");
+  }
+
+  @Test
+  void refreshesExistingTopicsInSlicesOverSweepPeriods() {
+    addTopics(100);
+    var stats = online(refresh(Statistics.empty(), BROKERS));
+    describeCalls.clear();
+    configCalls.clear();
+
+    Set<String> described = new HashSet<>();
+    Set<String> configsLoaded = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+      stats = online(refresh(stats, BROKERS));
+      assertThat(describeCalls.get(i)).hasSize(10);
+      described.addAll(describeCalls.get(i));
+      configsLoaded.addAll(configCalls.get(i));
+    }
+    // each topic is described once per descriptions sweep period
+    assertThat(described).containsExactlyInAnyOrderElementsOf(listedTopics.keySet());
+    // 1/3 of configs sweep period passed
+    assertThat(configsLoaded).hasSizeBetween(33, 34);
+    assertThat(stats.getTopicDescriptions()).containsOnlyKeys(listedTopics.keySet());
+  }
+
+  @Test
+  void describesTopicsWithReplicasOnChangedBrokers() {
+    addTopics(20);
+    replicas.put("topic-0", List.of(3, 1));
+    replicas.put("topic-1", List.of(2, 3));
+    var stats = online(refresh(Statistics.empty(), BROKERS));
+    describeCalls.clear();
+    configCalls.clear();
+
+    refresh(stats, Set.of(1, 2));
+
+    assertThat(describeCalls).containsExactly(Set.of("topic-0", "topic-1"));
+    assertThat(configCalls).isEmpty();
+  }
+
+  @Test
+  void describesTopicsWithOutOfSyncReplicasOnEveryUpdateUntilTheyRecover() {
+    addTopics(20);
+    outOfSync.add("topic-0");
+    var stats = online(refresh(Statistics.empty(), BROKERS));
+    describeCalls.clear();
+
+    stats = online(refresh(stats, BROKERS));
+    stats = online(refresh(stats, BROKERS));
+    outOfSync.clear();
+    stats = online(refresh(stats, BROKERS));
+    refresh(stats, BROKERS);
+
+    assertThat(describeCalls).containsExactly(Set.of("topic-0"), Set.of("topic-0"), Set.of("topic-0"));
+  }
+
+  @Test
+  void reloadsAllTopicsWhenFullRefreshPeriodPassedOrPreviousUpdateFailed() {
+    addTopics(20);
+    var stats = online(refresh(Statistics.empty(), BROKERS));
+    describeCalls.clear();
+    configCalls.clear();
+
+    refresh(Statistics.empty(), BROKERS);
+    assertThat(describeCalls).containsExactly(listedTopics.keySet());
+    assertThat(configCalls).containsExactly(listedTopics.keySet());
+
+    describeCalls.clear();
+    configCalls.clear();
+    nanos.addAndGet(Duration.ofHours(1).toNanos());
+    refresh(stats, BROKERS);
+    assertThat(describeCalls).containsExactly(listedTopics.keySet());
+    assertThat(configCalls).containsExactly(listedTopics.keySet());
+  }
+
+  private TopicsStatisticsRefresh.Topics refresh(Statistics previous, Set<Integer> brokers) {
+    return refresh.refresh(CLUSTER, adminClient, previous, brokers).block();
+  }
+
+  private void addTopics(int count) {
+    IntStream.range(0, count).forEach(i -> listedTopics.put("topic-" + i, Uuid.randomUuid()));
+  }
+
+  private TopicDescription description(String topic) {
+    List<Node> replicaNodes = replicas.getOrDefault(topic, List.copyOf(BROKERS)).stream()
+        .map(id -> new Node(id, "broker" + id, 9092))
+        .toList();
+    var isr = outOfSync.contains(topic) ? replicaNodes.subList(0, 1) : replicaNodes;
+    var partition = new TopicPartitionInfo(0, replicaNodes.get(0), replicaNodes, isr);
+    return new TopicDescription(topic, false, List.of(partition), Set.of(), listedTopics.get(topic));
+  }
+
+  private static Statistics online(TopicsStatisticsRefresh.Topics topics) {
+    return Statistics.empty().toBuilder()
+        .status(ServerStatusDTO.ONLINE)
+        .topicDescriptions(topics.descriptions())
+        .topicConfigs(topics.configs())
+        .build();
+  }
+
+}
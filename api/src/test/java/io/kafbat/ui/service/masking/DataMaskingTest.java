@@ -1,5 +1,8 @@
 package io.kafbat.ui.service.masking;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -14,6 +17,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -51,22 +55,66 @@ class DataMaskingTest {
       "{\"some\": \"json\"}",
       "[ {\"json\": \"array\"} ]"
   })
-  @SneakyThrows
   void appliesMasksToJsonContainerArgsBasedOnTopicPatterns(String jsonObjOrArr) {
-    var parsedJson = (ContainerNode<?>) new JsonMapper().readTree(jsonObjOrArr);
-
     masking.getMaskingFunction(TOPIC, Serde.Target.KEY).apply(jsonObjOrArr);
-    verify(policy1).applyToJsonContainer(parsedJson);
+    verify(policy1, atLeastOnce()).fieldShouldBeMasked(anyString());
     verifyNoInteractions(policy2, policy3);
 
     reset(policy1, policy2, policy3);
 
     masking.getMaskingFunction(TOPIC, Serde.Target.VALUE).apply(jsonObjOrArr);
-    verify(policy2).applyToJsonContainer(parsedJson);
-    verify(policy3).applyToJsonContainer(policy2.applyToJsonContainer(parsedJson));
+    verify(policy2, atLeastOnce()).fieldShouldBeMasked(anyString());
+    verify(policy3, atLeastOnce()).removesFields();
     verifyNoInteractions(policy1);
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"id\": 12, \"name\": \"John Doe\", \"secret\": {\"pin\": 1234, \"hint\": null}, \"tags\": [\"a\", 1.5e3]}",
+      "[{\"name\": \"Jane\", \"secret\": [true, false, -0.25]}, {\"other\": {\"name\": 123456789012345678901}}]",
+      "{\"id\": 1, \"nested\": {\"id\": 2, \"name\": {\"secret\": \"s\", \"tags\": [{\"id\": 3}]}}}",
+      "{}"
+  })
+  @SneakyThrows
+  void streamingMaskingGivesSameResultAsSequentialPoliciesApplicationToJsonTree(String json) {
+    List<MaskingPolicy> policies = List.of(
+        policy(ClustersProperties.Masking.Type.MASK, List.of("name", "secret")),
+        policy(ClustersProperties.Masking.Type.REPLACE, List.of("secret", "tags")),
+        policy(ClustersProperties.Masking.Type.REMOVE, List.of("id")),
+        policy(ClustersProperties.Masking.Type.MASK, List.of("tags"))
+    );
+    var dataMasking = new DataMasking(
+        policies.stream().map(p -> new DataMasking.Mask(null, Pattern.compile(TOPIC), p)).toList());
+
+    var tree = (ContainerNode<?>) new JsonMapper().readTree(json);
+    for (MaskingPolicy policy : policies) {
+      tree = policy.applyToJsonContainer(tree);
+    }
+
+    assertThat(dataMasking.getMaskingFunction(TOPIC, Serde.Target.VALUE).apply(json))
+        .isEqualTo(tree.toString());
+  }
+
+  @Test
+  void appliesFirstFoundMaskToStringIfJsonIsMalformed() {
+    String malformed = "{\"some\": \"json\", ";
+    masking.getMaskingFunction(TOPIC, Serde.Target.VALUE).apply(malformed);
+    verify(policy2).applyToString(malformed);
+  }
+
+  @Test
+  void maskerIsCreatedOncePerTopic() {
+    assertThat(masking.getMaskerForTopic(TOPIC)).isSameAs(masking.getMaskerForTopic(TOPIC));
+    assertThat(masking.getMaskerForTopic(TOPIC)).isNotSameAs(masking.getMaskerForTopic("otherTopic"));
+  }
+
+  private static MaskingPolicy policy(ClustersProperties.Masking.Type type, List<String> fields) {
+    var props = new ClustersProperties.Masking();
+    props.setType(type);
+    props.setFields(fields);
+    return MaskingPolicy.create(props);
+  }
+
   @ParameterizedTest
   @ValueSource(strings = {
       "non json str",
@@ -0,0 +1,125 @@
+package io.kafbat.ui.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Ticker;
+import io.kafbat.ui.model.MetricsConfig;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.remote.JMXConnector;
+import org.junit.jupiter.api.Test;
+
+class JmxConnectionsPoolTest {
+
+  static final JmxConnectionsPool.Key KEY =
+      new JmxConnectionsPool.Key("test", 1, "service:jmx:rmi:///jndi/rmi://broker1:9997/jmxrmi",
+          MetricsConfig.builder().port(9997).build());
+
+  final AtomicLong nanos = new AtomicLong();
+  final List<JMXConnector> opened = new ArrayList<>();
+  final JmxConnectionsPool pool = new JmxConnectionsPool(
+      (url, env) -> {
+        var connector = mock(JMXConnector.class);
+        opened.add(connector);
+        return connector;
+      },
+      Duration.ofMinutes(5),
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      });
+
+  @Test
+  void reusesConnectionBetweenScrapes() throws Exception {
+    pool.execute(KEY, Map.of(), c -> 1);
+    pool.execute(KEY, Map.of(), c -> 2);
+
+    assertThat(opened).hasSize(1);
+    verify(opened.get(0), times(0)).close();
+  }
+
+  @Test
+  void reconnectsOnceWhenConnectionFails() throws Exception {
+    var attempts = new AtomicInteger();
+    int result = pool.execute(KEY, Map.of(), c -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IOException("connection reset");
+      }
+      return 42;
+    });
+
+    assertThat(result).isEqualTo(42);
+    assertThat(opened).hasSize(2);
+    verify(opened.get(0)).close();
+    assertThat(pool.size()).isEqualTo(1);
+  }
+
+  @Test
+  void propagatesErrorWhenReconnectedConnectionFails() {
+    assertThatThrownBy(() -> pool.execute(KEY, Map.of(), c -> {
+      throw new IOException("broker down");
+    })).isInstanceOf(IOException.class);
+
+    assertThat(opened).hasSize(2);
+  }
+
+  @Test
+  void closesIdleConnections() throws Exception {
+    var otherKey = new JmxConnectionsPool.Key("test", 2, "service:jmx:rmi:///jndi/rmi://broker2:9997/jmxrmi",
+        KEY.config());
+    pool.execute(KEY, Map.of(), c -> 1);
+    nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+    pool.execute(otherKey, Map.of(), c -> 1);
+
+    assertThat(pool.size()).isEqualTo(1);
+    verify(opened.get(0)).close();
+  }
+
+  @Test
+  void keepsConcurrentlyCreatedConnectionAndClosesOwn() throws Exception {
+    var connects = new AtomicInteger();
+    var racingPool = new AtomicReference<JmxConnectionsPool>();
+    racingPool.set(new JmxConnectionsPool(
+        (url, env) -> {
+          if (connects.incrementAndGet() == 1) {
+            // other scrape connects to the same broker while this connection is being established
+            racingPool.get().execute(KEY, Map.of(), c -> 1);
+          }
+          var connector = mock(JMXConnector.class);
+          opened.add(connector);
+          return connector;
+        },
+        Duration.ofMinutes(5),
+        Ticker.systemTicker()));
+
+    racingPool.get().execute(KEY, Map.of(), c -> 1);
+
+    // concurrent connection was registered first, own connection lost the race
+    assertThat(opened).hasSize(2);
+    assertThat(racingPool.get().size()).isEqualTo(1);
+    verify(opened.get(0), times(0)).close();
+    verify(opened.get(1)).close();
+  }
+
+  @Test
+  void closesAllConnectionsOnClose() throws Exception {
+    pool.execute(KEY, Map.of(), c -> 1);
+    pool.close();
+
+    assertThat(pool.size()).isZero();
+    verify(opened.get(0)).close();
+  }
+
+}
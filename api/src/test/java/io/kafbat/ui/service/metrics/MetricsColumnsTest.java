@@ -0,0 +1,118 @@
+package io.kafbat.ui.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MetricsColumnsTest {
+
+  @Test
+  void keepsBrokersMetricsInScrapeOrder() {
+    var columns = MetricsColumns.builder()
+        .addAll(1, List.of(metric("b", Map.of("topic", "t1"), "2"), metric("a", Map.of(), "1.5")))
+        .addAll(2, List.of(metric("a", Map.of(), "3")))
+        .build();
+
+    assertThat(columns.brokerIds()).containsExactlyInAnyOrder(1, 2);
+    assertThat(columns.brokerMetrics(1)).hasValue(
+        List.of(metric("b", Map.of("topic", "t1"), "2"), metric("a", Map.of(), "1.5")));
+    assertThat(columns.brokerMetrics(2)).hasValue(List.of(metric("a", Map.of(), "3")));
+    assertThat(columns.brokerMetrics(3)).isEmpty();
+  }
+
+  @Test
+  void sumsSeriesAcrossBrokers() {
+    var columns = MetricsColumns.builder()
+        .addAll(1, List.of(
+            metric("bytes", Map.of("topic", "t1", "name", "BytesIn"), "1.5"),
+            metric("bytes", Map.of("topic", "t2", "name", "BytesIn"), "10")))
+        .addAll(2, List.of(
+            metric("bytes", Map.of("name", "BytesIn", "topic", "t1"), "2"),
+            metric("other", Map.of("topic", "t1", "name", "BytesIn"), "7")))
+        .build();
+
+    assertThat(columns.seriesCount()).isEqualTo(3);
+    assertThat(columns.summarized()).containsExactly(
+        metric("bytes", Map.of("topic", "t1", "name", "BytesIn"), "3.5"),
+        metric("bytes", Map.of("topic", "t2", "name", "BytesIn"), "10"),
+        metric("other", Map.of("topic", "t1", "name", "BytesIn"), "7")
+    );
+  }
+
+  @Test
+  void sharesNamesAndLabelsBetweenBrokers() {
+    var columns = MetricsColumns.builder()
+        .addAll(1, List.of(metric(new String("m"), Map.of(new String("topic"), new String("t")), "1")))
+        .addAll(2, List.of(metric(new String("m"), Map.of(new String("topic"), new String("t")), "2")))
+        .build();
+
+    var m1 = columns.brokerMetrics(1).orElseThrow().get(0);
+    var m2 = columns.brokerMetrics(2).orElseThrow().get(0);
+    assertThat(m1.name()).isSameAs(m2.name());
+    assertThat(m1.labels()).isSameAs(m2.labels());
+  }
+
+  @Test
+  void passesBrokerSamplesToSink() {
+    var builder = MetricsColumns.builder();
+    builder.column(2).accept("a", Map.of(), 3);
+    builder.column(1).accept("b", Map.of("topic", "t1"), 2);
+    builder.column(1).accept("a", Map.of(), 1.5);
+    var columns = builder.build();
+
+    List<RawMetric> samples = new ArrayList<>();
+    columns.forEach(1, (name, labels, value) -> samples.add(RawMetric.create(name, labels, BigDecimal.valueOf(value))));
+    assertThat(samples).containsExactly(metric("b", Map.of("topic", "t1"), "2.0"), metric("a", Map.of(), "1.5"));
+    assertThat(columns.summarized())
+        .containsExactly(metric("a", Map.of(), "4.5"), metric("b", Map.of("topic", "t1"), "2"));
+  }
+
+  @Test
+  void sumsIntegralSeriesExactly() {
+    var columns = MetricsColumns.builder()
+        .addAll(1, List.of(
+            metric("bytes_total", Map.of(), "9007199254740993"),
+            metric("overflown_total", Map.of(), "9000000000000000000")))
+        .addAll(2, List.of(
+            metric("bytes_total", Map.of(), "1000000000000000001"),
+            metric("overflown_total", Map.of(), "9000000000000000000")))
+        .build();
+
+    assertThat(columns.brokerMetrics(1).orElseThrow().get(0).value()).isEqualTo(new BigDecimal("9007199254740993"));
+    assertThat(columns.summarized()).containsExactly(
+        metric("bytes_total", Map.of(), "1009007199254740994"),
+        // sum does not fit into long, summed as double
+        metric("overflown_total", Map.of(), "18000000000000000000"));
+  }
+
+  @Test
+  void roundsSumsOfDoublesToDoublePrecision() {
+    var columns = MetricsColumns.builder()
+        .addAll(1, List.of(metric("rate", Map.of(), "0.1"), metric("single", Map.of(), "16.94886650744339")))
+        .addAll(2, List.of(metric("rate", Map.of(), "0.2")))
+        .build();
+
+    assertThat(columns.summarized()).containsExactly(
+        metric("rate", Map.of(), "0.3"),
+        metric("single", Map.of(), "16.94886650744339"));
+  }
+
+  @Test
+  void equalWhenBrokersHaveSameMetrics() {
+    var metrics = List.of(metric("a", Map.of("l", "v"), "1"), metric("b", Map.of(), "2"));
+
+    assertThat(MetricsColumns.builder().addAll(1, metrics).build())
+        .isEqualTo(MetricsColumns.builder().addAll(1, metrics).build())
+        .isNotEqualTo(MetricsColumns.builder().addAll(2, metrics).build())
+        .isNotEqualTo(MetricsColumns.builder().addAll(1, metrics.subList(0, 1)).build());
+  }
+
+  private static RawMetric metric(String name, Map<String, String> labels, String value) {
+    return RawMetric.create(name, labels, new BigDecimal(value));
+  }
+
+}
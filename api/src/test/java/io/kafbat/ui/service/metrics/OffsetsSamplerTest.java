@@ -0,0 +1,64 @@
+package io.kafbat.ui.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Map;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class OffsetsSamplerTest {
+
+  final OffsetsSampler sampler = new OffsetsSampler(new MetricsHistory(100, Clock.systemUTC()), Clock.systemUTC());
+
+  @Test
+  void noRatesOnFirstSample() {
+    var metrics = sampler.update("c", 1_000, Map.of(tp("t", 0), 100L));
+
+    assertThat(metrics.getTopicMessagesInPerSec()).isEmpty();
+    assertThat(metrics.getPartitionMessagesInPerSec()).isEmpty();
+  }
+
+  @Test
+  void ratesCalculatedFromOffsetsGrowth() {
+    sampler.update("c", 0, Map.of(tp("t", 0), 100L, tp("t", 1), 1_000L, tp("other", 0), 5L));
+    var metrics = sampler.update("c", 10_000, Map.of(tp("t", 0), 150L, tp("t", 1), 1_100L, tp("other", 0), 5L));
+
+    assertThat(metrics.getPartitionMessagesInPerSec())
+        .containsEntry(tp("t", 0), new BigDecimal("5.000"))
+        .containsEntry(tp("t", 1), new BigDecimal("10.000"))
+        .containsEntry(tp("other", 0), new BigDecimal("0.000"));
+    assertThat(metrics.getTopicMessagesInPerSec())
+        .containsOnly(Map.entry("t", new BigDecimal("15.000")), Map.entry("other", new BigDecimal("0.000")));
+  }
+
+  @Test
+  void newAndRecreatedPartitionsAreSkipped() {
+    sampler.update("c", 0, Map.of(tp("recreated", 0), 1_000L, tp("expanded", 0), 10L));
+    var metrics = sampler.update("c", 1_000, Map.of(
+        tp("recreated", 0), 10L,
+        tp("expanded", 0), 20L,
+        tp("expanded", 1), 30L,
+        tp("new", 0), 5L));
+
+    assertThat(metrics.getPartitionMessagesInPerSec())
+        .containsOnly(Map.entry(tp("expanded", 0), new BigDecimal("10.000")));
+    assertThat(metrics.getTopicMessagesInPerSec())
+        .containsOnly(Map.entry("expanded", new BigDecimal("10.000")));
+  }
+
+  @Test
+  void samplesAreKeptPerCluster() {
+    sampler.update("c1", 0, Map.of(tp("t", 0), 0L));
+    sampler.update("c2", 0, Map.of(tp("t", 0), 1_000L));
+
+    assertThat(sampler.update("c1", 1_000, Map.of(tp("t", 0), 7L)).getTopicMessagesInPerSec())
+        .containsEntry("t", new BigDecimal("7.000"));
+  }
+
+  private static TopicPartition tp(String topic, int partition) {
+    return new TopicPartition(topic, partition);
+  }
+
+}
@@ -2,10 +2,20 @@ package io.kafbat.ui.service.metrics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 
 class PrometheusEndpointMetricsParserTest {
 
@@ -28,4 +38,157 @@ class PrometheusEndpointMetricsParserTest {
     });
   }
 
+  @Test
+  void parsesFullExpositionFormat() {
+    String body = """
+        # HELP http_requests_total The total number of HTTP requests.
+        # TYPE http_requests_total counter
+        http_requests_total{method="post",code="200"} 1027 1395066363000
+        http_requests_total { method = "post" , code = "400" } 3e2
+        file_access_time_seconds{path="C:\\DIR\\F.TXT",error="Not found:\\n\\"F.TXT\\""} 1.458255915e9
+        metric_without_timestamp_and_labels 12.47
+        something_weird{problem="division by zero"} +Inf -3982045
+        nan_metric NaN
+        # TYPE http_request_duration_seconds histogram
+        http_request_duration_seconds_bucket{le="0.05"} 24054
+        http_request_duration_seconds_bucket{le="+Inf"} 144320
+        http_request_duration_seconds_sum 53423
+        http_request_duration_seconds_count 144320
+        exemplar_metric_total 17 # {trace_id="KOO5S4vxi0o"} 0.67
+        invalid_labels{a="b} 1
+        # EOF""";
+
+    assertThat(parseInChunks(body, null, body.length()))
+        .containsExactly(
+            metric("http_requests_total", Map.of("method", "post", "code", "200"), "1027"),
+            metric("http_requests_total", Map.of("method", "post", "code", "400"), "3e2"),
+            metric("file_access_time_seconds",
+                Map.of("path", "C:\\DIR\\F.TXT", "error", "Not found:\n\"F.TXT\""), "1.458255915e9"),
+            metric("metric_without_timestamp_and_labels", Map.of(), "12.47"),
+            metric("http_request_duration_seconds_bucket", Map.of("le", "0.05"), "24054"),
+            metric("http_request_duration_seconds_bucket", Map.of("le", "+Inf"), "144320"),
+            metric("http_request_duration_seconds_sum", Map.of(), "53423"),
+            metric("http_request_duration_seconds_count", Map.of(), "144320"),
+            metric("exemplar_metric_total", Map.of(), "17")
+        );
+  }
+
+  @Test
+  void producesSameResultRegardlessOfChunking() {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      body.append("kafka_server_BrokerTopicMetrics_FifteenMinuteRate{name=\"BytesInPerSec\",topic=\"t")
+          .append(i).append("\",} ").append(i).append(".5\r\n");
+    }
+    var expected = parseInChunks(body.toString(), null, body.length());
+    assertThat(expected).hasSize(200);
+    for (int chunkSize : List.of(1, 7, 100, 4096)) {
+      assertThat(parseInChunks(body.toString(), null, chunkSize)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void skipsMetricsNotInAllowlist() {
+    String body = """
+        kafka_server_BrokerTopicMetrics_FifteenMinuteRate{name="BytesInPerSec",} 1.0
+        kafka_server_KafkaRequestHandlerPool_FifteenMinuteRate{name="RequestHandlerAvgIdlePercent",} 0.898
+        jvm_memory_bytes_used{area="heap",} 2.0
+        """;
+
+    assertThat(parseInChunks(body, List.of("kafka_server_BrokerTopicMetrics", "jvm_"), 10))
+        .extracting(RawMetric::name)
+        .containsExactly("kafka_server_BrokerTopicMetrics_FifteenMinuteRate", "jvm_memory_bytes_used");
+  }
+
+  @Test
+  void internsNamesAndLabelsOfSamples() {
+    String body = """
+        kafka_log_Log_Value{name="Size",topic="t1",partition="0",} 1.0
+        kafka_log_Log_Value{name="Size",topic="t1",partition="1",} 2.0
+        kafka_log_Log_Value{name="Size",topic="t1",partition="0",} 3.0
+        """;
+
+    var parsed = parseInChunks(body, null, 7);
+    assertThat(parsed).hasSize(3);
+    assertThat(parsed.get(0).name()).isSameAs(parsed.get(1).name());
+    assertThat(parsed.get(0).labels()).isSameAs(parsed.get(2).labels());
+    var keys0 = parsed.get(0).labels().keySet().stream().sorted().toList();
+    var keys1 = parsed.get(1).labels().keySet().stream().sorted().toList();
+    for (int i = 0; i < keys0.size(); i++) {
+      assertThat(keys0.get(i)).isSameAs(keys1.get(i));
+    }
+    assertThat(parsed.get(0).labels().get("topic")).isSameAs(parsed.get(1).labels().get("topic"));
+  }
+
+  @Test
+  void parsesValuesSameAsJdk() {
+    var random = new Random(42);
+    List<String> values = new ArrayList<>(List.of(
+        "0", "-0", "+1", "1.", ".5", "0.1", "0.30000000000000004", "16.94886650744339", "1.458255915e9",
+        "1E-7", "9007199254740993", "123456789012345678901", "1e23", "4.9e-324", "1.7976931348623157e308"));
+    for (int i = 0; i < 1000; i++) {
+      values.add(Double.toString(Double.longBitsToDouble(random.nextLong())));
+      values.add(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(30) - 10)));
+      values.add(Long.toString(random.nextLong() >> random.nextInt(64)));
+    }
+    String body = values.stream().map(v -> "m " + v + "\n").collect(Collectors.joining());
+
+    assertThat(parseInChunks(body, null, 4096))
+        .extracting(RawMetric::value)
+        .containsExactlyElementsOf(values.stream()
+            .map(Double::parseDouble)
+            .filter(Double::isFinite)
+            .map(BigDecimal::valueOf)
+            .toList());
+  }
+
+  @Test
+  void passesPlainIntegersAsLong() {
+    String body = """
+        counter_total 9007199254740993
+        negative -123456789012345678
+        too_long 1234567890123456789
+        decimal 2.0
+        """;
+    Map<String, Object> parsed = new LinkedHashMap<>();
+    var parser = new PrometheusEndpointMetricsParser(null);
+    MetricsSink sink = new MetricsSink() {
+      @Override
+      public void accept(String name, Map<String, String> labels, double value) {
+        parsed.put(name, value);
+      }
+
+      @Override
+      public void accept(String name, Map<String, String> labels, long value) {
+        parsed.put(name, value);
+      }
+    };
+    parser.parse(DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8)), sink);
+    parser.finish(sink);
+
+    assertThat(parsed).containsExactly(
+        Map.entry("counter_total", 9007199254740993L),
+        Map.entry("negative", -123456789012345678L),
+        Map.entry("too_long", 1.2345678901234568E18),
+        Map.entry("decimal", 2.0));
+  }
+
+  private static List<RawMetric> parseInChunks(String body, @Nullable List<String> allowlist, int chunkSize) {
+    var parser = new PrometheusEndpointMetricsParser(allowlist);
+    var bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    List<RawMetric> result = new ArrayList<>();
+    MetricsSink sink = (name, labels, value) -> result.add(RawMetric.create(name, labels, BigDecimal.valueOf(value)));
+    for (int i = 0; i < bytes.length; i += chunkSize) {
+      var chunk = bufferFactory.wrap(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize)));
+      parser.parse(chunk, sink);
+    }
+    parser.finish(sink);
+    return result;
+  }
+
+  private static RawMetric metric(String name, Map<String, String> labels, String value) {
+    return RawMetric.create(name, labels, BigDecimal.valueOf(Double.parseDouble(value)));
+  }
+
 }
@@ -1,8 +1,11 @@
 package io.kafbat.ui.service.metrics;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import io.kafbat.ui.model.MetricsConfig;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import okhttp3.mockwebserver.MockResponse;
@@ -36,10 +39,12 @@ class PrometheusMetricsRetrieverTest {
 
     MetricsConfig metricsConfig = prepareMetricsConfig(url.port(), null, null);
 
-    StepVerifier.create(retriever.retrieve(WebClient.create(), url.host(), metricsConfig))
-        .expectNextSequence(expectedRawMetrics())
-        // third metric should not be present, since it has "NaN" value
+    List<RawMetric> retrieved = new ArrayList<>();
+    StepVerifier.create(retriever.retrieve(WebClient.create(), url.host(), metricsConfig,
+            (name, labels, value) -> retrieved.add(RawMetric.create(name, labels, BigDecimal.valueOf(value)))))
         .verifyComplete();
+    // third metric should not be present, since it has "NaN" value
+    assertThat(retrieved).isEqualTo(expectedRawMetrics());
   }
 
   @Test
@@ -50,10 +55,12 @@ class PrometheusMetricsRetrieverTest {
 
     MetricsConfig metricsConfig = prepareMetricsConfig(url.port(), "username", "password");
 
-    StepVerifier.create(retriever.retrieve(WebClient.create(), url.host(), metricsConfig))
-        .expectNextSequence(expectedRawMetrics())
-        // third metric should not be present, since it has "NaN" value
+    List<RawMetric> retrieved = new ArrayList<>();
+    StepVerifier.create(retriever.retrieve(WebClient.create(), url.host(), metricsConfig,
+            (name, labels, value) -> retrieved.add(RawMetric.create(name, labels, BigDecimal.valueOf(value)))))
         .verifyComplete();
+    // third metric should not be present, since it has "NaN" value
+    assertThat(retrieved).isEqualTo(expectedRawMetrics());
   }
 
   MockResponse prepareResponse() {
@@ -0,0 +1,118 @@
+package io.kafbat.ui.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.service.metrics.MetricsHistory.Resolution;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TimeSeriesStoreTest {
+
+  static final long MINUTE = Duration.ofMinutes(1).toMillis();
+  static final long HOUR = Duration.ofHours(1).toMillis();
+  static final long DAY = Duration.ofDays(1).toMillis();
+
+  final TimeSeriesStore<String> store = new TimeSeriesStore<>(10);
+
+  @Test
+  void averagesSamplesWithinPeriods() {
+    long start = 100 * DAY;
+    store.add(start, Map.of("s", 1));
+    store.add(start + 30_000, Map.of("s", 3));
+    store.add(start + MINUTE, Map.of("s", 8));
+
+    var minutes = store.query("s", Resolution.MINUTE).orElseThrow();
+    assertThat(minutes.stepMs()).isEqualTo(MINUTE);
+    assertThat(minutes.values()).hasSize(60);
+    assertThat(minutes.startMs()).isEqualTo(start + MINUTE - 59 * MINUTE);
+    assertThat(minutes.values()[58]).isEqualTo(2);
+    assertThat(minutes.values()[59]).isEqualTo(8);
+    assertThat(minutes.values()[57]).isNaN();
+
+    var hours = store.query("s", Resolution.HOUR).orElseThrow();
+    assertThat(hours.values()[23]).isEqualTo(4);
+    var days = store.query("s", Resolution.DAY).orElseThrow();
+    assertThat(days.startMs()).isEqualTo(start - 29 * DAY);
+    assertThat(days.values()[29]).isEqualTo(4);
+  }
+
+  @Test
+  void leavesGapsForPeriodsWithoutSamples() {
+    long start = 100 * DAY;
+    store.add(start, Map.of("s1", 1, "s2", 10));
+    store.add(start + MINUTE, Map.of("s1", 2));
+    store.add(start + 3 * MINUTE, Map.of("s1", 3, "s2", 30));
+
+    var s1 = store.query("s1", Resolution.MINUTE).orElseThrow().values();
+    assertThat(s1[56]).isEqualTo(1);
+    assertThat(s1[57]).isEqualTo(2);
+    assertThat(s1[58]).isNaN();
+    assertThat(s1[59]).isEqualTo(3);
+
+    var s2 = store.query("s2", Resolution.MINUTE).orElseThrow().values();
+    assertThat(s2[56]).isEqualTo(10);
+    assertThat(s2[57]).isNaN();
+    assertThat(s2[59]).isEqualTo(30);
+  }
+
+  @Test
+  void recyclesSlotsOfExpiredPeriods() {
+    long start = 100 * DAY;
+    for (int i = 0; i < 90; i++) {
+      store.add(start + i * MINUTE, Map.of("s", i));
+    }
+    var minutes = store.query("s", Resolution.MINUTE).orElseThrow().values();
+    for (int i = 0; i < 60; i++) {
+      assertThat(minutes[i]).isEqualTo(30 + i);
+    }
+
+    // gap longer than tier's span clears all slots
+    store.add(start + 200 * MINUTE, Map.of("s", 1000));
+    minutes = store.query("s", Resolution.MINUTE).orElseThrow().values();
+    assertThat(minutes[59]).isEqualTo(1000);
+    for (int i = 0; i < 59; i++) {
+      assertThat(minutes[i]).isNaN();
+    }
+  }
+
+  @Test
+  void limitsNumberOfSeriesAndEvictsInactiveOnes() {
+    long start = 100 * DAY;
+    for (int i = 0; i < 15; i++) {
+      store.add(start, Map.of("s" + i, i));
+    }
+    assertThat(store.seriesCount()).isEqualTo(10);
+    assertThat(store.query("s14", Resolution.MINUTE)).isEmpty();
+
+    store.add(start + 29 * DAY, Map.of("s0", 1));
+    assertThat(store.seriesCount()).isEqualTo(10);
+
+    // only s0 had samples within last 30 days
+    store.add(start + 31 * DAY, Map.of("new", 1));
+    assertThat(store.seriesCount()).isEqualTo(2);
+    assertThat(store.query("s0", Resolution.DAY)).isPresent();
+    assertThat(store.query("s1", Resolution.DAY)).isEmpty();
+  }
+
+  @Test
+  void seriesLimitIsSharedByStoresOfAllClusters() {
+    long start = 100 * DAY;
+    var budget = new TimeSeriesStore.Budget(10);
+    var first = new TimeSeriesStore<String>(budget);
+    var second = new TimeSeriesStore<String>(budget);
+    for (int i = 0; i < 8; i++) {
+      first.add(start, Map.of("s" + i, i));
+      second.add(start, Map.of("s" + i, i));
+    }
+    assertThat(first.seriesCount() + second.seriesCount()).isEqualTo(10);
+
+    // evicted series of one store free budget for others
+    first.add(start + 31 * DAY, Map.of("new", 1));
+    assertThat(budget.used()).isEqualTo(1 + second.seriesCount());
+    second.add(start + 31 * DAY, Map.of("s0", 1, "new", 1));
+    assertThat(second.seriesCount()).isEqualTo(2);
+    assertThat(budget.used()).isEqualTo(3);
+  }
+
+}
@@ -87,7 +87,7 @@ class WellKnownMetricsTest {
         .map(PrometheusEndpointMetricsParser::parse)
         .filter(Optional::isPresent)
         .map(Optional::get)
-        .forEach(m -> wellKnownMetrics.populate(n, m));
+        .forEach(m -> wellKnownMetrics.populate(n.id(), m.name(), m.labels(), m.value().doubleValue()));
   }
 
 }
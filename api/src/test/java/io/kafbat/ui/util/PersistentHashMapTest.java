@@ -0,0 +1,94 @@
+package io.kafbat.ui.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class PersistentHashMapTest {
+
+  // key with controlled hash code, to produce hash collisions
+  private record Key(String name, int hash) {
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  @RepeatedTest(5)
+  void behavesLikeHashMapOnRandomUpdates() {
+    var random = new Random();
+    Map<Key, Integer> expected = new HashMap<>();
+    PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+    for (int i = 0; i < 20_000; i++) {
+      int n = random.nextInt(3_000);
+      // narrow hash range produces deep tries and full hash collisions
+      var key = new Key("k" + n, n < 50 ? 42 : (n % 2 == 0 ? n % 500 : Integer.reverse(n)));
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.minus(key);
+      } else {
+        expected.put(key, i);
+        map = map.plus(key, i);
+      }
+    }
+    var result = map;
+    assertThat(result).hasSize(expected.size());
+    assertThat(result).isEqualTo(expected);
+    expected.forEach((k, v) -> assertThat(result.get(k)).isEqualTo(v));
+
+    // removing all keys leaves empty map
+    var cleared = result;
+    for (Key key : expected.keySet()) {
+      cleared = cleared.minus(key);
+    }
+    assertThat(cleared).isEmpty();
+    assertThat(cleared.entrySet().iterator().hasNext()).isFalse();
+  }
+
+  @Test
+  void updatesDoNotChangeOriginalMap() {
+    var original = PersistentHashMap.copyOf(Map.of("a", 1, "b", 2, "c", 3));
+
+    var updated = original.plus("a", 10).plus("d", 4).minus("b");
+
+    assertThat(original).isEqualTo(Map.of("a", 1, "b", 2, "c", 3));
+    assertThat(updated).isEqualTo(Map.of("a", 10, "c", 3, "d", 4));
+  }
+
+  @Test
+  void returnsSameInstanceWhenNothingChanged() {
+    var map = PersistentHashMap.copyOf(Map.of("a", 1, "b", 2));
+    Integer value = map.get("a");
+
+    assertThat(map.plus("a", value)).isSameAs(map);
+    assertThat(map.minus("absent")).isSameAs(map);
+    assertThat(PersistentHashMap.copyOf(map)).isSameAs(map);
+  }
+
+  @Test
+  void handlesKeysWithEqualHashes() {
+    var k1 = new Key("1", 42);
+    var k2 = new Key("2", 42);
+    var k3 = new Key("3", 42);
+
+    var map = PersistentHashMap.<Key, String>empty().plus(k1, "v1").plus(k2, "v2").plus(k3, "v3");
+    assertThat(map).containsOnly(Map.entry(k1, "v1"), Map.entry(k2, "v2"), Map.entry(k3, "v3"));
+
+    map = map.minus(k2).minus(k1);
+    assertThat(map).containsOnly(Map.entry(k3, "v3"));
+  }
+
+  @Test
+  void doesNotSupportMutatingMapMethods() {
+    var map = PersistentHashMap.copyOf(Map.of("a", 1));
+
+    assertThatThrownBy(() -> map.put("b", 2)).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> map.remove("a")).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+}
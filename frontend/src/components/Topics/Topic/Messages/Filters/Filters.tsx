@@ -33,12 +33,14 @@ import FiltersMetrics from './FiltersMetrics';
 export interface FiltersProps {
   phaseMessage?: string;
   consumptionStats?: TopicMessageConsuming;
+  skippedMessages?: number;
   isFetching: boolean;
   abortFetchData: () => void;
 }
 
 const Filters: React.FC<FiltersProps> = ({
   consumptionStats,
+  skippedMessages,
   isFetching,
   abortFetchData,
   phaseMessage,
@@ -238,6 +240,7 @@ const Filters: React.FC<FiltersProps> = ({
           phaseMessage={phaseMessage}
           abortFetchData={abortFetchData}
           consumptionStats={consumptionStats}
+          skippedMessages={skippedMessages}
         />
       )}
     </FlexBox>
@@ -15,6 +15,8 @@ export interface FiltersMetricsProps {
   phaseMessage?: string;
   abortFetchData: () => void;
   consumptionStats: TopicMessageConsuming;
+  // messages that matched filter, but were dropped by live mode sampling
+  skippedMessages?: number;
 }
 
 const FiltersMetrics: FC<FiltersMetricsProps> = ({
@@ -23,6 +25,7 @@ const FiltersMetrics: FC<FiltersMetricsProps> = ({
   phaseMessage,
   abortFetchData,
   consumptionStats,
+  skippedMessages,
 }) => {
   return (
     <FlexBox
@@ -61,6 +64,11 @@ const FiltersMetrics: FC<FiltersMetricsProps> = ({
           <span>{consumptionStats.filterApplyErrors} errors</span>
         </S.Metric>
       )}
+      {!!skippedMessages && (
+        <S.Metric title="Skipped by sampling">
+          <span>{skippedMessages} messages skipped</span>
+        </S.Metric>
+      )}
     </FlexBox>
   );
 };
@@ -101,6 +101,18 @@ describe('FiltersMetrics', () => {
       expect(screen.queryByTitle('Errors')).not.toBeInTheDocument();
     });
 
+    it('should check skipped messages are visible', () => {
+      renderComponent({ consumptionStats: {}, skippedMessages: 5 });
+      expect(screen.getByText('5 messages skipped')).toBeInTheDocument();
+    });
+
+    it('should check skipped messages are not visible without sampling', () => {
+      renderComponent({ consumptionStats: {} });
+      expect(
+        screen.queryByTitle('Skipped by sampling')
+      ).not.toBeInTheDocument();
+    });
+
     it('should check if the abortFetch Data is being called when clicked', async () => {
       const jestAbortMock = jest.fn();
       renderComponent({
@@ -8,16 +8,23 @@ import Filters from './Filters/Filters';
 
 const Messages: React.FC = () => {
   const { clusterName, topicName } = useAppParams<RouteParamsClusterTopic>();
-  const { messages, isFetching, consumptionStats, phase, abortFetchData } =
-    useTopicMessages({
-      clusterName,
-      topicName,
-    });
+  const {
+    messages,
+    isFetching,
+    consumptionStats,
+    skippedMessages,
+    phase,
+    abortFetchData,
+  } = useTopicMessages({
+    clusterName,
+    topicName,
+  });
 
   return (
     <>
       <Filters
         consumptionStats={consumptionStats}
+        skippedMessages={skippedMessages}
         isFetching={isFetching}
         phaseMessage={phase}
         abortFetchData={abortFetchData}
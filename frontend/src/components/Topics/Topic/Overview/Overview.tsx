@@ -142,6 +142,15 @@ const Overview: React.FC = () => {
           <Metrics.Indicator label="Message Count">
             {messageCount}
           </Metrics.Indicator>
+          {data?.messagesInPerSec !== undefined && (
+            <Metrics.Indicator
+              label="Produce Rate"
+              title="Estimated from offsets growth, cluster has no metrics configured"
+            >
+              {data.messagesInPerSec}
+              <Metrics.LightText> msg/s</Metrics.LightText>
+            </Metrics.Indicator>
+          )}
         </Metrics.Section>
       </Metrics.Wrapper>
       <Table
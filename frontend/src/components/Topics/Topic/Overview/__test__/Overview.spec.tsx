@@ -95,6 +95,19 @@ describe('Overview', () => {
     });
   });
 
+  describe('produce rate', () => {
+    it('is rendered when estimated by server', () => {
+      renderComponent({ ...externalTopicPayload, messagesInPerSec: 12.5 });
+      expect(screen.getByText('Produce Rate')).toBeInTheDocument();
+      expect(screen.getByText('12.5')).toBeInTheDocument();
+    });
+
+    it('is not rendered without estimation', () => {
+      renderComponent({ ...externalTopicPayload, messagesInPerSec: undefined });
+      expect(screen.queryByText('Produce Rate')).not.toBeInTheDocument();
+    });
+  });
+
   describe('should render circular alert', () => {
     it('should be in document', () => {
       renderComponent();
@@ -8,6 +8,7 @@ import {
 import {
   GetSerdesRequest,
   PollingMode,
+  TailingSamplingStrategy,
   TopicMessage,
   TopicMessageConsuming,
   TopicMessageEvent,
@@ -37,6 +38,7 @@ export const useTopicMessages = ({
   const [phase, setPhase] = React.useState<string>();
   const [consumptionStats, setConsumptionStats] =
     React.useState<TopicMessageConsuming>();
+  const [skippedMessages, setSkippedMessages] = React.useState(0);
   const [isFetching, setIsFetching] = React.useState(false);
   const abortController = useRef(new AbortController());
   const prevCursor = useRef(0);
@@ -56,6 +58,11 @@ export const useTopicMessages = ({
       searchParams.get(MessagesFilterKeys.mode) || ''
     );
 
+    // in live mode only the latest messages (up to limit) are kept
+    const maxMessages =
+      Number(searchParams.get(MessagesFilterKeys.limit)) ||
+      Number(MESSAGES_PER_PAGE);
+
     const fetchData = async () => {
       setIsFetching(true);
 
@@ -95,6 +102,10 @@ export const useTopicMessages = ({
             searchParams.get(MessagesFilterKeys.offset) || '0'
           );
           break;
+        case PollingMode.TAILING:
+          // server sends sampled batches instead of throttled single messages
+          requestParams.set('tailingSampling', TailingSamplingStrategy.UNIFORM);
+          break;
         default:
       }
 
@@ -124,13 +135,14 @@ export const useTopicMessages = ({
           if (ok && status === 200) {
             // Reset list of messages.
             setMessages([]);
+            setSkippedMessages(0);
           } else if (status >= 400 && status < 500 && status !== 429) {
             showServerError(response);
           }
         },
         onmessage(event) {
           const parsedData: TopicMessageEvent = JSON.parse(event.data);
-          const { message, consuming, cursor } = parsedData;
+          const { message, messagesBatch, consuming, cursor } = parsedData;
 
           if (useMessageFiltersStore.getState().nextCursor !== cursor?.id) {
             setNextCursor(cursor?.id || undefined);
@@ -141,12 +153,25 @@ export const useTopicMessages = ({
               if (message) {
                 setMessages((prevMessages) => {
                   if (mode === PollingMode.TAILING) {
-                    return [message, ...prevMessages];
+                    return [message, ...prevMessages].slice(0, maxMessages);
                   }
                   return [...prevMessages, message];
                 });
               }
               break;
+            case TopicMessageEventTypeEnum.MESSAGES_BATCH:
+              if (messagesBatch?.messages?.length) {
+                const batch = [...messagesBatch.messages].reverse();
+                setMessages((prevMessages) =>
+                  [...batch, ...prevMessages].slice(0, maxMessages)
+                );
+              }
+              if (messagesBatch?.skippedMessages) {
+                setSkippedMessages(
+                  (prev) => prev + (messagesBatch.skippedMessages || 0)
+                );
+              }
+              break;
             case TopicMessageEventTypeEnum.PHASE:
               if (parsedData.phase?.name) setPhase(parsedData.phase.name);
               break;
@@ -179,6 +204,7 @@ export const useTopicMessages = ({
     phase,
     messages,
     consumptionStats,
+    skippedMessages,
     isFetching,
     abortFetchData,
   };